@@ -0,0 +1,67 @@
+package com.mercadolivre.users.app.dataprovider;
+
+import com.mercadolivre.users.app.dataprovider.model.CpfStorage;
+import com.mercadolivre.users.app.dataprovider.query.UserQueryCompiler;
+import com.mercadolivre.users.app.dataprovider.query.UserQueryPlan;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.UserFilter;
+import java.util.concurrent.TimeUnit;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Everything {@link UserMongoRepository} does to a filter before the driver sees it: plan lookup,
+ * binding, cursor decoding, paging and projection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMongoRepositoryQueryBenchmark {
+
+  @Param({"first-page", "next-page-projected"})
+  private String request;
+
+  private UserQueryCompiler queryCompiler;
+  private UserFilter filter;
+  private CursorPageRequest page;
+  private Projection projection;
+
+  @Setup
+  public void setup() {
+    this.queryCompiler = new UserQueryCompiler(CpfStorage.STRING);
+    this.filter = UserFilter.builder().name("Jean Grey").build();
+    if ("first-page".equals(this.request)) {
+      this.page = CursorPageRequest.of(null, null);
+      this.projection = Projection.ALL;
+    } else {
+      this.page = CursorPageRequest.of(100, UserMongoRepository.encodeCursor(new ObjectId().toHexString()));
+      this.projection = Projection.of("id,name,email");
+    }
+  }
+
+  @Benchmark
+  public Query pageQuery() {
+    final UserQueryPlan plan = this.queryCompiler.planFor(this.filter);
+    return UserMongoRepository.pageQuery(plan, this.filter, this.page, this.projection);
+  }
+
+  @Benchmark
+  public Query streamQuery() {
+    return UserMongoRepository.project(this.queryCompiler.compile(this.filter), this.projection, false);
+  }
+}
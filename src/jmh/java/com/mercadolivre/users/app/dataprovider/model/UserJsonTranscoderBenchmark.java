@@ -0,0 +1,97 @@
+package com.mercadolivre.users.app.dataprovider.model;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mercadolivre.users.app.entrypoint.dto.UserResponseDTO;
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.User;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.bson.RawBsonDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Cost of rendering a page of stored users as a search response: straight from their BSON with
+ * {@link UserJsonTranscoder}, or decoded with {@link UserModelCodec}, mapped to users and DTOs and
+ * serialized by Jackson. Run with {@code -prof gc} to compare the allocations per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserJsonTranscoderBenchmark {
+
+  @Param({"STANDARD", "COMPACT"})
+  private UserLayout layout;
+
+  @Param({"100"})
+  private int pageSize;
+
+  private final UserJsonTranscoder transcoder = new UserJsonTranscoder(ZoneId.systemDefault());
+  private final UserModelCodec codec = new UserModelCodec();
+  private final ObjectWriter writer = Jackson2ObjectMapperBuilder.json().build().writerFor(new TypeReference<List<UserResponseDTO>>() { });
+  private List<RawBsonDocument> rows;
+
+  @Setup
+  public void setup() {
+    final UserModelCodec layoutCodec = new UserModelCodec(this.layout);
+    final LocalDateTime now = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+    this.rows = IntStream.range(0, this.pageSize)
+        .mapToObj(i -> new User(String.format("65b2f0c1e4b0a1a2b3c4%04x", i), "Jean Grey " + i, BrazilianCPF.withCheckDigits(183271643L + i),
+            "jean" + i + "@grey.com", LocalDate.of(1991, 2, 10).plusDays(i), now, now.plusMinutes(i)))
+        .map(user -> new RawBsonDocument(new UserModel(user, CpfStorage.INT64), layoutCodec))
+        .toList();
+  }
+
+  @Benchmark
+  public long transcode() throws IOException {
+    final CountingOutputStream output = new CountingOutputStream();
+    this.transcoder.page(this.rows, Projection.ALL, null).writeTo(output);
+    return output.count;
+  }
+
+  @Benchmark
+  public long decodeAndSerialize() throws IOException {
+    final CountingOutputStream output = new CountingOutputStream();
+    final List<UserResponseDTO> users = this.rows.stream()
+        .map(row -> new UserResponseDTO(row.decode(this.codec).toEntity(), Projection.ALL))
+        .toList();
+    this.writer.writeValue(output, users);
+    return output.count;
+  }
+
+  private static final class CountingOutputStream extends OutputStream {
+
+    private long count;
+
+    @Override
+    public void write(final int b) {
+      this.count++;
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) {
+      this.count += length;
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package com.mercadolivre.users.app.dataprovider.model;
+
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.User;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * Cost per document of reading and writing a user from and to BSON bytes, through
+ * {@link UserModelCodec} or the way {@link org.springframework.data.mongodb.core.MongoTemplate}
+ * does: a {@link Document} mapped by the {@link MappingMongoConverter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserModelCodecBenchmark {
+
+  @Param({"STRING", "INT64"})
+  private CpfStorage cpfStorage;
+
+  private final UserModelCodec codec = new UserModelCodec();
+  private final DocumentCodec documentCodec = new DocumentCodec();
+  private MappingMongoConverter converter;
+  private UserModel model;
+  private byte[] bytes;
+
+  @Setup
+  public void setup() {
+    final MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+    final MongoMappingContext mappingContext = new MongoMappingContext();
+    mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+    this.converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    this.converter.setCustomConversions(conversions);
+    this.converter.afterPropertiesSet();
+
+    final LocalDateTime now = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+    final User user = new User("65b2f0c1e4b0a1a2b3c4d5e6", "Jean Grey", new BrazilianCPF("18327164309"), "jean@grey.com", LocalDate.of(1991, 2, 10), now, now);
+    this.model = new UserModel(user, this.cpfStorage);
+    final RawBsonDocument document = new RawBsonDocument(this.model, this.codec);
+    this.bytes = new byte[document.getByteBuffer().remaining()];
+    document.getByteBuffer().get(this.bytes);
+  }
+
+  @Benchmark
+  public UserModel decodeWithCodec() {
+    try (BsonBinaryReader reader = reader()) {
+      return this.codec.decode(reader, DecoderContext.builder().build());
+    }
+  }
+
+  @Benchmark
+  public UserModel decodeWithConverter() {
+    try (BsonBinaryReader reader = reader()) {
+      return this.converter.read(UserModel.class, this.documentCodec.decode(reader, DecoderContext.builder().build()));
+    }
+  }
+
+  @Benchmark
+  public int encodeWithCodec() {
+    final BasicOutputBuffer buffer = new BasicOutputBuffer(this.bytes.length);
+    try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+      this.codec.encode(writer, this.model, EncoderContext.builder().build());
+    }
+    return buffer.getPosition();
+  }
+
+  @Benchmark
+  public int encodeWithConverter() {
+    final Document document = new Document();
+    this.converter.write(this.model, document);
+    final BasicOutputBuffer buffer = new BasicOutputBuffer(this.bytes.length);
+    try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+      this.documentCodec.encode(writer, document, EncoderContext.builder().build());
+    }
+    return buffer.getPosition();
+  }
+
+  private BsonBinaryReader reader() {
+    return new BsonBinaryReader(ByteBuffer.wrap(this.bytes));
+  }
+}
@@ -0,0 +1,50 @@
+package com.mercadolivre.users.app.dataprovider.model;
+
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.User;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserModelMappingBenchmark {
+
+  @Param({"183.271.643-09", "18327164309"})
+  private String cpf;
+
+  private User user;
+  private UserModel model;
+
+  @Setup
+  public void setup() {
+    final LocalDateTime now = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+    this.user = new User("65b2f0c1e4b0a1a2b3c4d5e6", "Jean Grey", new BrazilianCPF(this.cpf), "jean@grey.com", LocalDate.of(1991, 2, 10), now, now);
+    this.model = new UserModel(this.user);
+  }
+
+  @Benchmark
+  public UserModel toModel() {
+    return new UserModel(this.user);
+  }
+
+  @Benchmark
+  public User toEntity() {
+    return this.model.toEntity();
+  }
+}
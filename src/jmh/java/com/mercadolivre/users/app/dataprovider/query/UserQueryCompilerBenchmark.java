@@ -0,0 +1,110 @@
+package com.mercadolivre.users.app.dataprovider.query;
+
+import com.mercadolivre.users.app.dataprovider.model.CpfStorage;
+import com.mercadolivre.users.core.entity.LogicalOperator;
+import com.mercadolivre.users.core.entity.UserFilter;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserQueryCompilerBenchmark {
+
+  @Param({"name", "cpf-or-email"})
+  private String shape;
+
+  private UserFilter filter;
+  private UserQueryCompiler queryCompiler;
+
+  @Setup
+  public void setup() {
+    this.queryCompiler = new UserQueryCompiler(CpfStorage.STRING);
+    this.filter = "name".equals(this.shape)
+        ? UserFilter.builder().name("Jean Grey").build()
+        : UserFilter.builder().cpf("183.271.643-09").email("jean@grey.com").operator(LogicalOperator.OR).build();
+  }
+
+  @Benchmark
+  public Query compiledPlan() {
+    return this.queryCompiler.compile(this.filter);
+  }
+
+  @Benchmark
+  public Query legacyStringBuilding() {
+    return LegacyStringQuery.build(this.filter);
+  }
+
+  /**
+   * Verbatim copy of the reflective, string based query building that {@link UserQueryCompiler}
+   * replaced, kept only as the baseline of this benchmark.
+   */
+  static final class LegacyStringQuery {
+
+    private static final String REGEX_PATTERN_CPF = "^(\\d+\\.*)+\\-*\\d*$";
+
+    static Query build(final UserFilter filter) {
+      final List<String> paramsKeyValue = Arrays.stream(filter.getClass().getDeclaredFields())
+          .filter(field -> getNormalized(filter, field) != null && filter.isSearchableFields(field.getName()))
+          .map(field -> String.format("%s : '%s'", field.getName(), getNormalized(filter, field)))
+          .collect(Collectors.toList());
+
+      return new BasicQuery(buildQuery(filter, paramsKeyValue).toString());
+    }
+
+    private static String getNormalized(final UserFilter filter, final Field field) {
+      try {
+        field.setAccessible(true);
+        return Optional.ofNullable(field.get(filter))
+            .map(String::valueOf)
+            .map(rawValue -> normalize(filter, rawValue))
+            .orElse(null);
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException("Could not apply query filter!");
+      }
+    }
+
+    private static String normalize(final UserFilter filter, final String rawValue) {
+      if (filter.getNormalize()) {
+        if (rawValue.matches(REGEX_PATTERN_CPF)) {
+          return rawValue.strip().replaceAll("[.,-]", "");
+        }
+      }
+      return rawValue;
+    }
+
+    private static StringBuilder buildQuery(final UserFilter filter, final List<String> paramsKeyValue) {
+      final StringBuilder queryBuilder = new StringBuilder("{");
+
+      if (LogicalOperator.OR.equals(filter.getOperator())) {
+        queryBuilder.append(" $or: [ ");
+        paramsKeyValue.forEach(keyValue -> queryBuilder.append(String.format("{ %s }, ", keyValue)));
+        queryBuilder.append("]");
+      } else {
+        paramsKeyValue.forEach(keyValue -> queryBuilder.append(String.format("%s, ", keyValue)));
+      }
+      queryBuilder.append(" }");
+      return queryBuilder;
+    }
+  }
+}
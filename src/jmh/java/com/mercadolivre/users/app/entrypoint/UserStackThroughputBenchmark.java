@@ -0,0 +1,253 @@
+package com.mercadolivre.users.app.entrypoint;
+
+import com.mercadolivre.users.UsersApiApplication;
+import com.mercadolivre.users.core.dataprovider.AccountRepository;
+import com.mercadolivre.users.core.dataprovider.ReactiveAccountRepository;
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.JsonPage;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.RegistrationResult;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserChanges;
+import com.mercadolivre.users.core.entity.UserFilter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.core.env.Environment;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Throughput of {@code GET /users/{id}} on the servlet and on the reactive stack, with Mongo
+ * replaced by repositories answering after a fixed latency. The servlet repository holds its
+ * request thread while waiting, so it is capped by the Tomcat pool, while the reactive one only
+ * schedules a timer. Client concurrency is set above the pool size on purpose.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(128)
+@Fork(1)
+public class UserStackThroughputBenchmark {
+
+  private static final String MONGO_AUTO_CONFIGURATIONS = String.join(",",
+      "org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration",
+      "org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration",
+      "org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration",
+      "org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration",
+      "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration",
+      "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration",
+      "de.flapdoodle.embed.mongo.spring.autoconfigure.EmbeddedMongoAutoConfiguration");
+
+  @Param({"servlet", "reactive"})
+  private String stack;
+
+  @Param({"20"})
+  private long latencyMillis;
+
+  @Param({"32"})
+  private int tomcatThreads;
+
+  private ConfigurableApplicationContext context;
+  private HttpClient client;
+  private HttpRequest request;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.context = new SpringApplicationBuilder(StubbedApplication.class)
+        .profiles("reactive".equals(this.stack) ? "reactive" : "servlet")
+        .run("--server.port=0",
+            "--server.tomcat.threads.max=" + this.tomcatThreads,
+            "--spring.autoconfigure.exclude=" + MONGO_AUTO_CONFIGURATIONS,
+            "--users.benchmark.latency=" + this.latencyMillis,
+            "--spring.docker.compose.enabled=false",
+            "--logging.level.root=WARN");
+
+    final String port = this.context.getEnvironment().getProperty("local.server.port");
+    this.client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .build();
+    this.request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/" + StubbedApplication.USER.getId()))
+        .GET()
+        .build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.context.close();
+  }
+
+  @Benchmark
+  public int findById() throws IOException, InterruptedException {
+    final HttpResponse<Void> response = this.client.send(this.request, HttpResponse.BodyHandlers.discarding());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Unexpected status " + response.statusCode());
+    }
+    return response.statusCode();
+  }
+
+  /**
+   * The application without its Mongo data providers.
+   */
+  @SpringBootConfiguration
+  @EnableAutoConfiguration
+  @ComponentScan(basePackageClasses = UsersApiApplication.class, excludeFilters = {
+      @Filter(type = FilterType.REGEX, pattern = "com\\.mercadolivre\\.users\\.app\\.dataprovider\\..*"),
+      @Filter(type = FilterType.ASSIGNABLE_TYPE, classes = UsersApiApplication.class)})
+  static class StubbedApplication {
+
+    static final User USER = new User("65b2f0c1e4b0a1a2b3c4d5e6", "Jean Grey", new BrazilianCPF("18327164309"), "jean@grey.com", LocalDate.of(1991, 2, 10));
+
+    @Bean
+    AccountRepository<User, UserFilter, UserChanges> blockingRepository(final Environment environment) {
+      return new SleepingRepository(environment.getRequiredProperty("users.benchmark.latency", Long.class));
+    }
+
+    @Bean
+    ReactiveAccountRepository<User, UserFilter> reactiveRepository(final Environment environment) {
+      return new DelayedRepository(Duration.ofMillis(environment.getRequiredProperty("users.benchmark.latency", Long.class)));
+    }
+  }
+
+  private record SleepingRepository(long latencyMillis) implements AccountRepository<User, UserFilter, UserChanges> {
+
+    @Override
+    public Optional<User> findById(final String id) {
+      return findById(id, Projection.ALL);
+    }
+
+    @Override
+    public Optional<User> findById(final String id, final Projection projection) {
+      try {
+        Thread.sleep(this.latencyMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return Optional.of(StubbedApplication.USER).filter(user -> user.getId().equals(id));
+    }
+
+    @Override
+    public List<User> findAllById(final Collection<String> ids, final Projection projection) {
+      return ids.stream()
+          .map(id -> findById(id, projection))
+          .flatMap(Optional::stream)
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public String create(final User entity) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<RegistrationResult> createAll(final List<User> entities) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<User> findConflicting(final List<User> entities) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void update(final User entity) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean update(final String id, final UserChanges changes) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<Long> findVersion(final String id) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public CursorPage<User> find(final UserFilter filter, final CursorPageRequest page, final Projection projection) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public JsonPage findJson(final UserFilter filter, final CursorPageRequest page, final Projection projection) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Stream<User> stream(final UserFilter filter, final Projection projection) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private record DelayedRepository(Duration latency) implements ReactiveAccountRepository<User, UserFilter> {
+
+    @Override
+    public Mono<User> findById(final String id, final Projection projection) {
+      return Mono.delay(this.latency)
+          .then(Mono.justOrEmpty(Optional.of(StubbedApplication.USER).filter(user -> user.getId().equals(id))));
+    }
+
+    @Override
+    public Flux<User> findAllById(final Collection<String> ids, final Projection projection) {
+      return Flux.fromIterable(ids)
+          .flatMap(id -> findById(id, projection));
+    }
+
+    @Override
+    public Mono<String> create(final User entity) {
+      return Mono.error(new UnsupportedOperationException());
+    }
+
+    @Override
+    public Mono<Void> update(final User entity) {
+      return Mono.error(new UnsupportedOperationException());
+    }
+
+    @Override
+    public Mono<CursorPage<User>> find(final UserFilter filter, final CursorPageRequest page, final Projection projection) {
+      return Mono.error(new UnsupportedOperationException());
+    }
+
+    @Override
+    public Flux<User> stream(final UserFilter filter, final Projection projection) {
+      return Flux.error(new UnsupportedOperationException());
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.mercadolivre.users.app.entrypoint.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.User;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Response rendering with the same {@code ObjectMapper} defaults Spring MVC uses, from the domain
+ * entity to the bytes written on the wire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserResponseDTOSerializationBenchmark {
+
+  @Param({"", "id,name"})
+  private String fields;
+
+  private ObjectWriter writer;
+  private User user;
+  private Projection projection;
+  private UserResponseDTO response;
+
+  @Setup
+  public void setup() {
+    this.writer = Jackson2ObjectMapperBuilder.json().build().writerFor(UserResponseDTO.class);
+    final LocalDateTime now = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+    this.user = new User("65b2f0c1e4b0a1a2b3c4d5e6", "Jean Grey", new BrazilianCPF("18327164309"), "jean@grey.com", LocalDate.of(1991, 2, 10), now, now);
+    this.projection = Projection.of(this.fields);
+    this.response = new UserResponseDTO(this.user, this.projection);
+  }
+
+  @Benchmark
+  public byte[] serialize() throws JsonProcessingException {
+    return this.writer.writeValueAsBytes(this.response);
+  }
+
+  @Benchmark
+  public byte[] mapAndSerialize() throws JsonProcessingException {
+    return this.writer.writeValueAsBytes(new UserResponseDTO(this.user, this.projection));
+  }
+}
@@ -0,0 +1,48 @@
+package com.mercadolivre.users.core.entity;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BrazilianCPFBenchmark {
+
+  @Param({"183.271.643-09", "18327164309", "111.111.111-11"})
+  private String number;
+
+  private BrazilianCPF cpf;
+
+  @Setup
+  public void setup() {
+    this.cpf = new BrazilianCPF(this.number);
+  }
+
+  @Benchmark
+  public boolean isValid() {
+    return this.cpf.isValid();
+  }
+
+  @Benchmark
+  public String getRaw() {
+    return this.cpf.getRaw();
+  }
+
+  @Benchmark
+  public String getFormatted() {
+    return this.cpf.getFormatted();
+  }
+}
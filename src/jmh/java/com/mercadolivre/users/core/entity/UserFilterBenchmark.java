@@ -0,0 +1,43 @@
+package com.mercadolivre.users.core.entity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserFilterBenchmark {
+
+  @Param({"name", "cpf-or-email", "like"})
+  private String shape;
+
+  private Map<String, String> params;
+
+  @Setup
+  public void setup() {
+    this.params = switch (this.shape) {
+      case "name" -> Map.of("name", "Jean Grey");
+      case "cpf-or-email" -> Map.of("cpf", "183.271.643-09", "email", "jean@grey.com", "operator", "OR");
+      default -> Map.of("name", "Jea*", "type", "like", "normalize", "false");
+    };
+  }
+
+  @Benchmark
+  public UserFilter fromRequestParams() {
+    return new UserFilter(this.params);
+  }
+}
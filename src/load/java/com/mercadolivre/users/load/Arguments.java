@@ -0,0 +1,30 @@
+package com.mercadolivre.users.load;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code --name=value} command line arguments over their defaults.
+ */
+final class Arguments {
+
+  private Arguments() {
+  }
+
+  static Map<String, String> parse(final String[] args, final Map<String, String> defaults, final Set<String> optional) {
+    final Map<String, String> values = new HashMap<>(defaults);
+    for (final String arg : args) {
+      final int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException(String.format("Argument %s must be --name=value!", arg));
+      }
+      final String name = arg.substring(2, separator);
+      if (!defaults.containsKey(name) && !optional.contains(name)) {
+        throw new IllegalArgumentException(String.format("Argument %s does not exist!", name));
+      }
+      values.put(name, arg.substring(separator + 1));
+    }
+    return values;
+  }
+}
@@ -0,0 +1,91 @@
+package com.mercadolivre.users.load;
+
+import com.mercadolivre.users.app.dataprovider.UserCollectionIndexes;
+import com.mercadolivre.users.app.dataprovider.UserKeyFilter;
+import com.mercadolivre.users.app.dataprovider.UserMongoRepository;
+import com.mercadolivre.users.app.dataprovider.model.UserStorageFormat;
+import com.mercadolivre.users.app.dataprovider.query.UserQueryCompiler;
+import com.mercadolivre.users.core.entity.RegistrationResult;
+import com.mercadolivre.users.core.entity.User;
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Bulk-loads a {@link UserDataset} range into MongoDB through {@link UserMongoRepository#createAll},
+ * one unordered bulk insert per batch, batches spread over a thread pool. The users only depend on
+ * the seed and their index, so the same arguments always load the same users whatever the number of
+ * threads; loading a range again reports its users as already existing.
+ */
+public final class DatasetLoader {
+
+  private static final double KEY_FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+  private DatasetLoader() {
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final DatasetOptions options = DatasetOptions.parse(args);
+    final ConnectionString connection = new ConnectionString(options.uri());
+    final String database = connection.getDatabase() == null ? "accountdb" : connection.getDatabase();
+
+    try (MongoClient client = MongoClients.create(connection)) {
+      final MongoTemplate mongoTemplate = new MongoTemplate(client, database);
+      final UserStorageFormat format = new UserStorageFormat(options.layout(), false, options.cpfStorage());
+      new UserCollectionIndexes(mongoTemplate, format, true).ensureIndexes();
+      final UserKeyFilter keyFilter = new UserKeyFilter(mongoTemplate, new SimpleMeterRegistry(), options.users(), KEY_FILTER_FALSE_POSITIVE_RATE);
+      final UserMongoRepository repository = new UserMongoRepository(
+          mongoTemplate, new UserQueryCompiler(options.cpfStorage()), keyFilter, format);
+
+      System.out.printf("Loading users %d to %d (seed %d) into %s with %d threads%n", options.first(),
+          options.first() + options.users() - 1, options.seed(), database, options.threads());
+      load(repository, new UserDataset(options.seed()), options);
+    }
+  }
+
+  private static void load(final UserMongoRepository repository, final UserDataset dataset, final DatasetOptions options) throws Exception {
+    final AtomicLong created = new AtomicLong();
+    final AtomicLong rejected = new AtomicLong();
+    final long end = options.first() + options.users();
+    final long start = System.nanoTime();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(options.threads());
+    try {
+      final List<Future<?>> batches = new ArrayList<>();
+      for (long batchStart = options.first(); batchStart < end; batchStart += options.batchSize()) {
+        final long from = batchStart;
+        final long to = Math.min(batchStart + options.batchSize(), end);
+        batches.add(executor.submit(() -> {
+          final List<User> users = new ArrayList<>((int) (to - from));
+          for (long index = from; index < to; index++) {
+            users.add(dataset.user(index));
+          }
+          final long batchCreated = repository.createAll(users).stream().filter(RegistrationResult::isCreated).count();
+          created.addAndGet(batchCreated);
+          rejected.addAndGet(users.size() - batchCreated);
+        }));
+      }
+      for (int i = 0; i < batches.size(); i++) {
+        batches.get(i).get();
+        if ((i + 1) % 100 == 0) {
+          System.out.printf("%d users created, %d rejected%n", created.get(), rejected.get());
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    final double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+    System.out.printf("%d users created, %d rejected in %.1fs (%.0f users/s)%n",
+        created.get(), rejected.get(), seconds, (created.get() + rejected.get()) / seconds);
+  }
+}
@@ -0,0 +1,52 @@
+package com.mercadolivre.users.load;
+
+import com.mercadolivre.users.app.dataprovider.model.CpfStorage;
+import com.mercadolivre.users.app.dataprovider.model.UserLayout;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code --name=value} arguments of {@link DatasetLoader}.
+ */
+record DatasetOptions(
+    String uri,
+    long users,
+    long first,
+    long seed,
+    int threads,
+    int batchSize,
+    CpfStorage cpfStorage,
+    UserLayout layout) {
+
+  private static final Map<String, String> DEFAULTS = Map.of(
+      "uri", "mongodb://localhost:27017/accountdb",
+      "users", "1000000",
+      "first", "0",
+      "seed", "42",
+      "threads", String.valueOf(Runtime.getRuntime().availableProcessors()),
+      "batch-size", "1000",
+      "cpf-storage", "string",
+      "layout", "standard");
+
+  static DatasetOptions parse(final String[] args) {
+    final Map<String, String> values = Arguments.parse(args, DEFAULTS, Set.of());
+
+    final DatasetOptions options = new DatasetOptions(
+        values.get("uri"),
+        Long.parseLong(values.get("users")),
+        Long.parseLong(values.get("first")),
+        Long.parseLong(values.get("seed")),
+        Integer.parseInt(values.get("threads")),
+        Integer.parseInt(values.get("batch-size")),
+        CpfStorage.valueOf(values.get("cpf-storage").toUpperCase(Locale.ROOT)),
+        UserLayout.valueOf(values.get("layout").toUpperCase(Locale.ROOT)));
+    if (options.users() < 1 || options.first() < 0 || options.threads() < 1 || options.batchSize() < 1) {
+      throw new IllegalArgumentException("Dataset users, threads and batch-size must be positive, first must not be negative!");
+    }
+    if (options.first() + options.users() > UserDataset.MAX_USERS) {
+      throw new IllegalArgumentException(String.format("Dataset first + users must be at most %d!", UserDataset.MAX_USERS));
+    }
+    return options;
+  }
+}
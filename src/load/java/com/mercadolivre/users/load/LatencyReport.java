@@ -0,0 +1,103 @@
+package com.mercadolivre.users.load;
+
+import com.mercadolivre.users.load.LoadOptions.Operation;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies per operation, in microseconds. Each request is recorded twice: from the moment it was
+ * actually sent, and from the moment the schedule intended to send it. When the service falls
+ * behind the target rate the second one keeps counting the time requests spent waiting to be sent,
+ * which is the latency a client at that rate would really see (coordinated omission correction).
+ */
+final class LatencyReport {
+
+  private static final int SIGNIFICANT_DIGITS = 3;
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+  private final Map<Operation, OperationLatencies> operations = new EnumMap<>(Operation.class);
+
+  LatencyReport() {
+    for (final Operation operation : Operation.values()) {
+      this.operations.put(operation, new OperationLatencies());
+    }
+  }
+
+  void record(final Operation operation, final long intendedNanos, final long sentNanos, final long doneNanos, final boolean success) {
+    final OperationLatencies latencies = this.operations.get(operation);
+    latencies.uncorrected.recordValue(TimeUnit.NANOSECONDS.toMicros(doneNanos - sentNanos));
+    latencies.corrected.recordValue(TimeUnit.NANOSECONDS.toMicros(doneNanos - intendedNanos));
+    if (!success) {
+      latencies.errors.increment();
+    }
+  }
+
+  long requests() {
+    return this.operations.values().stream().mapToLong(latencies -> latencies.uncorrected.getTotalCount()).sum();
+  }
+
+  void write(final LoadOptions options, final String target, final int seededUsers, final long elapsedNanos) throws IOException {
+    if (options.report().getParent() != null) {
+      Files.createDirectories(options.report().getParent());
+    }
+    try (PrintStream report = new PrintStream(Files.newOutputStream(options.report()), false, "UTF-8")) {
+      print(report, options, target, seededUsers, elapsedNanos);
+    }
+    print(System.out, options, target, seededUsers, elapsedNanos);
+  }
+
+  private void print(final PrintStream out, final LoadOptions options, final String target, final int seededUsers, final long elapsedNanos) {
+    final double seconds = elapsedNanos / 1e9;
+    out.printf("target=%s rate=%d/s duration=%s warmup=%s mix=%s seeded-users=%d max-in-flight=%d%n",
+        target, options.rate(), options.duration(), options.warmup(), options.mix(), seededUsers, options.maxInFlight());
+    out.printf("%-8s %9s %7s %10s | %-44s | %-44s%n", "", "", "", "", "latency from send (ms)", "latency from intended start (ms)");
+    out.printf("%-8s %9s %7s %10s | %8s %8s %8s %8s %8s | %8s %8s %8s %8s %8s%n",
+        "op", "requests", "errors", "req/s", "p50", "p90", "p99", "p99.9", "max", "p50", "p90", "p99", "p99.9", "max");
+
+    final OperationLatencies total = new OperationLatencies();
+    this.operations.forEach((operation, latencies) -> {
+      if (latencies.uncorrected.getTotalCount() > 0) {
+        printRow(out, operation.name().toLowerCase(), latencies, seconds);
+        total.add(latencies);
+      }
+    });
+    printRow(out, "total", total, seconds);
+
+    out.println();
+    out.println("Latency distribution from intended start (ms):");
+    total.corrected.outputPercentileDistribution(out, 5, 1000.0);
+  }
+
+  private static void printRow(final PrintStream out, final String name, final OperationLatencies latencies, final double seconds) {
+    out.printf("%-8s %9d %7d %10.1f | %s | %s%n", name, latencies.uncorrected.getTotalCount(), latencies.errors.sum(),
+        latencies.uncorrected.getTotalCount() / seconds, percentiles(latencies.uncorrected), percentiles(latencies.corrected));
+  }
+
+  private static String percentiles(final Histogram histogram) {
+    final StringBuilder row = new StringBuilder();
+    for (final double percentile : PERCENTILES) {
+      row.append(String.format("%8.2f ", histogram.getValueAtPercentile(percentile) / 1000.0));
+    }
+    return row.append(String.format("%8.2f", histogram.getMaxValue() / 1000.0)).toString();
+  }
+
+  private static final class OperationLatencies {
+
+    private final Histogram uncorrected = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final Histogram corrected = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final LongAdder errors = new LongAdder();
+
+    private void add(final OperationLatencies other) {
+      this.uncorrected.add(other.uncorrected);
+      this.corrected.add(other.corrected);
+      this.errors.add(other.errors.sum());
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.mercadolivre.users.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * {@code --name=value} arguments of {@link LoadTest}, durations written as in the application
+ * properties ({@code 30s}, {@code 2m}).
+ */
+record LoadOptions(
+    String target,
+    String mongoVersion,
+    int users,
+    int rate,
+    Duration warmup,
+    Duration duration,
+    Map<Operation, Integer> mix,
+    int maxInFlight,
+    long seed,
+    Path report) {
+
+  private static final Map<String, String> DEFAULTS = Map.of(
+      "mongo-version", "6.0.5",
+      "users", "10000",
+      "rate", "200",
+      "warmup", "10s",
+      "duration", "60s",
+      "mix", "get:70,search:20,patch:5,create:5",
+      "max-in-flight", "512",
+      "seed", "0",
+      "report", "target/load-report.txt");
+
+  static LoadOptions parse(final String[] args) {
+    final Map<String, String> values = Arguments.parse(args, DEFAULTS, Set.of("target"));
+
+    final LoadOptions options = new LoadOptions(
+        values.get("target"),
+        values.get("mongo-version"),
+        Integer.parseInt(values.get("users")),
+        Integer.parseInt(values.get("rate")),
+        DurationStyle.detectAndParse(values.get("warmup")),
+        DurationStyle.detectAndParse(values.get("duration")),
+        mixOf(values.get("mix")),
+        Integer.parseInt(values.get("max-in-flight")),
+        Long.parseLong(values.get("seed")),
+        Path.of(values.get("report")));
+    if (options.users() < 1 || options.rate() < 1 || options.maxInFlight() < 1 || options.duration().isZero()) {
+      throw new IllegalArgumentException("Load test users, rate, max-in-flight and duration must be positive!");
+    }
+    if (options.seed() < 0 || options.seed() >= UserTraffic.SEEDS) {
+      throw new IllegalArgumentException(String.format("Load test seed must be between 0 and %d!", UserTraffic.SEEDS - 1));
+    }
+    return options;
+  }
+
+  private static Map<Operation, Integer> mixOf(final String mix) {
+    final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    Arrays.stream(mix.split(","))
+        .map(String::strip)
+        .filter(weight -> !weight.isEmpty())
+        .forEach(weight -> {
+          final String[] operationAndWeight = weight.split(":");
+          if (operationAndWeight.length != 2) {
+            throw new IllegalArgumentException(String.format("Load test mix %s must be operation:weight!", weight));
+          }
+          weights.put(Operation.valueOf(operationAndWeight[0].strip().toUpperCase()), Integer.parseInt(operationAndWeight[1].strip()));
+        });
+    if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+      throw new IllegalArgumentException(String.format("Load test mix %s must have a positive weight!", mix));
+    }
+    return weights;
+  }
+
+  enum Operation {
+    GET, SEARCH, PATCH, CREATE
+  }
+}
@@ -0,0 +1,129 @@
+package com.mercadolivre.users.load;
+
+import com.mercadolivre.users.UsersApiApplication;
+import com.mercadolivre.users.load.LoadOptions.Operation;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Drives the HTTP API at a fixed request rate and reports latency percentiles per operation.
+ *
+ * <p>Without {@code --target} the application is started in process on a random port, backed by
+ * an embedded MongoDB. Requests follow an open model: each one is due at {@code start + i / rate}
+ * whether earlier ones have answered or not, and its latency is also measured from that instant
+ * (see {@link LatencyReport}).
+ */
+public final class LoadTest {
+
+  private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+  private LoadTest() {
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final LoadOptions options = LoadOptions.parse(args);
+    final ConfigurableApplicationContext application = options.target() == null ? start(options) : null;
+    try {
+      final URI target = URI.create(application == null
+          ? options.target()
+          : "http://localhost:" + application.getEnvironment().getProperty("local.server.port"));
+      final HttpClient client = HttpClient.newBuilder()
+          .version(Version.HTTP_1_1)
+          .connectTimeout(Duration.ofSeconds(10))
+          .build();
+
+      System.out.printf("Seeding %d users into %s%n", options.users(), target);
+      final UserTraffic traffic = UserTraffic.seed(client, target, options);
+      final SplittableRandom random = new SplittableRandom(options.seed());
+
+      if (!options.warmup().isZero()) {
+        System.out.printf("Warming up for %s%n", options.warmup());
+        run(client, traffic, options, options.warmup(), random, new LatencyReport());
+      }
+      System.out.printf("Running %d req/s for %s%n", options.rate(), options.duration());
+      final LatencyReport report = new LatencyReport();
+      final long elapsedNanos = run(client, traffic, options, options.duration(), random, report);
+      report.write(options, target.toString(), traffic.seededUsers(), elapsedNanos);
+    } finally {
+      if (application != null) {
+        application.close();
+      }
+    }
+  }
+
+  private static ConfigurableApplicationContext start(final LoadOptions options) throws IOException {
+    System.out.printf("Starting the application on an embedded MongoDB %s%n", options.mongoVersion());
+    return new SpringApplicationBuilder(UsersApiApplication.class).run(
+        "--server.port=0",
+        "--spring.docker.compose.enabled=false",
+        "--de.flapdoodle.mongodb.embedded.version=" + options.mongoVersion(),
+        "--spring.data.mongodb.port=" + freePort(),
+        "--spring.data.mongodb.database=accountloaddb",
+        "--logging.level.root=WARN");
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  /**
+   * Sends requests on schedule for the given duration, then waits for the ones still in flight.
+   * When {@code max-in-flight} requests are outstanding the schedule waits for one of them, and the
+   * wait is charged to the requests it delays.
+   */
+  private static long run(final HttpClient client, final UserTraffic traffic, final LoadOptions options, final Duration duration,
+      final SplittableRandom random, final LatencyReport report) throws InterruptedException {
+    final Semaphore inFlight = new Semaphore(options.maxInFlight());
+    final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+    final long requests = duration.toNanos() / intervalNanos;
+    final int totalWeight = options.mix().values().stream().mapToInt(Integer::intValue).sum();
+
+    final long start = System.nanoTime();
+    for (long i = 0; i < requests; i++) {
+      final long intended = start + i * intervalNanos;
+      for (long wait = intended - System.nanoTime(); wait > 0; wait = intended - System.nanoTime()) {
+        LockSupport.parkNanos(wait);
+      }
+      final Operation operation = operationOf(options.mix(), random.nextInt(totalWeight));
+      inFlight.acquire();
+      final long sent = System.nanoTime();
+      client.sendAsync(traffic.next(operation, random), BodyHandlers.discarding())
+          .whenComplete((response, failure) -> {
+            final long done = System.nanoTime();
+            inFlight.release();
+            report.record(operation, intended, sent, done,
+                failure == null && (response.statusCode() / 100 == 2 || response.statusCode() == 304));
+          });
+    }
+    if (!inFlight.tryAcquire(options.maxInFlight(), DRAIN_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)) {
+      System.out.printf("%d requests still in flight after %s, left out of the report%n",
+          options.maxInFlight() - inFlight.availablePermits(), DRAIN_TIMEOUT);
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static Operation operationOf(final Map<Operation, Integer> mix, final int ticket) {
+    int remaining = ticket;
+    for (final Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+      remaining -= weight.getValue();
+      if (remaining < 0) {
+        return weight.getKey();
+      }
+    }
+    throw new IllegalStateException(String.format("Load test mix %s has no operation for ticket %d!", mix, ticket));
+  }
+}
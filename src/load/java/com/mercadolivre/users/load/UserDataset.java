@@ -0,0 +1,116 @@
+package com.mercadolivre.users.load;
+
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.User;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic users, each one a pure function of the seed and its index, so any range can be
+ * generated by any thread in any order and still give the same dataset.
+ *
+ * <p>CPFs are valid and unique per index: indexes are spread over the nine digit bases by a fixed
+ * permutation, skipping the bases made of a single repeated digit. First names and surnames follow
+ * a Zipf distribution, a few of them being far more frequent than the rest as in real registries,
+ * and emails are derived from the name plus the index. Ages are normally distributed around 38 and
+ * measured from a fixed date, everyone being at least 18 then.
+ */
+final class UserDataset {
+
+  /** Nine digit bases minus the ten whose digits are all equal. */
+  static final long MAX_USERS = 999_999_990L;
+
+  private static final long CPF_MULTIPLIER = 701_982_769L;
+  private static final long CPF_OFFSET = 318_255_093L;
+  private static final long REPEATED_BASE_DIGIT = 111_111_111L;
+  private static final long INDEX_GAMMA = 0x9E3779B97F4A7C15L;
+  private static final LocalDate REFERENCE_DATE = LocalDate.of(2024, 1, 1);
+  private static final double SECOND_SURNAME_PROBABILITY = 0.4;
+
+  private static final String[] FIRST_NAMES = {
+      "Maria", "José", "Ana", "João", "Antônio", "Francisco", "Carlos", "Paulo", "Pedro", "Lucas",
+      "Luiz", "Marcos", "Luís", "Gabriel", "Rafael", "Francisca", "Daniel", "Marcelo", "Bruno", "Eduardo",
+      "Felipe", "Raimundo", "Rodrigo", "Antônia", "Adriana", "Juliana", "Márcia", "Fernanda", "Patrícia", "Aline",
+      "Manoel", "Sandra", "Camila", "Amanda", "Bruna", "Jéssica", "Letícia", "Júlia", "Luciana", "Vanessa",
+      "Mariana", "Gustavo", "Fábio", "Leonardo", "Vitor", "Thiago", "Matheus", "Larissa", "Beatriz", "Conceição"};
+  private static final String[] SURNAMES = {
+      "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+      "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa",
+      "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado", "Mendes", "Freitas",
+      "Cardoso", "Ramos", "Gonçalves", "Santana", "Teixeira", "Araújo", "Monteiro", "Correia", "Batista", "Pinto"};
+  private static final String[] EMAIL_DOMAINS = {"gmail.com", "hotmail.com", "yahoo.com.br", "outlook.com", "uol.com.br", "bol.com.br"};
+  private static final double[] FIRST_NAME_WEIGHTS = zipf(FIRST_NAMES.length, 1.1);
+  private static final double[] SURNAME_WEIGHTS = zipf(SURNAMES.length, 0.9);
+  private static final double[] EMAIL_DOMAIN_WEIGHTS = cumulative(new double[] {55, 20, 10, 8, 4, 3});
+
+  private final long seed;
+
+  UserDataset(final long seed) {
+    this.seed = seed;
+  }
+
+  User user(final long index) {
+    final SplittableRandom random = new SplittableRandom(this.seed + index * INDEX_GAMMA);
+    final String firstName = pick(FIRST_NAMES, FIRST_NAME_WEIGHTS, random);
+    final String surname = pick(SURNAMES, SURNAME_WEIGHTS, random);
+    final String name = random.nextDouble() < SECOND_SURNAME_PROBABILITY
+        ? firstName + " " + pick(SURNAMES, SURNAME_WEIGHTS, random) + " " + surname
+        : firstName + " " + surname;
+    final String email = asciiLowerCase(firstName) + "." + asciiLowerCase(surname) + index
+        + "@" + pick(EMAIL_DOMAINS, EMAIL_DOMAIN_WEIGHTS, random);
+    return new User(name, cpfOf(index), email, birthDateOf(random));
+  }
+
+  /**
+   * {@code index * a + b} modulo the number of usable bases is a bijection since {@code a} is
+   * coprime with it; the result is then shifted past the repeated digit bases below it.
+   */
+  static BrazilianCPF cpfOf(final long index) {
+    if (index < 0 || index >= MAX_USERS) {
+      throw new IllegalArgumentException(String.format("User index %d must be between 0 and %d!", index, MAX_USERS - 1));
+    }
+    long base = (index * CPF_MULTIPLIER + CPF_OFFSET) % MAX_USERS;
+    for (long repeated = 0; repeated <= 9 * REPEATED_BASE_DIGIT; repeated += REPEATED_BASE_DIGIT) {
+      if (base >= repeated) {
+        base++;
+      }
+    }
+    return BrazilianCPF.withCheckDigits(base);
+  }
+
+  private static LocalDate birthDateOf(final SplittableRandom random) {
+    final double age = Math.min(95, Math.max(18, 38 + 13 * random.nextGaussian()));
+    return REFERENCE_DATE.minusYears((long) age).minusDays(random.nextInt(365));
+  }
+
+  private static String pick(final String[] values, final double[] cumulativeWeights, final SplittableRandom random) {
+    final int position = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+    return values[Math.min(values.length - 1, position < 0 ? -position - 1 : position)];
+  }
+
+  private static double[] zipf(final int size, final double exponent) {
+    final double[] weights = new double[size];
+    for (int rank = 1; rank <= size; rank++) {
+      weights[rank - 1] = 1 / Math.pow(rank, exponent);
+    }
+    return cumulative(weights);
+  }
+
+  private static double[] cumulative(final double[] weights) {
+    final double total = Arrays.stream(weights).sum();
+    final double[] cumulative = new double[weights.length];
+    double sum = 0;
+    for (int i = 0; i < weights.length; i++) {
+      sum += weights[i];
+      cumulative[i] = sum / total;
+    }
+    return cumulative;
+  }
+
+  private static String asciiLowerCase(final String value) {
+    return Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+  }
+}
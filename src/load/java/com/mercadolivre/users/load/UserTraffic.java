@@ -0,0 +1,135 @@
+package com.mercadolivre.users.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.load.LoadOptions.Operation;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Requests of each operation over a population of {@link UserDataset} users seeded through
+ * {@code POST /users/batch}, searches looking for the names of seeded users and patches rewriting
+ * them unchanged. Each of the {@link #SEEDS} seeds takes its own range of dataset indexes, so a
+ * target can be loaded again with another seed.
+ */
+final class UserTraffic {
+
+  static final int SEEDS = 10;
+  private static final int SEED_BATCH_SIZE = 1000;
+  private static final long USERS_PER_SEED = UserDataset.MAX_USERS / SEEDS;
+  private static final DateTimeFormatter BIRTH_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final URI target;
+  private final UserDataset dataset;
+  private final long firstUser;
+  private final List<String> seededIds;
+  private final AtomicLong nextUser;
+
+  private UserTraffic(final URI target, final UserDataset dataset, final long firstUser, final List<String> seededIds, final long nextUser) {
+    this.target = target;
+    this.dataset = dataset;
+    this.firstUser = firstUser;
+    this.seededIds = seededIds;
+    this.nextUser = new AtomicLong(nextUser);
+  }
+
+  static UserTraffic seed(final HttpClient client, final URI target, final LoadOptions options) throws IOException, InterruptedException {
+    if (options.users() > USERS_PER_SEED) {
+      throw new IllegalArgumentException(String.format("Load test users must be at most %d!", USERS_PER_SEED));
+    }
+    final long firstUser = options.seed() * USERS_PER_SEED;
+    final long lastUser = firstUser + options.users();
+    final List<String> seededIds = new ArrayList<>(Collections.nCopies(options.users(), null));
+    final UserTraffic traffic = new UserTraffic(target, new UserDataset(options.seed()), firstUser, seededIds, lastUser);
+    for (long batchStart = firstUser; batchStart < lastUser; batchStart += SEED_BATCH_SIZE) {
+      final ArrayNode batch = MAPPER.createArrayNode();
+      for (long user = batchStart; user < Math.min(batchStart + SEED_BATCH_SIZE, lastUser); user++) {
+        batch.add(traffic.personOf(user));
+      }
+      final HttpRequest request = HttpRequest.newBuilder(target.resolve("/users/batch"))
+          .header("Content-Type", "application/json")
+          .POST(BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(batch)))
+          .build();
+      final JsonNode results = MAPPER.readTree(client.send(request, BodyHandlers.ofByteArray()).body());
+      for (final JsonNode result : results) {
+        if (result.path("created").asBoolean()) {
+          seededIds.set((int) (batchStart - firstUser) + result.path("index").asInt(), result.path("id").asText());
+        }
+      }
+    }
+    if (seededIds.stream().allMatch(Objects::isNull)) {
+      throw new IllegalStateException("No user could be seeded, are they already registered? Use another --seed.");
+    }
+    return traffic;
+  }
+
+  int seededUsers() {
+    return (int) this.seededIds.stream().filter(Objects::nonNull).count();
+  }
+
+  HttpRequest next(final Operation operation, final SplittableRandom random) {
+    return switch (operation) {
+      case GET -> HttpRequest.newBuilder(this.target.resolve("/users/" + randomSeededId(random))).GET().build();
+      case SEARCH -> HttpRequest.newBuilder(this.target.resolve("/users?limit=20&name="
+              + URLEncoder.encode(nameOf(this.firstUser + random.nextInt(this.seededIds.size())), StandardCharsets.UTF_8)))
+          .GET()
+          .build();
+      case PATCH -> {
+        final int index = randomSeededIndex(random);
+        final ArrayNode patch = MAPPER.createArrayNode();
+        patch.addObject().put("op", "replace").put("path", "/name").put("value", nameOf(this.firstUser + index));
+        yield HttpRequest.newBuilder(this.target.resolve("/users/" + this.seededIds.get(index)))
+            .header("Content-Type", "application/json-patch+json")
+            .method("PATCH", BodyPublishers.ofString(patch.toString()))
+            .build();
+      }
+      case CREATE -> HttpRequest.newBuilder(this.target.resolve("/users"))
+          .header("Content-Type", "application/json")
+          .POST(BodyPublishers.ofString(personOf(this.nextUser.getAndIncrement()).toString()))
+          .build();
+    };
+  }
+
+  private String randomSeededId(final SplittableRandom random) {
+    return this.seededIds.get(randomSeededIndex(random));
+  }
+
+  private int randomSeededIndex(final SplittableRandom random) {
+    int index = random.nextInt(this.seededIds.size());
+    while (this.seededIds.get(index) == null) {
+      index = random.nextInt(this.seededIds.size());
+    }
+    return index;
+  }
+
+  private ObjectNode personOf(final long user) {
+    final User person = this.dataset.user(user);
+    final ObjectNode json = MAPPER.createObjectNode();
+    json.put("name", person.getName());
+    json.put("cpf", person.getCpf().getRaw());
+    json.put("email", person.getEmail());
+    json.put("birthDate", person.getBirthDate().format(BIRTH_DATE_FORMAT));
+    return json;
+  }
+
+  private String nameOf(final long user) {
+    return this.dataset.user(user).getName();
+  }
+}
@@ -0,0 +1,109 @@
+package com.mercadolivre.users.app.dataprovider;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free Bloom filter of strings, sized from the expected insertions and the false positive
+ * probability. Bit positions come from double hashing over a 64-bit FNV-1a hash and its
+ * SplitMix64 remix.
+ */
+final class BloomFilter {
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final AtomicLongArray words;
+  private final long bitSize;
+  private final int hashFunctions;
+  private final LongAdder insertions = new LongAdder();
+
+  private BloomFilter(final long bitSize, final int hashFunctions) {
+    this.words = new AtomicLongArray(Math.toIntExact((bitSize + Long.SIZE - 1) / Long.SIZE));
+    this.bitSize = (long) this.words.length() * Long.SIZE;
+    this.hashFunctions = hashFunctions;
+  }
+
+  static BloomFilter create(final long expectedInsertions, final double falsePositiveRate) {
+    if (expectedInsertions <= 0) {
+      throw new IllegalArgumentException(String.format("Expected insertions must be positive, got %d!", expectedInsertions));
+    }
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException(String.format("False positive rate must be between 0 and 1, got %s!", falsePositiveRate));
+    }
+    final long bitSize = Math.max(Long.SIZE, (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+    final int hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    return new BloomFilter(bitSize, hashFunctions);
+  }
+
+  void put(final String value) {
+    final long hash1 = hash(value);
+    final long hash2 = mix(hash1);
+    long combined = hash1;
+    for (int i = 0; i < this.hashFunctions; i++) {
+      final long bit = (combined & Long.MAX_VALUE) % this.bitSize;
+      final long mask = 1L << bit;
+      this.words.getAndAccumulate((int) (bit >>> 6), mask, (word, bitMask) -> word | bitMask);
+      combined += hash2;
+    }
+    this.insertions.increment();
+  }
+
+  boolean mightContain(final String value) {
+    final long hash1 = hash(value);
+    final long hash2 = mix(hash1);
+    long combined = hash1;
+    for (int i = 0; i < this.hashFunctions; i++) {
+      final long bit = (combined & Long.MAX_VALUE) % this.bitSize;
+      if ((this.words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+      combined += hash2;
+    }
+    return true;
+  }
+
+  long bitSize() {
+    return this.bitSize;
+  }
+
+  int hashFunctions() {
+    return this.hashFunctions;
+  }
+
+  long insertions() {
+    return this.insertions.sum();
+  }
+
+  long memoryInBytes() {
+    return this.bitSize / Byte.SIZE;
+  }
+
+  /**
+   * Probability of a false positive given the bits set so far.
+   */
+  double expectedFalsePositiveRate() {
+    long bitCount = 0;
+    for (int i = 0; i < this.words.length(); i++) {
+      bitCount += Long.bitCount(this.words.get(i));
+    }
+    return Math.pow((double) bitCount / this.bitSize, this.hashFunctions);
+  }
+
+  private static long hash(final String value) {
+    long hash = FNV_OFFSET_BASIS;
+    for (int i = 0; i < value.length(); i++) {
+      final char character = value.charAt(i);
+      hash = (hash ^ (character & 0xff)) * FNV_PRIME;
+      hash = (hash ^ (character >>> 8)) * FNV_PRIME;
+    }
+    return mix(hash);
+  }
+
+  private static long mix(final long value) {
+    long z = value + 0x9e3779b97f4a7c15L;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
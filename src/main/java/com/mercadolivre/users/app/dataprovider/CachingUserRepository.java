@@ -0,0 +1,237 @@
+package com.mercadolivre.users.app.dataprovider;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.mercadolivre.users.app.dataprovider.query.UserSearchField;
+import com.mercadolivre.users.core.dataprovider.AccountRepository;
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.JsonPage;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.RegistrationResult;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserChanges;
+import com.mercadolivre.users.core.entity.UserField;
+import com.mercadolivre.users.core.entity.UserFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Read-through cache of users by id in front of {@link UserMongoRepository}. Caffeine admits by
+ * frequency (W-TinyLFU), so a scan of cold ids does not flush the hot ones, and concurrent misses
+ * of the same id share a single load. Every write goes through here and evicts the written ids,
+ * along with the search pages of {@link UserSearchCache} the written users could be in.
+ */
+@Primary
+@Repository
+public class CachingUserRepository implements AccountRepository<User, UserFilter, UserChanges> {
+
+  static final String CACHE_NAME = "users.byId";
+
+  private final UserMongoRepository delegate;
+  private final LoadingCache<String, User> cache;
+  private final UserSearchCache searchCache;
+
+  public CachingUserRepository(
+      final UserMongoRepository delegate,
+      final UserSearchCache searchCache,
+      final MeterRegistry meterRegistry,
+      @Value("${users.cache.maximum-size:10000}") final long maximumSize,
+      @Value("${users.cache.expire-after-write:5m}") final Duration expireAfterWrite) {
+    this.delegate = delegate;
+    this.searchCache = searchCache;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(expireAfterWrite)
+        .recordStats()
+        .build(new UserLoader(delegate));
+    CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+  }
+
+  @Override
+  public String create(final User entity) {
+    final String id = this.delegate.create(entity);
+    this.cache.invalidate(keyOf(id));
+    this.searchCache.written(id, searchValuesOf(entity));
+    return id;
+  }
+
+  @Override
+  public List<RegistrationResult> createAll(final List<User> entities) {
+    final List<RegistrationResult> results = this.delegate.createAll(entities);
+    this.cache.invalidateAll(results.stream()
+        .filter(RegistrationResult::isCreated)
+        .map(result -> keyOf(result.id()))
+        .collect(Collectors.toList()));
+    final Map<String, Map<UserSearchField, String>> created = new HashMap<>();
+    for (int i = 0; i < results.size(); i++) {
+      if (results.get(i).isCreated()) {
+        created.put(results.get(i).id(), searchValuesOf(entities.get(i)));
+      }
+    }
+    this.searchCache.written(created);
+    return results;
+  }
+
+  @Override
+  public List<User> findConflicting(final List<User> entities) {
+    return this.delegate.findConflicting(entities);
+  }
+
+  @Override
+  public void update(final User entity) {
+    try {
+      this.delegate.update(entity);
+    } finally {
+      this.cache.invalidate(keyOf(entity.getId()));
+      this.searchCache.written(entity.getId(), searchValuesOf(entity));
+    }
+  }
+
+  @Override
+  public boolean update(final String id, final UserChanges changes) {
+    final User before = this.cache.getIfPresent(keyOf(id));
+    try {
+      return this.delegate.update(id, changes);
+    } finally {
+      this.cache.invalidate(keyOf(id));
+      this.searchCache.written(id, searchValuesOf(before, changes));
+    }
+  }
+
+  /**
+   * A cached user is as fresh as the writes of this instance, so its version is answered without
+   * going to Mongo.
+   */
+  @Override
+  public Optional<Long> findVersion(final String id) {
+    return Optional.ofNullable(this.cache.getIfPresent(keyOf(id)))
+        .map(User::getVersion)
+        .or(() -> this.delegate.findVersion(id));
+  }
+
+  /**
+   * Pages of every field are served from the ids cached by {@link UserSearchCache}, their users
+   * read through this cache.
+   */
+  @Override
+  public CursorPage<User> find(final UserFilter filter, final CursorPageRequest page, final Projection projection) {
+    if (!projection.isAll()) {
+      return this.delegate.find(filter, page, projection);
+    }
+    return this.searchCache.find(filter, page, () -> this.delegate.find(filter, page, projection), this::getAll);
+  }
+
+  /**
+   * Always read from Mongo: the pages are rendered from the rows read, neither cached users nor
+   * cached searches can serve them.
+   */
+  @Override
+  public JsonPage findJson(final UserFilter filter, final CursorPageRequest page, final Projection projection) {
+    return this.delegate.findJson(filter, page, projection);
+  }
+
+  @Override
+  public Stream<User> stream(final UserFilter filter, final Projection projection) {
+    return this.delegate.stream(filter, projection);
+  }
+
+  @Override
+  public Optional<User> findById(final String id) {
+    return Optional.ofNullable(this.cache.get(keyOf(id)));
+  }
+
+  /**
+   * A cached user already holds every field, the projection is then applied on serialization.
+   */
+  @Override
+  public Optional<User> findById(final String id, final Projection projection) {
+    if (projection.isAll()) {
+      return findById(id);
+    }
+    return Optional.ofNullable(this.cache.getIfPresent(keyOf(id)))
+        .or(() -> this.delegate.findById(id, projection));
+  }
+
+  @Override
+  public List<User> findAllById(final Collection<String> ids, final Projection projection) {
+    if (!projection.isAll()) {
+      return this.delegate.findAllById(ids, projection);
+    }
+    return new ArrayList<>(getAll(ids).values());
+  }
+
+  long estimatedSize() {
+    return this.cache.estimatedSize();
+  }
+
+  private Map<String, User> getAll(final Collection<String> ids) {
+    return this.cache.getAll(ids.stream().map(CachingUserRepository::keyOf).collect(Collectors.toList()));
+  }
+
+  /**
+   * Ids as the users hold them: Mongo reads an ObjectId whatever the case of its hex digits, so an
+   * id in upper case would otherwise be cached apart from, and outlive, the one writes evict.
+   */
+  private static String keyOf(final String id) {
+    return UserMongoRepository.normalizedId(id);
+  }
+
+  private static Map<UserSearchField, String> searchValuesOf(final User user) {
+    final Map<UserSearchField, String> values = new EnumMap<>(UserSearchField.class);
+    values.put(UserSearchField.NAME, user.getName());
+    values.put(UserSearchField.CPF, user.getCpf() == null ? null : user.getCpf().getRaw());
+    values.put(UserSearchField.EMAIL, user.getEmail());
+    return values;
+  }
+
+  /**
+   * The searchable values after the changes. Fields left unchanged are taken from the user cached
+   * before the update, and stay unknown when it was not cached.
+   */
+  private static Map<UserSearchField, String> searchValuesOf(final User before, final UserChanges changes) {
+    final Map<UserSearchField, String> values = before == null ? new EnumMap<>(UserSearchField.class) : searchValuesOf(before);
+    if (changes.changes(UserField.NAME)) {
+      values.put(UserSearchField.NAME, (String) changes.valueOf(UserField.NAME));
+    }
+    if (changes.changes(UserField.CPF)) {
+      final BrazilianCPF cpf = (BrazilianCPF) changes.valueOf(UserField.CPF);
+      values.put(UserSearchField.CPF, cpf == null ? null : cpf.getRaw());
+    }
+    if (changes.changes(UserField.EMAIL)) {
+      values.put(UserSearchField.EMAIL, (String) changes.valueOf(UserField.EMAIL));
+    }
+    return values;
+  }
+
+  private record UserLoader(UserMongoRepository repository) implements CacheLoader<String, User> {
+
+    @Override
+    public User load(final String id) {
+      return this.repository.findById(id).orElse(null);
+    }
+
+    @Override
+    public Map<String, User> loadAll(final Set<? extends String> ids) {
+      return this.repository.findAllById(new ArrayList<>(ids), Projection.ALL).stream()
+          .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.mercadolivre.users.app.dataprovider;
+
+import static com.mercadolivre.users.app.dataprovider.UserMongoRepository.COLLECTION_NAME;
+import static com.mercadolivre.users.app.dataprovider.UserMongoRepository.ID_FIELD;
+import static com.mercadolivre.users.app.dataprovider.UserMongoRepository.STREAM_BATCH_SIZE;
+
+import com.mercadolivre.users.app.dataprovider.model.UserLayout;
+import com.mercadolivre.users.app.dataprovider.model.UserModel;
+import com.mercadolivre.users.app.dataprovider.model.UserStorageFormat;
+import com.mercadolivre.users.app.dataprovider.query.UserQueryCompiler;
+import com.mercadolivre.users.core.dataprovider.ReactiveAccountRepository;
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserChanges;
+import com.mercadolivre.users.core.entity.UserFilter;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.BasicUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link UserMongoRepository}, sharing its query plans, projections,
+ * cursors and key filter. Users are mapped by Spring Data, so only the standard layout is read.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveUserMongoRepository implements ReactiveAccountRepository<User, UserFilter> {
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final UserQueryCompiler queryCompiler;
+  private final UserKeyFilter keyFilter;
+  private final UserStorageFormat format;
+
+  public ReactiveUserMongoRepository(
+      final ReactiveMongoTemplate mongoTemplate,
+      final UserQueryCompiler queryCompiler,
+      final UserKeyFilter keyFilter,
+      final UserStorageFormat format) {
+    if (format.isDualRead() || !UserLayout.STANDARD.equals(format.layout())) {
+      throw new IllegalStateException("Reactive users repository only supports the standard users layout!");
+    }
+    this.mongoTemplate = mongoTemplate;
+    this.queryCompiler = queryCompiler;
+    this.keyFilter = keyFilter;
+    this.format = format;
+  }
+
+  @Override
+  public Mono<String> create(final User entity) {
+    return this.mongoTemplate.insert(new UserModel(entity, this.format.cpfStorage()), COLLECTION_NAME)
+        .doOnSuccess(ignored -> this.keyFilter.add(entity))
+        .map(UserModel::getId)
+        .onErrorMap(DuplicateKeyException.class, e -> UserMongoRepository.alreadyExists());
+  }
+
+  @Override
+  public Mono<Void> update(final User entity) {
+    final UserChanges changes = UserChanges.of(entity);
+    return this.mongoTemplate.updateFirst(
+            new BasicQuery(this.format.versioned(UserMongoRepository.idOf(entity.getId()), changes.expectedVersion(), UserLayout.STANDARD)),
+            new BasicUpdate(this.format.update(changes, LocalDateTime.now(), UserLayout.STANDARD)),
+            UserModel.class,
+            COLLECTION_NAME)
+        .onErrorMap(DuplicateKeyException.class, e -> UserMongoRepository.alreadyExists())
+        .flatMap(result -> result.getMatchedCount() == 0
+            ? Mono.error(UserMongoRepository.versionConflict())
+            : Mono.fromRunnable(() -> this.keyFilter.add(entity)));
+  }
+
+  @Override
+  public Mono<CursorPage<User>> find(final UserFilter filter, final CursorPageRequest page, final Projection projection) {
+    return Mono.fromCallable(() -> UserMongoRepository.pageQuery(this.queryCompiler.planFor(filter), filter, page, projection))
+        .flatMap(query -> this.mongoTemplate.find(query, UserModel.class, COLLECTION_NAME)
+            .map(UserModel::toEntity)
+            .collectList())
+        .map(users -> UserMongoRepository.toPage(users, page));
+  }
+
+  @Override
+  public Flux<User> stream(final UserFilter filter, final Projection projection) {
+    return Mono.fromCallable(() -> UserMongoRepository.project(this.queryCompiler.compile(filter), projection, false).cursorBatchSize(STREAM_BATCH_SIZE))
+        .flatMapMany(query -> this.mongoTemplate.find(query, UserModel.class, COLLECTION_NAME))
+        .map(UserModel::toEntity);
+  }
+
+  @Override
+  public Mono<User> findById(final String id, final Projection projection) {
+    final Query query = UserMongoRepository.project(new Query(Criteria.where(ID_FIELD).is(id)), projection, false);
+    return this.mongoTemplate.findOne(query, UserModel.class, COLLECTION_NAME)
+        .map(UserModel::toEntity);
+  }
+
+  @Override
+  public Flux<User> findAllById(final Collection<String> ids, final Projection projection) {
+    final Query query = UserMongoRepository.project(new Query(Criteria.where(ID_FIELD).in(ids)), projection, true);
+    return this.mongoTemplate.find(query, UserModel.class, COLLECTION_NAME)
+        .map(UserModel::toEntity);
+  }
+}
@@ -0,0 +1,174 @@
+package com.mercadolivre.users.app.dataprovider;
+
+import static com.mercadolivre.users.app.dataprovider.UserMongoRepository.COLLECTION_NAME;
+import static com.mercadolivre.users.app.dataprovider.query.UserQueryPlan.CASE_INSENSITIVE;
+
+import com.mercadolivre.users.app.dataprovider.model.UserLayout;
+import com.mercadolivre.users.app.dataprovider.model.UserStorageFormat;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition.TextIndexDefinitionBuilder;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indexes of every {@link UserLayout} read, named after the keys they are on. While both layouts
+ * are read, the unique indexes only cover the users that have the key, so that users of one layout
+ * do not collide on the missing keys of the other. Indexes of a layout no longer read are dropped
+ * once the new ones are built; the text index, being the only one allowed, is replaced before.
+ */
+@Slf4j
+@Component
+public class UserCollectionIndexes {
+
+  private static final int DUPLICATES_REPORT_LIMIT = 20;
+  private static final String TEXT_INDEX_PREFIX = "tx_users_";
+
+  private final MongoTemplate mongoTemplate;
+  private final UserStorageFormat format;
+  private final boolean failOnDuplicates;
+
+  public UserCollectionIndexes(
+      final MongoTemplate mongoTemplate,
+      final UserStorageFormat format,
+      @Value("${users.indexes.fail-on-duplicates:true}") final boolean failOnDuplicates) {
+    this.mongoTemplate = mongoTemplate;
+    this.format = format;
+    this.failOnDuplicates = failOnDuplicates;
+  }
+
+  @PostConstruct
+  public void ensureIndexes() {
+    final List<UserLayout> layouts = Arrays.stream(UserLayout.values())
+        .filter(this.format.readLayouts()::contains)
+        .toList();
+    final boolean partial = layouts.size() > 1;
+    final Set<String> wanted = new HashSet<>();
+    final TextIndexDefinitionBuilder textIndex = new TextIndexDefinitionBuilder().withDefaultLanguage("none");
+    final List<String> textFields = new ArrayList<>();
+    for (final UserLayout layout : layouts) {
+      final String cpf = layout.keyOf("cpf");
+      final String email = layout.keyOf("email");
+      final String name = layout.keyOf("name");
+      wanted.add(ensureUniqueIndex(unique(cpf, partial), cpf, "$" + cpf));
+      wanted.add(ensureUniqueIndex(unique(email, partial).collation(CASE_INSENSITIVE), email, new Document("$toLower", "$" + email)));
+      wanted.add(ensureIndex(new Index().on(name, Direction.ASC).on("_id", Direction.ASC).named(keysetName(name))));
+      wanted.add(ensureIndex(new Index().on(email, Direction.ASC).on("_id", Direction.ASC).named(keysetName(email))));
+      wanted.add(ensureIndex(new Index().on(name, Direction.ASC).collation(CASE_INSENSITIVE).named(caseInsensitiveName(name))));
+      textIndex.onField(name).onField(email);
+      textFields.add(name);
+      textFields.add(email);
+    }
+    final String textIndexName = TEXT_INDEX_PREFIX + String.join("_", textFields);
+    dropIndexes(name -> name.startsWith(TEXT_INDEX_PREFIX) && !name.equals(textIndexName));
+    wanted.add(ensureIndex(textIndex.named(textIndexName).build()));
+    final Set<String> managed = managedNames();
+    dropIndexes(name -> managed.contains(name) && !wanted.contains(name));
+  }
+
+  /**
+   * Every index this class may have built, whatever the layouts read.
+   */
+  private static Set<String> managedNames() {
+    final Set<String> names = new HashSet<>();
+    final List<String> allTextFields = new ArrayList<>();
+    for (final UserLayout layout : UserLayout.values()) {
+      final String name = layout.keyOf("name");
+      final String email = layout.keyOf("email");
+      for (final String unique : List.of(layout.keyOf("cpf"), email)) {
+        names.add(uniqueName(unique, false));
+        names.add(uniqueName(unique, true));
+      }
+      names.addAll(List.of(keysetName(name), keysetName(email), caseInsensitiveName(name), TEXT_INDEX_PREFIX + name + "_" + email));
+      allTextFields.addAll(List.of(name, email));
+    }
+    names.add(TEXT_INDEX_PREFIX + String.join("_", allTextFields));
+    return names;
+  }
+
+  private static Index unique(final String field, final boolean partial) {
+    final Index index = new Index().on(field, Direction.ASC).unique().named(uniqueName(field, partial));
+    return partial ? index.partial(PartialIndexFilter.of(Criteria.where(field).exists(true))) : index;
+  }
+
+  private static String uniqueName(final String field, final boolean partial) {
+    return "ux_users_" + field + (partial ? "_present" : "");
+  }
+
+  private static String keysetName(final String field) {
+    return "ix_users_" + field + "_id";
+  }
+
+  private static String caseInsensitiveName(final String field) {
+    return "ix_users_" + field + "_ci";
+  }
+
+  private String ensureIndex(final IndexDefinition index) {
+    return this.mongoTemplate.indexOps(COLLECTION_NAME).ensureIndex(index);
+  }
+
+  private void dropIndexes(final Predicate<String> obsolete) {
+    for (final IndexInfo index : this.mongoTemplate.indexOps(COLLECTION_NAME).getIndexInfo()) {
+      if (obsolete.test(index.getName())) {
+        log.info("Dropping index {}.{}, not used by the users layouts read", COLLECTION_NAME, index.getName());
+        this.mongoTemplate.indexOps(COLLECTION_NAME).dropIndex(index.getName());
+      }
+    }
+  }
+
+  private String ensureUniqueIndex(final Index index, final String field, final Object groupKey) {
+    try {
+      return ensureIndex(index);
+    } catch (DuplicateKeyException e) {
+      final String report = reportDuplicates(field, groupKey);
+      if (this.failOnDuplicates) {
+        throw new IllegalStateException(report, e);
+      }
+      log.error("{} Uniqueness of {} is NOT enforced until they are resolved.", report, field);
+      return (String) index.getIndexOptions().get("name");
+    }
+  }
+
+  private String reportDuplicates(final String field, final Object groupKey) {
+    final List<Document> pipeline = List.of(
+        new Document("$group", new Document("_id", groupKey)
+            .append("count", new Document("$sum", 1))
+            .append("ids", new Document("$push", "$_id"))),
+        new Document("$match", new Document("count", new Document("$gt", 1))),
+        new Document("$limit", DUPLICATES_REPORT_LIMIT));
+
+    final List<Document> duplicates = this.mongoTemplate.getCollection(COLLECTION_NAME)
+        .aggregate(pipeline)
+        .allowDiskUse(true)
+        .into(new ArrayList<>());
+
+    return String.format("Could not create unique index on %s.%s, duplicated values found (showing up to %d): %s.",
+        COLLECTION_NAME,
+        field,
+        DUPLICATES_REPORT_LIMIT,
+        duplicates.stream()
+            .map(duplicate -> String.format("%s -> %s", mask(duplicate.get("_id")), duplicate.get("ids")))
+            .collect(Collectors.joining("; ")));
+  }
+
+  private String mask(final Object value) {
+    final String text = String.valueOf(value);
+    return text.length() <= 3 ? "***" : text.substring(0, 3) + "***";
+  }
+}
@@ -0,0 +1,130 @@
+package com.mercadolivre.users.app.dataprovider;
+
+import static com.mercadolivre.users.app.dataprovider.UserMongoRepository.COLLECTION_NAME;
+
+import com.mercadolivre.users.app.dataprovider.model.CpfStorage;
+import com.mercadolivre.users.app.dataprovider.model.UserLayout;
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Locale;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory Bloom filter of every registered CPF and (lowercased) email. A negative answer means
+ * the key is certainly not in the collection, so the Mongo lookup can be skipped. Until the filter
+ * has been rebuilt from the collection every key is reported as possibly present. Keys are never
+ * removed, a stale key only costs a false positive. The unique indexes still have the last word.
+ * Keys are read from users of every {@link UserLayout}.
+ */
+@Slf4j
+@Component
+public class UserKeyFilter {
+
+  private static final int REBUILD_BATCH_SIZE = 5000;
+  private static final int KEYS_PER_USER = 2;
+  private static final String CPF_FIELD = "cpf";
+  private static final String EMAIL_FIELD = "email";
+
+  private final MongoTemplate mongoTemplate;
+  private final long expectedInsertions;
+  private final double falsePositiveRate;
+  private volatile BloomFilter filter;
+  private volatile boolean ready;
+
+  public UserKeyFilter(
+      final MongoTemplate mongoTemplate,
+      final MeterRegistry meterRegistry,
+      @Value("${users.key-filter.expected-insertions:1000000}") final long expectedInsertions,
+      @Value("${users.key-filter.false-positive-rate:0.01}") final double falsePositiveRate) {
+    this.mongoTemplate = mongoTemplate;
+    this.expectedInsertions = expectedInsertions;
+    this.falsePositiveRate = falsePositiveRate;
+    this.filter = BloomFilter.create(expectedInsertions, falsePositiveRate);
+
+    Gauge.builder("users.key-filter.memory", this, keyFilter -> keyFilter.filter.memoryInBytes())
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    Gauge.builder("users.key-filter.insertions", this, keyFilter -> keyFilter.filter.insertions())
+        .register(meterRegistry);
+    Gauge.builder("users.key-filter.false-positive-rate", this, keyFilter -> keyFilter.filter.expectedFalsePositiveRate())
+        .register(meterRegistry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    this.ready = false;
+    final long startedAt = System.nanoTime();
+    try {
+      final long users = this.mongoTemplate.estimatedCount(COLLECTION_NAME);
+      final BloomFilter rebuilt = BloomFilter.create(Math.max(this.expectedInsertions, users * KEYS_PER_USER * 2), this.falsePositiveRate);
+      this.filter = rebuilt;
+
+      final Query query = new Query().cursorBatchSize(REBUILD_BATCH_SIZE);
+      for (final UserLayout layout : UserLayout.values()) {
+        query.fields().include(layout.keyOf(CPF_FIELD), layout.keyOf(EMAIL_FIELD));
+      }
+      query.fields().exclude("_id");
+      try (Stream<Document> documents = this.mongoTemplate.stream(query, Document.class, COLLECTION_NAME)) {
+        documents.forEach(document -> put(rebuilt, CpfStorage.rawOf(valueOf(document, CPF_FIELD)), (String) valueOf(document, EMAIL_FIELD)));
+      }
+      this.ready = true;
+      log.info("Key filter rebuilt with {} keys in {} ms, using {} KiB ({} hash functions)",
+          rebuilt.insertions(), (System.nanoTime() - startedAt) / 1_000_000, rebuilt.memoryInBytes() / 1024, rebuilt.hashFunctions());
+    } catch (RuntimeException e) {
+      log.error("Could not rebuild key filter, every registration will be checked against Mongo!", e);
+    }
+  }
+
+  public void add(final User user) {
+    add(user.getCpf(), user.getEmail());
+  }
+
+  public void add(final BrazilianCPF cpf, final String email) {
+    put(this.filter, cpf == null ? null : cpf.getRaw(), email);
+  }
+
+  public boolean mightContain(final User user) {
+    if (!this.ready) {
+      return true;
+    }
+    final BloomFilter current = this.filter;
+    return user.getCpf() != null && current.mightContain(cpfKey(user.getCpf().getRaw()))
+        || user.getEmail() != null && current.mightContain(emailKey(user.getEmail()));
+  }
+
+  boolean isReady() {
+    return this.ready;
+  }
+
+  private static void put(final BloomFilter filter, final String cpf, final String email) {
+    if (cpf != null) {
+      filter.put(cpfKey(cpf));
+    }
+    if (email != null) {
+      filter.put(emailKey(email));
+    }
+  }
+
+  private static Object valueOf(final Document document, final String field) {
+    final Object standardValue = document.get(field);
+    return standardValue != null ? standardValue : document.get(UserLayout.COMPACT.keyOf(field));
+  }
+
+  private static String cpfKey(final String rawCPF) {
+    return "cpf:" + rawCPF;
+  }
+
+  private static String emailKey(final String email) {
+    return "email:" + email.toLowerCase(Locale.ROOT);
+  }
+}
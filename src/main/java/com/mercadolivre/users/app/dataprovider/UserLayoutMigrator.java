@@ -0,0 +1,184 @@
+package com.mercadolivre.users.app.dataprovider;
+
+import static com.mercadolivre.users.app.dataprovider.UserMongoRepository.COLLECTION_NAME;
+import static com.mercadolivre.users.app.dataprovider.UserMongoRepository.ID_FIELD;
+
+import com.mercadolivre.users.app.dataprovider.model.UserLayout;
+import com.mercadolivre.users.app.dataprovider.model.UserModel;
+import com.mercadolivre.users.app.dataprovider.model.UserStorageFormat;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rewrites, in the background, the users still stored in the other layout than
+ * {@code users.storage.layout}, a batch at a time in {@code _id} order. Each user is replaced only
+ * if it is still at the version it was read at; users changed meanwhile are left for another pass
+ * over the collection. Users whose rewrite fails, e.g. on a unique key, are counted, logged and
+ * left as they are, so one bad user cannot stall the migration. Runs while
+ * {@code users.storage.migrator.enabled} and dual-read are on, and stops after a pass that left
+ * nobody behind but such failures.
+ */
+@Slf4j
+@Component
+public class UserLayoutMigrator {
+
+  static final String MIGRATED_COUNTER = "users.storage.migrated";
+  static final String CONFLICTS_COUNTER = "users.storage.migration.conflicts";
+  static final String FAILURES_COUNTER = "users.storage.migration.failures";
+
+  private final MongoTemplate mongoTemplate;
+  private final UserStorageFormat format;
+  private final boolean enabled;
+  private final int batchSize;
+  private final Duration pause;
+  private final Counter migrated;
+  private final Counter conflicts;
+  private final Counter failures;
+  private ScheduledExecutorService executor;
+  private Object lastId;
+  private long leftBehind;
+  private volatile boolean done;
+
+  public UserLayoutMigrator(
+      final MongoTemplate mongoTemplate,
+      final UserStorageFormat format,
+      final MeterRegistry meterRegistry,
+      @Value("${users.storage.migrator.enabled:false}") final boolean enabled,
+      @Value("${users.storage.migrator.batch-size:500}") final int batchSize,
+      @Value("${users.storage.migrator.pause:100ms}") final Duration pause) {
+    this.mongoTemplate = mongoTemplate;
+    this.format = format;
+    this.enabled = enabled;
+    this.batchSize = batchSize;
+    this.pause = pause;
+    this.migrated = Counter.builder(MIGRATED_COUNTER)
+        .description("Users rewritten in the configured layout")
+        .register(meterRegistry);
+    this.conflicts = Counter.builder(CONFLICTS_COUNTER)
+        .description("Users changed while being rewritten, left for another pass")
+        .register(meterRegistry);
+    this.failures = Counter.builder(FAILURES_COUNTER)
+        .description("Users whose rewrite failed, left in their layout")
+        .register(meterRegistry);
+    Gauge.builder("users.storage.migration.done", this, migrator -> migrator.done ? 1 : 0)
+        .register(meterRegistry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void start() {
+    if (!this.enabled || this.executor != null) {
+      return;
+    }
+    if (!this.format.isDualRead()) {
+      log.warn("Users layout migrator is enabled but users.storage.dual-read is not, it will not run!");
+      return;
+    }
+    log.info("Migrating users to the {} layout, {} at a time", this.format.layout(), this.batchSize);
+    this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "users-layout-migrator");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.executor.scheduleWithFixedDelay(this::migrateNextBatch, 0, this.pause.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  synchronized void shutdown() {
+    if (this.executor != null) {
+      this.executor.shutdownNow();
+    }
+  }
+
+  boolean isDone() {
+    return this.done;
+  }
+
+  private void migrateNextBatch() {
+    try {
+      if (migrateBatch() == 0 && this.done) {
+        log.info("Every user is stored in the {} layout, migrator stopped", this.format.layout());
+        this.executor.shutdown();
+      }
+    } catch (RuntimeException e) {
+      log.error("Users layout migration batch failed, it will be retried!", e);
+    }
+  }
+
+  /**
+   * Rewrites the next users of the other layout and returns how many were found. At the end of a
+   * pass the migration is done, or starts over when some users were changed meanwhile. A batch is
+   * only read again when its write failed as a whole.
+   */
+  synchronized int migrateBatch() {
+    final UserLayout sourceLayout = this.format.readLayouts().get(1);
+    final Document filter = sourceLayout.marker();
+    if (this.lastId != null) {
+      filter.append(ID_FIELD, new Document("$gt", this.lastId));
+    }
+    final List<UserModel> users = withUsers(collection -> collection.find(filter)
+        .sort(new Document(ID_FIELD, 1))
+        .limit(this.batchSize)
+        .into(new ArrayList<>()));
+    if (users.isEmpty()) {
+      this.done = this.leftBehind == 0;
+      this.lastId = null;
+      this.leftBehind = 0;
+      return 0;
+    }
+
+    final List<ReplaceOneModel<UserModel>> replacements = users.stream()
+        .map(user -> new ReplaceOneModel<>(
+            this.format.versioned(UserMongoRepository.idOf(user.getId()), user.getVersion() == null ? 0L : user.getVersion(), sourceLayout),
+            user))
+        .toList();
+    final List<BulkWriteError> errors = new ArrayList<>();
+    final BulkWriteResult result = withUsers(collection -> {
+      try {
+        return collection.bulkWrite(replacements, new BulkWriteOptions().ordered(false));
+      } catch (MongoBulkWriteException e) {
+        if (e.getWriteErrors().isEmpty()) {
+          throw e;
+        }
+        errors.addAll(e.getWriteErrors());
+        return e.getWriteResult();
+      }
+    });
+    errors.forEach(error -> log.warn("User {} could not be rewritten in the {} layout: {}",
+        users.get(error.getIndex()).getId(), this.format.layout(), error.getMessage()));
+    this.lastId = UserMongoRepository.idOf(users.get(users.size() - 1).getId());
+    final int unmatched = users.size() - result.getMatchedCount() - errors.size();
+    this.migrated.increment(result.getModifiedCount());
+    this.failures.increment(errors.size());
+    this.conflicts.increment(unmatched);
+    this.leftBehind += unmatched;
+    return users.size();
+  }
+
+  private <T> T withUsers(final Function<MongoCollection<UserModel>, T> action) {
+    return this.mongoTemplate.execute(COLLECTION_NAME, collection -> action.apply(collection
+        .withDocumentClass(UserModel.class)
+        .withCodecRegistry(this.format.codecRegistry())));
+  }
+}
@@ -1,96 +1,443 @@
 package com.mercadolivre.users.app.dataprovider;
 
+import com.mercadolivre.users.app.dataprovider.model.CpfStorage;
+import com.mercadolivre.users.app.dataprovider.model.UserLayout;
 import com.mercadolivre.users.app.dataprovider.model.UserModel;
+import com.mercadolivre.users.app.dataprovider.model.UserModelCodec;
+import com.mercadolivre.users.app.dataprovider.model.UserStorageFormat;
+import com.mercadolivre.users.app.dataprovider.query.UserQueryCompiler;
+import com.mercadolivre.users.app.dataprovider.query.UserQueryPlan;
 import com.mercadolivre.users.core.dataprovider.AccountRepository;
-import com.mercadolivre.users.core.entity.LogicalOperator;
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.JsonPage;
+import com.mercadolivre.users.core.entity.Message;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.RegistrationResult;
 import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserChanges;
+import com.mercadolivre.users.core.entity.UserField;
 import com.mercadolivre.users.core.entity.UserFilter;
-import java.lang.reflect.Field;
-import java.util.Arrays;
+import com.mercadolivre.users.core.exception.AlreadyExistsException;
+import com.mercadolivre.users.core.exception.VersionConflictException;
+import com.mercadolivre.users.core.usecase.UserRegistrationRules;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.result.UpdateResult;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Field;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
+/**
+ * Users are read and written through the driver with {@link UserModelCodec}, which writes the same
+ * documents as the mapping converter without its reflection. Queries are built with the standard
+ * field names and rewritten by {@link UserStorageFormat} for the layouts stored.
+ */
+@Slf4j
 @Repository
-public class UserMongoRepository implements AccountRepository<User, UserFilter> {
+public class UserMongoRepository implements AccountRepository<User, UserFilter, UserChanges> {
 
-  private static final String COLLECTION_NAME = "users";
-  private static final String REGEX_PATTERN_CPF = "^(\\d+\\.*)+\\-*\\d*$";
+  static final String COLLECTION_NAME = "users";
+  static final String ID_FIELD = "_id";
+  static final int STREAM_BATCH_SIZE = 1000;
+  static final String VERSION_FIELD = "version";
   public final MongoTemplate mongoTemplate;
+  private final UserQueryCompiler queryCompiler;
+  private final UserKeyFilter keyFilter;
+  private final UserStorageFormat format;
 
-  public UserMongoRepository(final MongoTemplate mongoTemplate) {
+  public UserMongoRepository(
+      final MongoTemplate mongoTemplate,
+      final UserQueryCompiler queryCompiler,
+      final UserKeyFilter keyFilter,
+      final UserStorageFormat format) {
     this.mongoTemplate = mongoTemplate;
+    this.queryCompiler = queryCompiler;
+    this.keyFilter = keyFilter;
+    this.format = format;
   }
 
   @Override
   public String create(final User entity) {
-    final UserModel userModel = new UserModel(entity);
-    return this.mongoTemplate.insert(userModel, COLLECTION_NAME).getId();
+    rejectTakenKeys(entity.getCpf(), entity.getEmail(), null);
+    final UserModel userModel = new UserModel(entity, this.format.cpfStorage());
+    try {
+      withUsers(users -> users.insertOne(userModel));
+      this.keyFilter.add(entity);
+      return userModel.getId();
+    } catch (DuplicateKeyException e) {
+      throw alreadyExists();
+    }
+  }
+
+  /**
+   * Ids are assigned up front so that the unordered bulk insert can report every item, inserted or
+   * rejected by the unique indexes, without reading anything back. In dual-read mode the users
+   * whose keys are taken are left out first, see {@link #rejectTakenKeys}.
+   */
+  @Override
+  public List<RegistrationResult> createAll(final List<User> entities) {
+    final Set<String> takenKeys = this.format.isDualRead()
+        ? findConflicting(entities).stream().flatMap(UserRegistrationRules::uniqueKeysOf).collect(Collectors.toSet())
+        : Set.of();
+    final RegistrationResult[] results = new RegistrationResult[entities.size()];
+    final List<Integer> inserted = new ArrayList<>(entities.size());
+    final List<UserModel> models = new ArrayList<>(entities.size());
+    for (int i = 0; i < entities.size(); i++) {
+      final User entity = entities.get(i);
+      if (UserRegistrationRules.uniqueKeysOf(entity).anyMatch(takenKeys::contains)) {
+        results[i] = RegistrationResult.failed(Message.REGISTRATION_ERROR_USER_ALREADY_EXISTS);
+        continue;
+      }
+      entity.setId(new ObjectId().toHexString());
+      results[i] = RegistrationResult.created(entity.getId());
+      inserted.add(i);
+      models.add(new UserModel(entity, this.format.cpfStorage()));
+    }
+    if (models.isEmpty()) {
+      return List.of(results);
+    }
+
+    final List<BulkWriteError> errors = withUsers(users -> {
+      try {
+        users.insertMany(models, new InsertManyOptions().ordered(false));
+        return List.of();
+      } catch (MongoBulkWriteException e) {
+        if (e.getWriteErrors().isEmpty()) {
+          throw e;
+        }
+        return e.getWriteErrors();
+      }
+    });
+    for (final BulkWriteError error : errors) {
+      final int index = inserted.get(error.getIndex());
+      entities.get(index).setId(null);
+      results[index] = ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY
+          ? RegistrationResult.failed(Message.REGISTRATION_ERROR_USER_ALREADY_EXISTS)
+          : RegistrationResult.failed(Message.REGISTRATION_ERROR_USER_NOT_PERSISTED);
+    }
+    if (!errors.isEmpty()) {
+      log.warn("{} of {} users were not inserted", errors.size(), models.size());
+    }
+    for (int i = 0; i < results.length; i++) {
+      if (results[i].isCreated()) {
+        this.keyFilter.add(entities.get(i));
+      }
+    }
+    return List.of(results);
   }
 
+  /**
+   * One query per key, answered by the cpf and the case-insensitive email indexes. Users whose keys
+   * the {@link UserKeyFilter} has certainly never seen are left out of them, so a batch of brand new
+   * users does not query at all. In dual-read mode every user is looked up, see
+   * {@link #rejectTakenKeys}.
+   */
+  @Override
+  public List<User> findConflicting(final List<User> entities) {
+    final List<User> candidates = this.format.isDualRead()
+        ? entities
+        : entities.stream().filter(this.keyFilter::mightContain).collect(Collectors.toList());
+    return findHolders(
+        candidates.stream().map(User::getCpf).filter(Objects::nonNull).collect(Collectors.toList()),
+        candidates.stream().map(User::getEmail).filter(Objects::nonNull).collect(Collectors.toSet()),
+        null,
+        false);
+  }
+
+  /**
+   * Both BSON types of every CPF, the unique index cannot tell a string from its int64 twin.
+   */
+  private static Set<Object> cpfKeysOf(final Collection<BrazilianCPF> cpfs) {
+    final Set<Object> keys = new HashSet<>();
+    for (final BrazilianCPF cpf : cpfs) {
+      keys.add(CpfStorage.STRING.write(cpf));
+      keys.add(CpfStorage.INT64.write(cpf));
+    }
+    return keys;
+  }
+
+  /**
+   * Each layout has its own unique indexes, so in dual-read mode a CPF or email held by a user of
+   * the other layout would not be rejected by the write. Such users are looked up first, in both
+   * layouts, the user being written excepted; a user of the other layout taking the same key in the
+   * meantime is not seen. The {@link UserKeyFilter} of this instance does not know the keys other
+   * instances wrote since it was built, so it is not asked.
+   */
+  private void rejectTakenKeys(final BrazilianCPF cpf, final String email, final String excludedId) {
+    if (!this.format.isDualRead() || cpf == null && email == null) {
+      return;
+    }
+    if (!findHolders(cpf == null ? List.of() : List.of(cpf), email == null ? Set.of() : Set.of(email), excludedId, true).isEmpty()) {
+      throw alreadyExists();
+    }
+  }
+
+  /**
+   * Users holding any of the CPFs or emails, but the excluded one. CPFs and emails are looked up
+   * apart, emails under the collation of their unique indexes so that they compare without case.
+   */
+  private List<User> findHolders(final Collection<BrazilianCPF> cpfs, final Set<String> emails, final String excludedId, final boolean firstOnly) {
+    final List<User> holders = new ArrayList<>();
+    if (!cpfs.isEmpty()) {
+      holders.addAll(findAll(holdersQuery(Criteria.where("cpf").in(cpfKeysOf(cpfs)), excludedId, firstOnly)));
+    }
+    if (!emails.isEmpty() && (holders.isEmpty() || !firstOnly)) {
+      holders.addAll(findAll(holdersQuery(Criteria.where("email").in(emails), excludedId, firstOnly).collation(UserQueryPlan.CASE_INSENSITIVE)));
+    }
+    return holders;
+  }
+
+  private static Query holdersQuery(final Criteria key, final String excludedId, final boolean firstOnly) {
+    if (excludedId != null) {
+      key.and(ID_FIELD).ne(idOf(excludedId));
+    }
+    final Query query = new Query(key);
+    query.fields().include("cpf", "email");
+    return firstOnly ? query.limit(1) : query;
+  }
+
+  /**
+   * Rewrites every field of a user previously read, guarded by the version it was read at.
+   */
   @Override
   public void update(final User entity) {
-    this.mongoTemplate.save(new UserModel(entity), COLLECTION_NAME);
+    if (!update(entity.getId(), UserChanges.of(entity))) {
+      throw versionConflict();
+    }
+  }
+
+  /**
+   * In dual-read mode a user not found in the written layout is looked for in the other one, its
+   * fields being updated where they are.
+   */
+  @Override
+  public boolean update(final String id, final UserChanges changes) {
+    rejectTakenKeys((BrazilianCPF) changes.valueOf(UserField.CPF), (String) changes.valueOf(UserField.EMAIL), id);
+    final LocalDateTime updatedAt = LocalDateTime.now();
+    try {
+      for (final UserLayout layout : this.format.readLayouts()) {
+        final UpdateResult result = withUsers(users -> users.updateOne(
+            this.format.versioned(idOf(id), changes.expectedVersion(), layout),
+            this.format.update(changes, updatedAt, layout)));
+        if (result.getMatchedCount() > 0) {
+          this.keyFilter.add((BrazilianCPF) changes.valueOf(UserField.CPF), (String) changes.valueOf(UserField.EMAIL));
+          return true;
+        }
+      }
+      return false;
+    } catch (DuplicateKeyException e) {
+      throw alreadyExists();
+    }
+  }
+
+  @Override
+  public Optional<Long> findVersion(final String id) {
+    final Query query = new Query(Criteria.where(ID_FIELD).is(idOf(id)));
+    query.fields().include(VERSION_FIELD);
+    return Optional.ofNullable(withUsers(users -> find(users, query).first()))
+        .map(user -> user.getVersion() == null ? 0L : user.getVersion());
   }
 
   @Override
-  public List<User> find(final UserFilter filter) {
-    final List<String> paramsKeyValue = Arrays.stream(filter.getClass().getDeclaredFields())
-            .filter(field -> getNormalized(filter, field) != null && filter.isSearchableFields(field.getName()))
-            .map(field -> String.format("%s : '%s'", field.getName(), getNormalized(filter, field)))
-            .collect(Collectors.toList());
+  public CursorPage<User> find(final UserFilter filter, final CursorPageRequest page, final Projection projection) {
+    final Query query = pageQuery(this.queryCompiler.planFor(filter), filter, page, projection);
+    return toPage(findAll(query), page);
+  }
 
-    final String queryString = buildQuery(filter, paramsKeyValue).toString();
-    final BasicQuery query = new BasicQuery(queryString);
+  /**
+   * The page as raw documents, rendered by {@link com.mercadolivre.users.app.dataprovider.model.UserJsonTranscoder}
+   * without decoding them.
+   */
+  @Override
+  public JsonPage findJson(final UserFilter filter, final CursorPageRequest page, final Projection projection) {
+    final Query query = pageQuery(this.queryCompiler.planFor(filter), filter, page, projection);
+    final List<RawBsonDocument> rows = this.mongoTemplate.execute(COLLECTION_NAME, collection -> find(collection.withDocumentClass(RawBsonDocument.class), query).into(new ArrayList<>()));
+    if (rows.size() <= page.limit()) {
+      return this.format.jsonTranscoder().page(rows, projection, null);
+    }
+    final List<RawBsonDocument> pageRows = rows.subList(0, page.limit());
+    final BsonValue lastId = pageRows.get(pageRows.size() - 1).get(ID_FIELD);
+    return this.format.jsonTranscoder().page(pageRows, projection,
+        encodeCursor(lastId.isObjectId() ? lastId.asObjectId().getValue().toHexString() : lastId.asString().getValue()));
+  }
 
-    return this.mongoTemplate.find(query, UserModel.class, COLLECTION_NAME).stream()
-        .map(UserModel::toEntity)
-        .collect(Collectors.toList());
+  @Override
+  public Stream<User> stream(final UserFilter filter, final Projection projection) {
+    final Query query = project(this.queryCompiler.compile(filter), projection, false);
+    final MongoCursor<UserModel> cursor = withUsers(users -> find(users, query).batchSize(STREAM_BATCH_SIZE).cursor());
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+        .onClose(cursor::close)
+        .map(UserModel::toEntity);
   }
 
   @Override
   public Optional<User> findById(final String id) {
-    return Optional.ofNullable(this.mongoTemplate.findById(id, UserModel.class, COLLECTION_NAME))
+    return findOne(new Query(Criteria.where(ID_FIELD).is(idOf(id))));
+  }
+
+  @Override
+  public Optional<User> findById(final String id, final Projection projection) {
+    if (projection.isAll()) {
+      return findById(id);
+    }
+    final Query query = project(new Query(Criteria.where(ID_FIELD).is(idOf(id))), projection, false);
+    query.fields().include(VERSION_FIELD);
+    return findOne(query);
+  }
+
+  @Override
+  public List<User> findAllById(final Collection<String> ids, final Projection projection) {
+    final Query query = project(new Query(Criteria.where(ID_FIELD).in(ids.stream().map(UserMongoRepository::idOf).toList())), projection, true);
+    return findAll(query);
+  }
+
+  private List<User> findAll(final Query query) {
+    return withUsers(users -> find(users, query).map(UserModel::toEntity).into(new ArrayList<>()));
+  }
+
+  private Optional<User> findOne(final Query query) {
+    return Optional.ofNullable(withUsers(users -> find(users, query).first()))
         .map(UserModel::toEntity);
   }
 
-  private String getNormalized(final UserFilter filter, final Field field) {
-    try {
-      field.setAccessible(true);
-      return Optional.ofNullable(field.get(filter))
-          .map(String::valueOf)
-          .map(rawValue -> normalize(filter, rawValue))
-          .orElse(null);
-    } catch (IllegalAccessException e) {
-      throw new IllegalStateException("Could not apply query filter!");
+  /**
+   * The users collection as the template prepared it, decoding to {@link UserModel}. Exceptions are
+   * translated as they are for the template's own operations.
+   */
+  private <T> T withUsers(final Function<MongoCollection<UserModel>, T> action) {
+    return this.mongoTemplate.execute(COLLECTION_NAME, collection -> action.apply(collection
+        .withDocumentClass(UserModel.class)
+        .withCodecRegistry(this.format.codecRegistry())));
+  }
+
+  /**
+   * Queries are not mapped by the template, their filter and projection are rewritten for the
+   * stored layouts, their sort, limit and collation are passed as they were built.
+   */
+  private <T> FindIterable<T> find(final MongoCollection<T> users, final Query query) {
+    final FindIterable<T> found = users.find(this.format.filter(query.getQueryObject()))
+        .projection(this.format.fields(query.getFieldsObject()))
+        .sort(query.getSortObject());
+    if (query.isLimited()) {
+      found.limit(query.getLimit());
     }
+    query.getCollation().ifPresent(collation -> found.collation(collation.toMongoCollation()));
+    return found;
   }
 
-  private String normalize(final UserFilter filter, final String rawValue) {
-    if (filter.getNormalize()) {
-      if (rawValue.matches(REGEX_PATTERN_CPF)) {
-        return rawValue.strip().replaceAll("[.,-]", "");
-      }
+  /**
+   * Ids are stored as ObjectIds, the way the mapping converter writes those that are valid ones.
+   */
+  static Object idOf(final String id) {
+    return ObjectId.isValid(id) ? new ObjectId(id) : id;
+  }
+
+  /**
+   * The id as read back from Mongo, ObjectIds being written in lower case hex.
+   */
+  static String normalizedId(final String id) {
+    return ObjectId.isValid(id) ? id.toLowerCase(Locale.ROOT) : id;
+  }
+
+  /**
+   * Pushes the projection down to Mongo. {@code _id} is only kept when requested or when the caller
+   * needs it (e.g. to build the next cursor), so that a projection matching an index can be covered.
+   */
+  static Query project(final Query query, final Projection projection, final boolean keepId) {
+    if (projection.isAll()) {
+      return query;
+    }
+    final Field fields = query.fields();
+    projection.fields().stream()
+        .filter(field -> field != UserField.ID)
+        .forEach(field -> fields.include(field.getName()));
+    if (!keepId && !projection.includes(UserField.ID)) {
+      fields.exclude(ID_FIELD);
     }
-    return rawValue;
+    return query;
   }
 
-  private StringBuilder buildQuery(UserFilter filter, List<String> paramsKeyValue) {
-    final StringBuilder queryBuilder = new StringBuilder("{");
+  /**
+   * Keyset page: sorted by {@code _id}, starting after the cursor, one extra user telling whether
+   * there is a next page.
+   */
+  static Query pageQuery(final UserQueryPlan plan, final UserFilter filter, final CursorPageRequest page, final Projection projection) {
+    final Document queryObject = plan.bind(filter);
+    if (page.cursor() != null) {
+      queryObject.append(ID_FIELD, new Document("$gt", decodeCursor(page.cursor())));
+    }
+    final Query query = project(new BasicQuery(queryObject), projection, true)
+        .with(Sort.by(ID_FIELD))
+        .limit(page.limit() + 1);
+    plan.collation().ifPresent(query::collation);
+    return query;
+  }
 
-    if (LogicalOperator.OR.equals(filter.getOperator())) {
-      queryBuilder.append(" $or: [ ");
-      paramsKeyValue.stream().forEach(keyValue -> queryBuilder.append(String.format("{ %s }, ", keyValue)));
-      queryBuilder.append("]");
-    } else {
-      paramsKeyValue.stream().forEach(keyValue -> queryBuilder.append(String.format("%s, ", keyValue)));
+  static CursorPage<User> toPage(final List<User> users, final CursorPageRequest page) {
+    if (users.size() <= page.limit()) {
+      return new CursorPage<>(users, null);
     }
-    queryBuilder.append(" }");
-    return queryBuilder;
+    final List<User> pageItems = users.subList(0, page.limit());
+    return new CursorPage<>(pageItems, encodeCursor(pageItems.get(pageItems.size() - 1).getId()));
   }
 
+  static String encodeCursor(final String lastId) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(new ObjectId(lastId).toByteArray());
+  }
+
+  static ObjectId decodeCursor(final String cursor) {
+    try {
+      return new ObjectId(Base64.getUrlDecoder().decode(cursor));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(String.format("Cursor %s is not valid!", cursor));
+    }
+  }
+
+  static VersionConflictException versionConflict() {
+    log.warn("User has been modified since it was read!");
+    return new VersionConflictException(
+        Message.REGISTRATION_ERROR_VERSION_CONFLICT.getCode(),
+        Message.REGISTRATION_ERROR_VERSION_CONFLICT.getMessage());
+  }
+
+  static AlreadyExistsException alreadyExists() {
+    log.warn("User is already registered!");
+    return new AlreadyExistsException(
+        Message.REGISTRATION_ERROR_USER_ALREADY_EXISTS.getCode(),
+        Message.REGISTRATION_ERROR_USER_ALREADY_EXISTS.getMessage());
+  }
 
 }
@@ -0,0 +1,137 @@
+package com.mercadolivre.users.app.dataprovider;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mercadolivre.users.app.dataprovider.query.UserQueryCompiler;
+import com.mercadolivre.users.app.dataprovider.query.UserQueryPlan;
+import com.mercadolivre.users.app.dataprovider.query.UserSearchField;
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ids of the users of each search page, keyed by the canonical filter and the page requested. The
+ * users themselves are read by id, so a cached page costs a lookup in the users cache at most.
+ *
+ * <p>Every write evicts the pages it could change, and those only. Pages are keyset ranges sorted
+ * by id, so a written user changes a page when the page lists it, or when its new values could
+ * match the filter and its id falls within the page: after the cursor, and before the last id
+ * unless the page is the last one. A page whose only follower leaves may then still announce a next
+ * page, which comes back empty, as if the change had happened between two requests. Each page
+ * keeps the matcher of its filter, bound once when it is cached, so that a write costs a single
+ * pass over the pages however many users it wrote.
+ *
+ * <p>Searches that ran while a write was happening are not cached: the write count is checked
+ * again atomically with the put, and once more after it, so that a write whose pass over the pages
+ * missed the one being put still gets it evicted.
+ */
+@Component
+public class UserSearchCache {
+
+  static final String CACHE_NAME = "users.search";
+
+  private final UserQueryCompiler queryCompiler;
+  private final Cache<SearchKey, SearchPage> cache;
+  private final AtomicLong writes = new AtomicLong();
+
+  public UserSearchCache(
+      final UserQueryCompiler queryCompiler,
+      final MeterRegistry meterRegistry,
+      @Value("${users.search-cache.maximum-size:10000}") final long maximumSize,
+      @Value("${users.search-cache.expire-after-write:1m}") final Duration expireAfterWrite) {
+    this.queryCompiler = queryCompiler;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(expireAfterWrite)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+  }
+
+  /**
+   * The cached page, its users read through {@code findAllById}, or else the page searched and
+   * cached.
+   */
+  CursorPage<User> find(
+      final UserFilter filter,
+      final CursorPageRequest page,
+      final Supplier<CursorPage<User>> search,
+      final Function<List<String>, Map<String, User>> findAllById) {
+    final SearchKey key = new SearchKey(this.queryCompiler.planFor(filter).canonical(filter), page);
+    final SearchPage cached = this.cache.getIfPresent(key);
+    if (cached != null) {
+      final Map<String, User> users = findAllById.apply(cached.ids());
+      if (users.size() == cached.ids().size()) {
+        return new CursorPage<>(cached.ids().stream().map(users::get).toList(), cached.nextCursor());
+      }
+    }
+
+    final long writesBefore = this.writes.get();
+    final CursorPage<User> result = search.get();
+    final List<String> ids = result.items().stream().map(User::getId).toList();
+    if (ids.stream().allMatch(Objects::nonNull)) {
+      final UserQueryPlan plan = this.queryCompiler.planFor(key.filter());
+      final SearchPage searched = new SearchPage(ids.stream().map(UserMongoRepository::normalizedId).toList(), result.nextCursor(),
+          page.cursor() == null ? null : UserMongoRepository.decodeCursor(page.cursor()).toHexString(), plan.matcherFor(key.filter()));
+      this.cache.asMap().compute(key, (cachedKey, cachedPage) -> this.writes.get() == writesBefore ? searched : cachedPage);
+      if (this.writes.get() != writesBefore) {
+        this.cache.asMap().remove(key, searched);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Evicts the pages a user written with these values could be in, before or after the write.
+   * Values are those of {@link UserQueryPlan#couldMatch}.
+   */
+  void written(final String id, final Map<UserSearchField, String> values) {
+    written(Map.of(id, values));
+  }
+
+  /**
+   * {@link #written(String, Map)} for every user of a batch, in a single pass over the pages.
+   */
+  void written(final Map<String, Map<UserSearchField, String>> users) {
+    if (users.isEmpty()) {
+      return;
+    }
+    this.writes.incrementAndGet();
+    final Map<String, Map<UserSearchField, String>> written = new HashMap<>(users.size());
+    users.forEach((id, values) -> written.put(UserMongoRepository.normalizedId(id), values));
+    this.cache.asMap().values().removeIf(page -> written.entrySet().stream()
+        .anyMatch(user -> page.ids().contains(user.getKey()) || page.covers(user.getKey()) && page.matcher().test(user.getValue())));
+  }
+
+  long estimatedSize() {
+    return this.cache.estimatedSize();
+  }
+
+  private record SearchKey(UserFilter filter, CursorPageRequest page) {
+  }
+
+  /**
+   * Ids in ascending order, as hexadecimal ObjectIds of equal length compare like the ObjectIds.
+   */
+  private record SearchPage(List<String> ids, String nextCursor, String afterId, Predicate<Map<UserSearchField, String>> matcher) {
+
+    private boolean covers(final String id) {
+      return (this.afterId == null || id.compareTo(this.afterId) > 0)
+          && (this.nextCursor == null || id.compareTo(this.ids.get(this.ids.size() - 1)) < 0);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package com.mercadolivre.users.app.dataprovider.model;
+
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import java.util.List;
+import java.util.OptionalLong;
+import org.bson.Document;
+
+/**
+ * BSON type of the persisted CPF, chosen by {@code users.cpf.storage}. {@link #INT64} stores 8
+ * bytes instead of an 11 characters string, which makes the cpf index smaller and its comparisons
+ * numeric. Both types are always read back, and equality lookups match both, so a collection can
+ * be converted while in use; prefix searches only match the configured type.
+ */
+public enum CpfStorage {
+  STRING,
+  INT64;
+
+  private static final int CPF_LENGTH = 11;
+
+  public Object write(final BrazilianCPF cpf) {
+    if (cpf == null) {
+      return null;
+    }
+    final OptionalLong packed = INT64.equals(this) ? cpf.toLong() : OptionalLong.empty();
+    return packed.isPresent() ? (Object) packed.getAsLong() : cpf.getRaw();
+  }
+
+  /**
+   * Matcher of a CPF given as raw digits, for equality and {@code $in} lookups.
+   */
+  public Object bind(final String rawCPF) {
+    if (!INT64.equals(this) || !isRawCPF(rawCPF)) {
+      return rawCPF;
+    }
+    return new Document("$in", List.of(Long.parseLong(rawCPF), rawCPF));
+  }
+
+  /**
+   * {@code [prefix, prefix + 1)} scaled to 11 digits, or {@code null} when the prefix is not made of digits
+   * only or the CPF is stored as a string.
+   */
+  public Document prefixRange(final String prefix) {
+    if (!INT64.equals(this) || prefix.isEmpty() || prefix.length() > CPF_LENGTH || !isDigits(prefix)) {
+      return null;
+    }
+    long scale = 1;
+    for (int i = prefix.length(); i < CPF_LENGTH; i++) {
+      scale *= 10;
+    }
+    final long value = Long.parseLong(prefix);
+    return new Document("$gte", value * scale).append("$lt", (value + 1) * scale);
+  }
+
+  public static BrazilianCPF read(final Object stored) {
+    if (stored == null) {
+      return null;
+    }
+    return stored instanceof Number number
+        ? BrazilianCPF.fromLong(number.longValue())
+        : new BrazilianCPF(stored.toString());
+  }
+
+  public static String rawOf(final Object stored) {
+    return stored instanceof Number ? read(stored).getRaw() : (String) stored;
+  }
+
+  private static boolean isRawCPF(final String value) {
+    return value != null && value.length() == CPF_LENGTH && isDigits(value);
+  }
+
+  private static boolean isDigits(final String value) {
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,344 @@
+package com.mercadolivre.users.app.dataprovider.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.JsonPage;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.UserField;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import org.bson.BsonSerializationException;
+import org.bson.ByteBuf;
+import org.bson.RawBsonDocument;
+
+/**
+ * Renders stored users as the JSON array of a search response straight from their BSON bytes, with
+ * the fields, formats and order of {@code UserResponseDTO}: no {@link UserModel}, user, DTO or
+ * string is built per row. Keys of both {@link UserLayout}s are read and values of the types
+ * {@link UserModelCodec} reads; values of any other type are left out, as {@code null}s are.
+ *
+ * <p>A first walk over a document finds where each field is, then the fields are written in
+ * response order, so users whose fields were reordered by updates render the same. Values the
+ * fast path does not cover, such as CPFs that are not 11 digits or dates past year 9999, are
+ * formatted the way the DTO does.
+ */
+public class UserJsonTranscoder {
+
+  private static final UserField[] FIELDS = UserField.values();
+  private static final SerializableString[] FIELD_NAMES = Arrays.stream(FIELDS)
+      .map(field -> new SerializedString(field.getName()))
+      .toArray(SerializableString[]::new);
+  private static final byte[][][] STORED_KEYS = Arrays.stream(FIELDS)
+      .map(UserJsonTranscoder::storedKeysOf)
+      .toArray(byte[][][]::new);
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+  private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+  private static final long MAX_CPF = 99_999_999_999L;
+  private static final int CPF_LENGTH = 11;
+  private static final long MILLIS_PER_DAY = 86_400_000L;
+  private static final int SECONDS_PER_DAY = 86_400;
+
+  private static final byte DOUBLE = 0x01;
+  private static final byte STRING = 0x02;
+  private static final byte OBJECT_ID = 0x07;
+  private static final byte DATE_TIME = 0x09;
+  private static final byte INT32 = 0x10;
+  private static final byte INT64 = 0x12;
+
+  private final ZoneId zone;
+  private final JsonFactory jsonFactory = new JsonFactory();
+
+  public UserJsonTranscoder(final ZoneId zone) {
+    this.zone = zone;
+  }
+
+  /**
+   * A page of these rows, rendered when it is written.
+   */
+  public JsonPage page(final List<RawBsonDocument> rows, final Projection projection, final String nextCursor) {
+    return new RawJsonPage(this, rows, projection, nextCursor);
+  }
+
+  public void write(final List<RawBsonDocument> rows, final Projection projection, final JsonGenerator generator) throws IOException {
+    final int[] offsets = new int[FIELDS.length];
+    final byte[] types = new byte[FIELDS.length];
+    final char[] chars = new char[32];
+    generator.writeStartArray();
+    for (final RawBsonDocument row : rows) {
+      final ByteBuf buffer = row.getByteBuffer();
+      final byte[] bytes = buffer.array();
+      locateFields(bytes, buffer.position(), offsets, types);
+      generator.writeStartObject();
+      for (int field = 0; field < FIELDS.length; field++) {
+        if (offsets[field] >= 0 && projection.includes(FIELDS[field])) {
+          writeField(field, bytes, offsets[field], types[field], chars, generator);
+        }
+      }
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+  }
+
+  /**
+   * Offset and type of the value of each field in the document starting at {@code start},
+   * {@code -1} for the fields it does not hold.
+   */
+  private static void locateFields(final byte[] bytes, final int start, final int[] offsets, final byte[] types) {
+    Arrays.fill(offsets, -1);
+    final int end = start + readInt32(bytes, start) - 1;
+    int position = start + 4;
+    while (position < end) {
+      final byte type = bytes[position++];
+      final int nameStart = position;
+      while (bytes[position] != 0) {
+        position++;
+      }
+      final int field = fieldOf(bytes, nameStart, position);
+      position++;
+      if (field >= 0) {
+        offsets[field] = position;
+        types[field] = type;
+      }
+      position += sizeOf(bytes, position, type);
+    }
+  }
+
+  private static int fieldOf(final byte[] bytes, final int nameStart, final int nameEnd) {
+    for (int field = 0; field < STORED_KEYS.length; field++) {
+      for (final byte[] key : STORED_KEYS[field]) {
+        if (key.length == nameEnd - nameStart && Arrays.equals(bytes, nameStart, nameEnd, key, 0, key.length)) {
+          return field;
+        }
+      }
+    }
+    return -1;
+  }
+
+  private void writeField(final int field, final byte[] bytes, final int offset, final byte type, final char[] chars,
+      final JsonGenerator generator) throws IOException {
+    switch (FIELDS[field]) {
+      case ID -> {
+        if (type == OBJECT_ID) {
+          generator.writeFieldName(FIELD_NAMES[field]);
+          generator.writeString(chars, 0, writeHex(bytes, offset, chars));
+        } else {
+          writeUtf8(field, bytes, offset, type, generator);
+        }
+      }
+      case CPF -> writeCpf(field, bytes, offset, type, chars, generator);
+      case BIRTH_DATE -> {
+        if (type == DATE_TIME) {
+          final long millis = readInt64(bytes, offset);
+          writeDate(field, Math.floorDiv(millis + offsetMillisAt(millis), MILLIS_PER_DAY), chars, generator);
+        } else if (type == INT32) {
+          writeDate(field, readInt32(bytes, offset), chars, generator);
+        } else if (type == INT64) {
+          writeDate(field, readInt64(bytes, offset), chars, generator);
+        }
+      }
+      case CREATED_AT, UPDATED_AT -> {
+        if (type == DATE_TIME || type == INT64) {
+          writeDateTime(field, readInt64(bytes, offset), chars, generator);
+        }
+      }
+      default -> writeUtf8(field, bytes, offset, type, generator);
+    }
+  }
+
+  private static void writeUtf8(final int field, final byte[] bytes, final int offset, final byte type, final JsonGenerator generator) throws IOException {
+    if (type == STRING) {
+      generator.writeFieldName(FIELD_NAMES[field]);
+      generator.writeUTF8String(bytes, offset + 4, readInt32(bytes, offset) - 1);
+    }
+  }
+
+  /**
+   * {@code 000.000.000-00} from a packed CPF or from 11 digits, anything else being formatted by
+   * {@link BrazilianCPF#getFormatted()} as the DTO does.
+   */
+  private static void writeCpf(final int field, final byte[] bytes, final int offset, final byte type, final char[] chars,
+      final JsonGenerator generator) throws IOException {
+    final long packed;
+    switch (type) {
+      case INT64 -> packed = readInt64(bytes, offset);
+      case INT32 -> packed = readInt32(bytes, offset);
+      case DOUBLE -> packed = (long) Double.longBitsToDouble(readInt64(bytes, offset));
+      case STRING -> packed = packedDigits(bytes, offset + 4, readInt32(bytes, offset) - 1);
+      default -> {
+        return;
+      }
+    }
+    generator.writeFieldName(FIELD_NAMES[field]);
+    if (type == STRING && packed < 0) {
+      generator.writeString(new BrazilianCPF(new String(bytes, offset + 4, readInt32(bytes, offset) - 1, StandardCharsets.UTF_8)).getFormatted());
+      return;
+    }
+    if (packed < 0 || packed > MAX_CPF) {
+      generator.writeString(CpfStorage.read(packed).getFormatted());
+      return;
+    }
+    long remaining = packed;
+    for (int i = 13; i >= 0; i--) {
+      if (i == 3 || i == 7) {
+        chars[i] = '.';
+      } else if (i == 11) {
+        chars[i] = '-';
+      } else {
+        chars[i] = (char) ('0' + remaining % 10);
+        remaining /= 10;
+      }
+    }
+    generator.writeString(chars, 0, 14);
+  }
+
+  /**
+   * The CPF held by exactly 11 ASCII digits, {@code -1} otherwise.
+   */
+  private static long packedDigits(final byte[] bytes, final int start, final int length) {
+    if (length != CPF_LENGTH) {
+      return -1;
+    }
+    long packed = 0;
+    for (int i = start; i < start + length; i++) {
+      if (bytes[i] < '0' || bytes[i] > '9') {
+        return -1;
+      }
+      packed = packed * 10 + (bytes[i] - '0');
+    }
+    return packed;
+  }
+
+  private static void writeDate(final int field, final long epochDay, final char[] chars, final JsonGenerator generator) throws IOException {
+    final LocalDate date = LocalDate.ofEpochDay(epochDay);
+    generator.writeFieldName(FIELD_NAMES[field]);
+    if (date.getYear() < 1 || date.getYear() > 9999) {
+      generator.writeString(DATE_FORMAT.format(date));
+      return;
+    }
+    writeDigits(chars, 0, date.getDayOfMonth(), 2);
+    chars[2] = '/';
+    writeDigits(chars, 3, date.getMonthValue(), 2);
+    chars[5] = '/';
+    writeDigits(chars, 6, date.getYear(), 4);
+    generator.writeString(chars, 0, 10);
+  }
+
+  private void writeDateTime(final int field, final long millis, final char[] chars, final JsonGenerator generator) throws IOException {
+    final long localSeconds = Math.floorDiv(millis + offsetMillisAt(millis), 1000L);
+    final LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(localSeconds, SECONDS_PER_DAY));
+    final int secondOfDay = (int) Math.floorMod(localSeconds, SECONDS_PER_DAY);
+    generator.writeFieldName(FIELD_NAMES[field]);
+    if (date.getYear() < 1 || date.getYear() > 9999) {
+      generator.writeString(DATE_TIME_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), this.zone)));
+      return;
+    }
+    writeDigits(chars, 0, date.getYear(), 4);
+    chars[4] = '-';
+    writeDigits(chars, 5, date.getMonthValue(), 2);
+    chars[7] = '-';
+    writeDigits(chars, 8, date.getDayOfMonth(), 2);
+    chars[10] = 'T';
+    writeDigits(chars, 11, secondOfDay / 3600, 2);
+    chars[13] = ':';
+    writeDigits(chars, 14, secondOfDay / 60 % 60, 2);
+    chars[16] = ':';
+    writeDigits(chars, 17, secondOfDay % 60, 2);
+    chars[19] = 'Z';
+    generator.writeString(chars, 0, 20);
+  }
+
+  private long offsetMillisAt(final long millis) {
+    if (this.zone instanceof ZoneOffset offset) {
+      return offset.getTotalSeconds() * 1000L;
+    }
+    return this.zone.getRules().getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds() * 1000L;
+  }
+
+  private static int writeHex(final byte[] bytes, final int offset, final char[] chars) {
+    for (int i = 0; i < 12; i++) {
+      chars[i * 2] = HEX[(bytes[offset + i] >> 4) & 0xF];
+      chars[i * 2 + 1] = HEX[bytes[offset + i] & 0xF];
+    }
+    return 24;
+  }
+
+  private static void writeDigits(final char[] chars, final int start, final int value, final int width) {
+    int remaining = value;
+    for (int i = start + width - 1; i >= start; i--) {
+      chars[i] = (char) ('0' + remaining % 10);
+      remaining /= 10;
+    }
+  }
+
+  /**
+   * Size of a value of the given BSON type, from its first byte.
+   */
+  private static int sizeOf(final byte[] bytes, final int offset, final byte type) {
+    return switch (type) {
+      case 0x06, 0x0A, 0x7F, (byte) 0xFF -> 0;
+      case 0x08 -> 1;
+      case INT32 -> 4;
+      case DOUBLE, DATE_TIME, 0x11, INT64 -> 8;
+      case OBJECT_ID -> 12;
+      case 0x13 -> 16;
+      case STRING, 0x0D, 0x0E -> 4 + readInt32(bytes, offset);
+      case 0x03, 0x04, 0x0F -> readInt32(bytes, offset);
+      case 0x05 -> 5 + readInt32(bytes, offset);
+      case 0x0C -> 4 + readInt32(bytes, offset) + 12;
+      case 0x0B -> {
+        int end = offset;
+        for (int cstrings = 0; cstrings < 2; end++) {
+          if (bytes[end] == 0) {
+            cstrings++;
+          }
+        }
+        yield end - offset;
+      }
+      default -> throw new BsonSerializationException(String.format("Unknown BSON type 0x%02x!", type));
+    };
+  }
+
+  private static int readInt32(final byte[] bytes, final int offset) {
+    return (bytes[offset] & 0xFF)
+        | (bytes[offset + 1] & 0xFF) << 8
+        | (bytes[offset + 2] & 0xFF) << 16
+        | (bytes[offset + 3] & 0xFF) << 24;
+  }
+
+  private static long readInt64(final byte[] bytes, final int offset) {
+    return (readInt32(bytes, offset) & 0xFFFFFFFFL) | (long) readInt32(bytes, offset + 4) << 32;
+  }
+
+  private static byte[][] storedKeysOf(final UserField field) {
+    if (UserField.ID.equals(field)) {
+      return new byte[][] {UserModelCodec.ID_FIELD.getBytes(StandardCharsets.UTF_8)};
+    }
+    return Arrays.stream(UserLayout.values())
+        .map(layout -> layout.keyOf(field.getName()).getBytes(StandardCharsets.UTF_8))
+        .toArray(byte[][]::new);
+  }
+
+  private record RawJsonPage(UserJsonTranscoder transcoder, List<RawBsonDocument> rows, Projection projection, String nextCursor) implements JsonPage {
+
+    @Override
+    public void writeTo(final OutputStream outputStream) throws IOException {
+      try (JsonGenerator generator = this.transcoder.jsonFactory.createGenerator(outputStream)) {
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.transcoder.write(this.rows, this.projection, generator);
+      }
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.mercadolivre.users.app.dataprovider.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import org.bson.Document;
+
+/**
+ * Field names and value types of a stored user, chosen by {@code users.storage.layout}.
+ *
+ * <p>{@link #STANDARD} is the layout of the Spring Data mapping: full field names, dates as BSON
+ * dates and a {@code _class} hint. {@link #COMPACT} uses one or two letter keys, the CPF packed as
+ * an int64, the birth date as an int32 epoch day and timestamps as int64 epoch millis, and no
+ * hint. A compact user always holds {@code v}, its version, which tells both layouts apart.
+ */
+public enum UserLayout {
+  STANDARD(Map.of()),
+  COMPACT(Map.of(
+      "name", "n",
+      "cpf", "c",
+      "email", "e",
+      "birthDate", "b",
+      "createdAt", "ca",
+      "updatedAt", "ua",
+      "version", "v"));
+
+  static final String VERSION_FIELD = "version";
+
+  private final Map<String, String> keys;
+
+  UserLayout(final Map<String, String> keys) {
+    this.keys = keys;
+  }
+
+  /**
+   * Key of a field given by its standard name, {@code _id} and unknown fields being kept as is.
+   */
+  public String keyOf(final String field) {
+    return this.keys.getOrDefault(field, field);
+  }
+
+  /**
+   * Matches the users stored in this layout, among users of both layouts.
+   */
+  public Document marker() {
+    return new Document(COMPACT.keyOf(VERSION_FIELD), new Document("$exists", COMPACT.equals(this)));
+  }
+
+  /**
+   * A value of the given field as this layout stores it.
+   */
+  public Object valueOf(final String field, final Object value, final ZoneId zone) {
+    if (value instanceof LocalDate date) {
+      return COMPACT.equals(this) ? (Object) (int) date.toEpochDay() : Date.from(date.atStartOfDay(zone).toInstant());
+    }
+    if (value instanceof LocalDateTime dateTime) {
+      final long millis = dateTime.atZone(zone).toInstant().toEpochMilli();
+      return COMPACT.equals(this) ? (Object) millis : new Date(millis);
+    }
+    if (COMPACT.equals(this) && "cpf".equals(field) && value != null) {
+      return CpfStorage.INT64.write(CpfStorage.read(value));
+    }
+    return value;
+  }
+}
@@ -1,10 +1,8 @@
 package com.mercadolivre.users.app.dataprovider.model;
 
-import com.mercadolivre.users.core.entity.BrazilianCPF;
 import com.mercadolivre.users.core.entity.User;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -13,37 +11,84 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @Getter
 @Document("users")
 @NoArgsConstructor
-@AllArgsConstructor
 @EqualsAndHashCode
 public class UserModel {
 
   private String id;
   private String name;
-  private String cpf;
+  /**
+   * Raw digits as a string or packed as an int64, see {@link CpfStorage}.
+   */
+  private Object cpf;
   private String email;
   private LocalDate birthDate;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
+  /**
+   * Incremented by every update, missing on users stored before versioning (read as {@code 0}).
+   */
+  private Long version;
+
+  public UserModel(
+      final String id,
+      final String name,
+      final Object cpf,
+      final String email,
+      final LocalDate birthDate,
+      final LocalDateTime createdAt,
+      final LocalDateTime updatedAt) {
+    this(id, name, cpf, email, birthDate, createdAt, updatedAt, null);
+  }
+
+  UserModel(
+      final String id,
+      final String name,
+      final Object cpf,
+      final String email,
+      final LocalDate birthDate,
+      final LocalDateTime createdAt,
+      final LocalDateTime updatedAt,
+      final Long version) {
+    this.id = id;
+    this.name = name;
+    this.cpf = cpf;
+    this.email = email;
+    this.birthDate = birthDate;
+    this.createdAt = createdAt;
+    this.updatedAt = updatedAt;
+    this.version = version;
+  }
 
   public UserModel(final User user) {
+    this(user, CpfStorage.STRING);
+  }
+
+  public UserModel(final User user, final CpfStorage cpfStorage) {
     this.id = user.getId();
     this.name = user.getName();
-    this.cpf = user.getCpf().getRaw();
+    this.cpf = cpfStorage.write(user.getCpf());
     this.email = user.getEmail();
     this.birthDate = user.getBirthDate();
     this.createdAt = user.getCreatedAt();
     this.updatedAt = user.getUpdatedAt();
+    this.version = user.getVersion() == null ? 0L : user.getVersion();
+  }
+
+  void setId(final String id) {
+    this.id = id;
   }
 
   public User toEntity() {
-    return new User(
+    final User user = new User(
       this.id,
       this.name,
-      new BrazilianCPF(this.cpf),
+      CpfStorage.read(this.cpf),
       this.email,
       this.birthDate,
       this.createdAt,
       this.updatedAt
     );
+    user.setVersion(this.version == null ? 0L : this.version);
+    return user;
   }
 }
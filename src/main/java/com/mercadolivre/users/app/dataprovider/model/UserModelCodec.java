@@ -0,0 +1,238 @@
+package com.mercadolivre.users.app.dataprovider.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.bson.BsonObjectId;
+import org.bson.BsonReader;
+import org.bson.BsonString;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.BsonWriter;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+/**
+ * {@link UserModel} read and written straight from the BSON stream, skipping the intermediate
+ * {@link org.bson.Document} and the reflection of the mapping converter. In the
+ * {@link UserLayout#STANDARD} layout documents are the same, byte for byte, as the ones written by
+ * Spring Data: {@code _id} as an ObjectId when it is one, the fields in declaration order without
+ * the {@code null} ones, dates at the system time zone and the {@code _class} hint last.
+ *
+ * <p>Users are written in the layout given, and read whatever layout they were stored in. Whatever
+ * the converter reads is read the same way, numbers of any width included; unknown fields are
+ * skipped.
+ */
+public class UserModelCodec implements CollectibleCodec<UserModel> {
+
+  static final String ID_FIELD = "_id";
+  static final String TYPE_FIELD = "_class";
+
+  private final UserLayout layout;
+  private final ZoneId zone;
+  private final boolean compact;
+
+  public UserModelCodec() {
+    this(UserLayout.STANDARD);
+  }
+
+  public UserModelCodec(final UserLayout layout) {
+    this(layout, ZoneId.systemDefault());
+  }
+
+  public UserModelCodec(final UserLayout layout, final ZoneId zone) {
+    this.layout = layout;
+    this.zone = zone;
+    this.compact = UserLayout.COMPACT.equals(layout);
+  }
+
+  @Override
+  public void encode(final BsonWriter writer, final UserModel model, final EncoderContext encoderContext) {
+    writer.writeStartDocument();
+    if (model.getId() != null) {
+      writer.writeName(ID_FIELD);
+      if (ObjectId.isValid(model.getId())) {
+        writer.writeObjectId(new ObjectId(model.getId()));
+      } else {
+        writer.writeString(model.getId());
+      }
+    }
+    writeString(writer, "name", model.getName());
+    writeCpf(writer, this.compact ? this.layout.valueOf("cpf", model.getCpf(), this.zone) : model.getCpf());
+    writeString(writer, "email", model.getEmail());
+    if (model.getBirthDate() != null) {
+      writer.writeName(this.layout.keyOf("birthDate"));
+      if (this.compact) {
+        writer.writeInt32((int) model.getBirthDate().toEpochDay());
+      } else {
+        writer.writeDateTime(model.getBirthDate().atStartOfDay(this.zone).toInstant().toEpochMilli());
+      }
+    }
+    writeDateTime(writer, "createdAt", model.getCreatedAt());
+    writeDateTime(writer, "updatedAt", model.getUpdatedAt());
+    if (this.compact) {
+      writer.writeInt64(this.layout.keyOf(UserLayout.VERSION_FIELD), model.getVersion() == null ? 0L : model.getVersion());
+    } else {
+      if (model.getVersion() != null) {
+        writer.writeInt64(UserLayout.VERSION_FIELD, model.getVersion());
+      }
+      writer.writeString(TYPE_FIELD, UserModel.class.getName());
+    }
+    writer.writeEndDocument();
+  }
+
+  @Override
+  public UserModel decode(final BsonReader reader, final DecoderContext decoderContext) {
+    String id = null;
+    String name = null;
+    Object cpf = null;
+    String email = null;
+    LocalDate birthDate = null;
+    LocalDateTime createdAt = null;
+    LocalDateTime updatedAt = null;
+    Long version = null;
+
+    reader.readStartDocument();
+    for (BsonType type = reader.readBsonType(); type != BsonType.END_OF_DOCUMENT; type = reader.readBsonType()) {
+      final String field = reader.readName();
+      switch (field) {
+        case ID_FIELD -> id = type == BsonType.OBJECT_ID ? reader.readObjectId().toHexString() : readString(reader, type);
+        case "name", "n" -> name = readString(reader, type);
+        case "cpf", "c" -> cpf = readCpf(reader, type);
+        case "email", "e" -> email = readString(reader, type);
+        case "birthDate", "b" -> birthDate = readDate(reader, type);
+        case "createdAt", "ca" -> createdAt = readDateTime(reader, type);
+        case "updatedAt", "ua" -> updatedAt = readDateTime(reader, type);
+        case "version", "v" -> version = readLong(reader, type);
+        default -> reader.skipValue();
+      }
+    }
+    reader.readEndDocument();
+    return new UserModel(id, name, cpf, email, birthDate, createdAt, updatedAt, version);
+  }
+
+  @Override
+  public Class<UserModel> getEncoderClass() {
+    return UserModel.class;
+  }
+
+  /**
+   * Ids are generated the way Mongo would, as ObjectIds, and kept in their hexadecimal form.
+   */
+  @Override
+  public UserModel generateIdIfAbsentFromDocument(final UserModel model) {
+    if (model.getId() == null) {
+      model.setId(new ObjectId().toHexString());
+    }
+    return model;
+  }
+
+  @Override
+  public boolean documentHasId(final UserModel model) {
+    return model.getId() != null;
+  }
+
+  @Override
+  public BsonValue getDocumentId(final UserModel model) {
+    if (model.getId() == null) {
+      throw new IllegalStateException("UserModel has no id!");
+    }
+    return ObjectId.isValid(model.getId()) ? new BsonObjectId(new ObjectId(model.getId())) : new BsonString(model.getId());
+  }
+
+  private void writeString(final BsonWriter writer, final String field, final String value) {
+    if (value != null) {
+      writer.writeString(this.layout.keyOf(field), value);
+    }
+  }
+
+  /**
+   * CPFs are raw digits or packed into an int64, see {@link CpfStorage}. Narrower numbers are
+   * only found in documents written by hand and are written back as they were read.
+   */
+  private void writeCpf(final BsonWriter writer, final Object cpf) {
+    if (cpf == null) {
+      return;
+    }
+    writer.writeName(this.layout.keyOf("cpf"));
+    if (cpf instanceof Long packed) {
+      writer.writeInt64(packed);
+    } else if (cpf instanceof Integer packed) {
+      writer.writeInt32(packed);
+    } else if (cpf instanceof Double packed) {
+      writer.writeDouble(packed);
+    } else {
+      writer.writeString(cpf.toString());
+    }
+  }
+
+  private void writeDateTime(final BsonWriter writer, final String field, final LocalDateTime value) {
+    if (value == null) {
+      return;
+    }
+    final long millis = value.atZone(this.zone).toInstant().toEpochMilli();
+    writer.writeName(this.layout.keyOf(field));
+    if (this.compact) {
+      writer.writeInt64(millis);
+    } else {
+      writer.writeDateTime(millis);
+    }
+  }
+
+  private static String readString(final BsonReader reader, final BsonType type) {
+    return type == BsonType.STRING ? reader.readString() : skip(reader);
+  }
+
+  private static Object readCpf(final BsonReader reader, final BsonType type) {
+    return switch (type) {
+      case STRING -> reader.readString();
+      case INT64 -> reader.readInt64();
+      case INT32 -> reader.readInt32();
+      case DOUBLE -> reader.readDouble();
+      default -> skip(reader);
+    };
+  }
+
+  /**
+   * A BSON date at the system time zone, or an epoch day.
+   */
+  private LocalDate readDate(final BsonReader reader, final BsonType type) {
+    return switch (type) {
+      case DATE_TIME -> Instant.ofEpochMilli(reader.readDateTime()).atZone(this.zone).toLocalDate();
+      case INT32 -> LocalDate.ofEpochDay(reader.readInt32());
+      case INT64 -> LocalDate.ofEpochDay(reader.readInt64());
+      default -> skip(reader);
+    };
+  }
+
+  /**
+   * A BSON date or epoch millis, at the system time zone.
+   */
+  private LocalDateTime readDateTime(final BsonReader reader, final BsonType type) {
+    return switch (type) {
+      case DATE_TIME -> LocalDateTime.ofInstant(Instant.ofEpochMilli(reader.readDateTime()), this.zone);
+      case INT64 -> LocalDateTime.ofInstant(Instant.ofEpochMilli(reader.readInt64()), this.zone);
+      default -> skip(reader);
+    };
+  }
+
+  private static Long readLong(final BsonReader reader, final BsonType type) {
+    return switch (type) {
+      case INT64 -> reader.readInt64();
+      case INT32 -> (long) reader.readInt32();
+      case DOUBLE -> (long) reader.readDouble();
+      default -> skip(reader);
+    };
+  }
+
+  /**
+   * Values of another type, {@code null} included, are read as absent.
+   */
+  private static <T> T skip(final BsonReader reader) {
+    reader.skipValue();
+    return null;
+  }
+}
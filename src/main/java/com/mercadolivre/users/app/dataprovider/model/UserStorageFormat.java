@@ -0,0 +1,191 @@
+package com.mercadolivre.users.app.dataprovider.model;
+
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.UserChanges;
+import com.mercadolivre.users.core.entity.UserField;
+import com.mongodb.MongoClientSettings;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * How users are stored: the {@link UserLayout} new users are written in and, while a collection is
+ * being migrated from one layout to the other, whether queries must match both layouts.
+ *
+ * <p>Queries, projections and updates are built with the standard field names and rewritten here.
+ * In dual-read mode every field condition becomes an {@code $or} over both keys, each answered by
+ * the indexes of its layout, and updates target the layout the user is stored in. Compact users
+ * hold their CPF as an int64, so reading them requires {@code users.cpf.storage=int64} for
+ * equality lookups to match both types.
+ */
+@Component
+public class UserStorageFormat {
+
+  private static final List<String> LOGICAL_OPERATORS = List.of("$or", "$and", "$nor");
+
+  private final UserLayout layout;
+  private final List<UserLayout> readLayouts;
+  private final CpfStorage cpfStorage;
+  private final ZoneId zone;
+  private final CodecRegistry codecRegistry;
+  private final UserJsonTranscoder jsonTranscoder;
+
+  public UserStorageFormat(
+      @Value("${users.storage.layout:standard}") final UserLayout layout,
+      @Value("${users.storage.dual-read:false}") final boolean dualRead,
+      @Value("${users.cpf.storage:string}") final CpfStorage cpfStorage) {
+    this.layout = layout;
+    this.readLayouts = dualRead ? List.of(layout, otherThan(layout)) : List.of(layout);
+    this.cpfStorage = cpfStorage;
+    this.zone = ZoneId.systemDefault();
+    this.codecRegistry = CodecRegistries.fromRegistries(
+        CodecRegistries.fromCodecs(new UserModelCodec(layout, this.zone)),
+        MongoClientSettings.getDefaultCodecRegistry());
+    this.jsonTranscoder = new UserJsonTranscoder(this.zone);
+    if (this.readLayouts.contains(UserLayout.COMPACT) && !CpfStorage.INT64.equals(cpfStorage)) {
+      throw new IllegalStateException("Compact users layout requires users.cpf.storage=int64!");
+    }
+  }
+
+  /**
+   * Standard layout only, as the Spring Data mapping writes it.
+   */
+  public static UserStorageFormat standard(final CpfStorage cpfStorage) {
+    return new UserStorageFormat(UserLayout.STANDARD, false, cpfStorage);
+  }
+
+  public UserLayout layout() {
+    return this.layout;
+  }
+
+  /**
+   * The layout users are written in first, then the other one in dual-read mode.
+   */
+  public List<UserLayout> readLayouts() {
+    return this.readLayouts;
+  }
+
+  public boolean isDualRead() {
+    return this.readLayouts.size() > 1;
+  }
+
+  public CpfStorage cpfStorage() {
+    return this.cpfStorage;
+  }
+
+  /**
+   * Registry encoding {@link UserModel} in the written layout.
+   */
+  public CodecRegistry codecRegistry() {
+    return this.codecRegistry;
+  }
+
+  /**
+   * Renders users of either layout as JSON, at the time zone they are read at.
+   */
+  public UserJsonTranscoder jsonTranscoder() {
+    return this.jsonTranscoder;
+  }
+
+  /**
+   * The filter with its field names in the layouts read. Values are layout agnostic, CPFs being
+   * bound to both of their types by {@link CpfStorage#bind}.
+   */
+  public Document filter(final Document query) {
+    if (isStandardOnly()) {
+      return query;
+    }
+    final Document filter = new Document();
+    final List<Document> alternatives = new ArrayList<>();
+    for (final Map.Entry<String, Object> condition : query.entrySet()) {
+      final String field = condition.getKey();
+      if (LOGICAL_OPERATORS.contains(field)) {
+        filter.append(field, ((List<?>) condition.getValue()).stream().map(clause -> filter((Document) clause)).toList());
+      } else if (!isDualRead() || field.equals(UserLayout.COMPACT.keyOf(field))) {
+        filter.append(this.layout.keyOf(field), condition.getValue());
+      } else {
+        alternatives.add(new Document("$or", this.readLayouts.stream()
+            .map(readLayout -> new Document(readLayout.keyOf(field), condition.getValue()))
+            .toList()));
+      }
+    }
+    if (alternatives.size() == 1 && filter.isEmpty()) {
+      return alternatives.get(0);
+    }
+    if (!alternatives.isEmpty()) {
+      final List<Object> and = new ArrayList<>(filter.getList("$and", Object.class, List.of()));
+      and.addAll(alternatives);
+      filter.put("$and", and);
+    }
+    return filter;
+  }
+
+  /**
+   * The projection with its field names in every layout read.
+   */
+  public Document fields(final Document projection) {
+    if (isStandardOnly()) {
+      return projection;
+    }
+    final Document fields = new Document();
+    projection.forEach((field, value) -> this.readLayouts.forEach(readLayout -> fields.append(readLayout.keyOf(field), value)));
+    return fields;
+  }
+
+  /**
+   * Matches a user stored in the given layout, at the expected version if any. Users stored before
+   * versioning have no version and match version {@code 0}.
+   */
+  public Document versioned(final Object id, final Long expectedVersion, final UserLayout storedLayout) {
+    final Document filter = new Document("_id", id);
+    if (expectedVersion != null) {
+      filter.append(storedLayout.keyOf(UserLayout.VERSION_FIELD),
+          new Document("$in", expectedVersion == 0 ? Arrays.asList(0L, null) : List.of(expectedVersion)));
+    }
+    if (isDualRead()) {
+      filter.putAll(storedLayout.marker());
+    }
+    return filter;
+  }
+
+  /**
+   * {@code $set} of the changed fields, {@code $unset} of the removed ones, a new update time and
+   * the next version, in the layout the user is stored in.
+   */
+  public Document update(final UserChanges changes, final LocalDateTime updatedAt, final UserLayout storedLayout) {
+    final Document set = new Document();
+    final Document unset = new Document();
+    changes.values().forEach((field, value) -> {
+      final String key = storedLayout.keyOf(field.getName());
+      final Object storedValue = UserField.CPF.equals(field) ? this.cpfStorage.write((BrazilianCPF) value) : value;
+      if (storedValue == null) {
+        unset.append(key, 1);
+      } else {
+        set.append(key, storedLayout.valueOf(field.getName(), storedValue, this.zone));
+      }
+    });
+    set.append(storedLayout.keyOf(UserField.UPDATED_AT.getName()), storedLayout.valueOf(UserField.UPDATED_AT.getName(), updatedAt, this.zone));
+
+    final Document update = new Document("$set", set);
+    if (!unset.isEmpty()) {
+      update.append("$unset", unset);
+    }
+    return update.append("$inc", new Document(storedLayout.keyOf(UserLayout.VERSION_FIELD), 1));
+  }
+
+  private boolean isStandardOnly() {
+    return UserLayout.STANDARD.equals(this.layout) && !isDualRead();
+  }
+
+  private static UserLayout otherThan(final UserLayout layout) {
+    return UserLayout.STANDARD.equals(layout) ? UserLayout.COMPACT : UserLayout.STANDARD;
+  }
+}
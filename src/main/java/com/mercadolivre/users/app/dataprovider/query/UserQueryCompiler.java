@@ -0,0 +1,36 @@
+package com.mercadolivre.users.app.dataprovider.query;
+
+import com.mercadolivre.users.app.dataprovider.model.CpfStorage;
+import com.mercadolivre.users.core.entity.UserFilter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserQueryCompiler {
+
+  private final Map<UserQueryShape, UserQueryPlan> plans = new ConcurrentHashMap<>();
+  private final CpfStorage cpfStorage;
+
+  public UserQueryCompiler(@Value("${users.cpf.storage:string}") final CpfStorage cpfStorage) {
+    this.cpfStorage = cpfStorage;
+  }
+
+  public Query compile(final UserFilter filter) {
+    final UserQueryPlan plan = planFor(filter);
+    final Query query = new BasicQuery(plan.bind(filter));
+    plan.collation().ifPresent(query::collation);
+    return query;
+  }
+
+  public UserQueryPlan planFor(final UserFilter filter) {
+    return this.plans.computeIfAbsent(UserQueryShape.of(filter), shape -> new UserQueryPlan(shape, this.cpfStorage));
+  }
+
+  int cachedPlans() {
+    return this.plans.size();
+  }
+}
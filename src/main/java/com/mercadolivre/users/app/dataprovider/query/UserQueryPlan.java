@@ -0,0 +1,308 @@
+package com.mercadolivre.users.app.dataprovider.query;
+
+import com.mercadolivre.users.app.dataprovider.model.CpfStorage;
+import com.mercadolivre.users.core.entity.LogicalOperator;
+import com.mercadolivre.users.core.entity.SearchType;
+import com.mercadolivre.users.core.entity.UserFilter;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Collation.ComparisonLevel;
+
+/**
+ * Query template compiled once per {@link UserQueryShape}. Binding only reads the populated values
+ * from the filter and places them into a freshly allocated {@link Document}.
+ *
+ * <p>{@link SearchType#LIKE} is a case-insensitive prefix match bound as a range over the
+ * {@link #CASE_INSENSITIVE} collation indexes, and {@link SearchType#CONTAINS} is a word match on
+ * the text index of name and email. Shapes and patterns that could only be answered by a
+ * collection scan are rejected.
+ */
+public class UserQueryPlan {
+
+  public static final Collation CASE_INSENSITIVE = Collation.of("en").strength(ComparisonLevel.secondary());
+  static final int MIN_PATTERN_LENGTH = 2;
+  private static final String MAX_COLLATION_ELEMENT = "\uffff";
+
+  private final UserSearchField[] fields;
+  private final boolean disjunction;
+  private final SearchType type;
+  private final Collation collation;
+  private final CpfStorage cpfStorage;
+
+  UserQueryPlan(final UserQueryShape shape, final CpfStorage cpfStorage) {
+    this.cpfStorage = cpfStorage;
+    this.fields = Arrays.stream(UserSearchField.values())
+        .filter(shape::contains)
+        .toArray(UserSearchField[]::new);
+    this.disjunction = LogicalOperator.OR.equals(shape.operator()) && this.fields.length > 0;
+    this.type = Optional.ofNullable(shape.type()).orElse(SearchType.EQUALS);
+    validate(shape);
+    this.collation = SearchType.LIKE.equals(this.type) && (shape.contains(UserSearchField.NAME) || shape.contains(UserSearchField.EMAIL))
+        ? CASE_INSENSITIVE
+        : null;
+  }
+
+  public Optional<Collation> collation() {
+    return Optional.ofNullable(this.collation);
+  }
+
+  public Document bind(final UserFilter filter) {
+    final boolean normalize = Boolean.TRUE.equals(filter.getNormalize());
+
+    if (SearchType.CONTAINS.equals(this.type) && this.fields.length > 0) {
+      return bindText(filter, normalize);
+    }
+
+    if (this.disjunction) {
+      final List<Document> clauses = new ArrayList<>(this.fields.length);
+      for (final UserSearchField field : this.fields) {
+        clauses.add(new Document(field.getMongoField(), matcherOf(field, field.valueOf(filter), normalize)));
+      }
+      return new Document("$or", clauses);
+    }
+
+    final Document document = new Document();
+    for (final UserSearchField field : this.fields) {
+      document.append(field.getMongoField(), matcherOf(field, field.valueOf(filter), normalize));
+    }
+    return document;
+  }
+
+  /**
+   * The filter as it is bound: values normalized and stripped of their wildcards, the operator
+   * only kept when it combines several fields or builds a text search. Filters with the same
+   * canonical form select the same users.
+   */
+  public UserFilter canonical(final UserFilter filter) {
+    final boolean normalize = Boolean.TRUE.equals(filter.getNormalize());
+    final String[] values = new String[UserSearchField.values().length];
+    for (final UserSearchField field : this.fields) {
+      values[field.ordinal()] = boundValueOf(field, field.valueOf(filter), normalize);
+    }
+    return UserFilter.builder()
+        .operator(this.fields.length > 1 || SearchType.CONTAINS.equals(this.type) ? filter.getOperator() : LogicalOperator.AND)
+        .type(this.type)
+        .normalize(false)
+        .cpf(values[UserSearchField.CPF.ordinal()])
+        .name(values[UserSearchField.NAME.ordinal()])
+        .email(values[UserSearchField.EMAIL.ordinal()])
+        .build();
+  }
+
+  /**
+   * Whether a user holding these values could be returned for the filter. Fields missing from the
+   * map are unknown and could match anything, a {@code null} value is a field the user does not
+   * have. Case-insensitive prefixes are compared without case and accents, which is wider than the
+   * collation of the index on those, but letters the collation takes as equal to others, such as
+   * {@code æ} and {@code ae}, are not: such a match is then missed.
+   */
+  public boolean couldMatch(final UserFilter filter, final Map<UserSearchField, String> values) {
+    return matcherFor(filter).test(values);
+  }
+
+  /**
+   * {@link #couldMatch} with the values of the filter bound, and its patterns compiled, once.
+   */
+  public Predicate<Map<UserSearchField, String>> matcherFor(final UserFilter filter) {
+    final boolean normalize = Boolean.TRUE.equals(filter.getNormalize());
+    final Map<UserSearchField, Predicate<String>> matchers = new EnumMap<>(UserSearchField.class);
+    for (final UserSearchField field : this.fields) {
+      matchers.put(field, matcherOf(field, boundValueOf(field, field.valueOf(filter), normalize)));
+    }
+    return values -> {
+      for (final Map.Entry<UserSearchField, Predicate<String>> matcher : matchers.entrySet()) {
+        final boolean matches = !values.containsKey(matcher.getKey()) || matcher.getValue().test(values.get(matcher.getKey()));
+        if (matches == this.disjunction) {
+          return matches;
+        }
+      }
+      return !this.disjunction;
+    };
+  }
+
+  private Predicate<String> matcherOf(final UserSearchField field, final String boundValue) {
+    final Predicate<String> matcher = switch (this.type) {
+      case EQUALS -> boundValue::equals;
+      case LIKE -> {
+        if (UserSearchField.CPF.equals(field)) {
+          yield value -> value.startsWith(boundValue);
+        }
+        final String prefix = folded(boundValue);
+        yield value -> folded(value).startsWith(prefix);
+      }
+      case CONTAINS -> {
+        final Pattern pattern = Pattern.compile(Pattern.quote(boundValue), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        yield value -> pattern.matcher(value).find();
+      }
+    };
+    return value -> value != null && matcher.test(value);
+  }
+
+  private String boundValueOf(final UserSearchField field, final String rawValue, final boolean normalize) {
+    return switch (this.type) {
+      case EQUALS -> normalized(rawValue, normalize);
+      case LIKE -> normalized(prefixOf(rawValue), normalize);
+      case CONTAINS -> normalized(termOf(rawValue), normalize);
+    };
+  }
+
+  /**
+   * Lower case without accents nor the characters a collation ignores.
+   */
+  private static String folded(final String value) {
+    final String decomposed = Normalizer.normalize(value, Normalizer.Form.NFKD);
+    final StringBuilder folded = new StringBuilder(decomposed.length());
+    for (int i = 0; i < decomposed.length(); i++) {
+      final char character = decomposed.charAt(i);
+      final int type = Character.getType(character);
+      if (type != Character.NON_SPACING_MARK && type != Character.COMBINING_SPACING_MARK && type != Character.ENCLOSING_MARK
+          && type != Character.FORMAT && type != Character.CONTROL) {
+        folded.append(character);
+      }
+    }
+    return folded.toString().toLowerCase(Locale.ROOT).replace("ß", "ss");
+  }
+
+  private void validate(final UserQueryShape shape) {
+    if (SearchType.CONTAINS.equals(this.type) && shape.contains(UserSearchField.CPF)) {
+      throw new IllegalArgumentException("Search type CONTAINS is only supported on name and email!");
+    }
+    if (SearchType.LIKE.equals(this.type) && this.disjunction && shape.contains(UserSearchField.CPF) && this.fields.length > 1) {
+      throw new IllegalArgumentException("Search type LIKE cannot combine cpf with name or email using OR!");
+    }
+  }
+
+  private Object matcherOf(final UserSearchField field, final String rawValue, final boolean normalize) {
+    final boolean cpf = UserSearchField.CPF.equals(field);
+    if (!SearchType.LIKE.equals(this.type)) {
+      final String value = normalized(rawValue, normalize);
+      return cpf ? this.cpfStorage.bind(value) : value;
+    }
+    final String prefix = normalized(prefixOf(rawValue), normalize);
+    final Document numericRange = cpf ? this.cpfStorage.prefixRange(prefix) : null;
+    return numericRange != null
+        ? numericRange
+        : new Document("$gte", prefix).append("$lt", prefix + MAX_COLLATION_ELEMENT);
+  }
+
+  /**
+   * A single {@code $text} stage narrows the candidates through the index, then every field keeps a
+   * case-insensitive literal regex so that a term only matches the field it was given for.
+   */
+  private Document bindText(final UserFilter filter, final boolean normalize) {
+    final StringBuilder search = new StringBuilder();
+    final List<Document> residuals = new ArrayList<>(this.fields.length);
+    for (final UserSearchField field : this.fields) {
+      final String term = normalized(termOf(field.valueOf(filter)), normalize);
+      appendSearch(search, term);
+      residuals.add(new Document(field.getMongoField(), new Document("$regex", Pattern.quote(term)).append("$options", "i")));
+    }
+
+    final Document document = new Document("$text", new Document("$search", search.toString()));
+    if (this.disjunction) {
+      return document.append("$or", residuals);
+    }
+    residuals.forEach(document::putAll);
+    return document;
+  }
+
+  /**
+   * Quoted phrases are all required by {@code $search} while bare words match any of them, which
+   * mirrors AND and OR respectively.
+   */
+  private void appendSearch(final StringBuilder search, final String term) {
+    final String sanitized = term.replace("\"", " ").strip();
+    if (!this.disjunction) {
+      search.append(search.isEmpty() ? "" : " ").append('"').append(sanitized).append('"');
+      return;
+    }
+    for (final String word : sanitized.split("\\s+")) {
+      final String bareWord = word.replaceFirst("^-+", "");
+      if (!bareWord.isEmpty()) {
+        search.append(search.isEmpty() ? "" : " ").append(bareWord);
+      }
+    }
+  }
+
+  private static String normalized(final String rawValue, final boolean normalize) {
+    return normalize && looksLikeCPF(rawValue) ? stripCPFSeparators(rawValue) : rawValue;
+  }
+
+  /**
+   * LIKE patterns may end with {@code *} or {@code %}, anything else would need an unanchored scan.
+   */
+  static String prefixOf(final String pattern) {
+    int end = pattern.length();
+    while (end > 0 && isWildcard(pattern.charAt(end - 1))) end--;
+    return requireLiteral(pattern, pattern.substring(0, end));
+  }
+
+  /**
+   * CONTAINS terms are unanchored already, so surrounding wildcards are dropped.
+   */
+  static String termOf(final String pattern) {
+    int start = 0;
+    int end = pattern.length();
+    while (start < end && isWildcard(pattern.charAt(start))) start++;
+    while (end > start && isWildcard(pattern.charAt(end - 1))) end--;
+    return requireLiteral(pattern, pattern.substring(start, end));
+  }
+
+  private static String requireLiteral(final String pattern, final String literal) {
+    for (int i = 0; i < literal.length(); i++) {
+      if (isWildcard(literal.charAt(i))) {
+        throw new IllegalArgumentException(String.format("Pattern %s must not have leading or inner wildcards!", pattern));
+      }
+    }
+    if (literal.strip().length() < MIN_PATTERN_LENGTH) {
+      throw new IllegalArgumentException(String.format("Pattern %s must have at least %d characters!", pattern, MIN_PATTERN_LENGTH));
+    }
+    return literal;
+  }
+
+  /**
+   * Same language as {@code ^(\d+\.*)+\-*\d*$}: a digit followed by digits and dots, then dashes,
+   * then digits. Scanned by hand to avoid the backtracking of the nested quantifiers.
+   */
+  static boolean looksLikeCPF(final String value) {
+    final int length = value.length();
+    if (length == 0 || !isDigit(value.charAt(0))) {
+      return false;
+    }
+
+    int index = 1;
+    while (index < length && (isDigit(value.charAt(index)) || value.charAt(index) == '.')) index++;
+    while (index < length && value.charAt(index) == '-') index++;
+    while (index < length && isDigit(value.charAt(index))) index++;
+    return index == length;
+  }
+
+  private static String stripCPFSeparators(final String value) {
+    final StringBuilder digits = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      final char character = value.charAt(i);
+      if (character != '.' && character != '-') {
+        digits.append(character);
+      }
+    }
+    return digits.toString();
+  }
+
+  private static boolean isWildcard(final char character) {
+    return character == '*' || character == '%';
+  }
+
+  private static boolean isDigit(final char character) {
+    return character >= '0' && character <= '9';
+  }
+}
@@ -0,0 +1,26 @@
+package com.mercadolivre.users.app.dataprovider.query;
+
+import com.mercadolivre.users.core.entity.LogicalOperator;
+import com.mercadolivre.users.core.entity.SearchType;
+import com.mercadolivre.users.core.entity.UserFilter;
+
+/**
+ * Identifies a family of filters that only differ by their values: which fields are populated,
+ * how they are combined and how they are matched.
+ */
+public record UserQueryShape(int fields, LogicalOperator operator, SearchType type) {
+
+  public static UserQueryShape of(final UserFilter filter) {
+    int fields = 0;
+    for (final UserSearchField field : UserSearchField.values()) {
+      if (field.valueOf(filter) != null) {
+        fields |= field.mask();
+      }
+    }
+    return new UserQueryShape(fields, filter.getOperator(), filter.getType());
+  }
+
+  public boolean contains(final UserSearchField field) {
+    return (this.fields & field.mask()) != 0;
+  }
+}
@@ -0,0 +1,28 @@
+package com.mercadolivre.users.app.dataprovider.query;
+
+import com.mercadolivre.users.core.entity.UserFilter;
+import java.util.function.Function;
+import lombok.Getter;
+
+@Getter
+public enum UserSearchField {
+  CPF("cpf", UserFilter::getCpf),
+  NAME("name", UserFilter::getName),
+  EMAIL("email", UserFilter::getEmail);
+
+  private final String mongoField;
+  private final Function<UserFilter, String> accessor;
+
+  UserSearchField(final String mongoField, final Function<UserFilter, String> accessor) {
+    this.mongoField = mongoField;
+    this.accessor = accessor;
+  }
+
+  public int mask() {
+    return 1 << ordinal();
+  }
+
+  public String valueOf(final UserFilter filter) {
+    return this.accessor.apply(filter);
+  }
+}
@@ -0,0 +1,406 @@
+package com.mercadolivre.users.app.entrypoint;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * JSON of whole users as served by {@code GET /users/{id}}, keyed by id and version, so a hit
+ * skips mapping, formatting and Jackson and is copied straight to the response. Bytes live in
+ * direct buffers outside the heap, and the index is made of primitive arrays, so millions of
+ * entries add neither objects for the GC to trace nor garbage per request.
+ *
+ * <p>The cache is split in segments by id, each one a ring of fixed size slabs written in order:
+ * when the ring wraps, the oldest slab is emptied and its entries leave the index. Memory is thus
+ * bounded by {@code users.rendered-cache.max-size}, slabs being allocated as they are first needed.
+ * An entry is only served for the version it was rendered at, and the ones updated here are also
+ * invalidated. Versions are looked up through the cache of users by id, so an update from another
+ * instance is served stale for as long as that cache holds the user, up to
+ * {@code users.cache.expire-after-write}, as the user itself would be. Ids that are not ObjectIds
+ * are not cached.
+ */
+@Component
+@Profile("!reactive")
+public class RenderedUserCache implements MeterBinder {
+
+  static final String CACHE_NAME = "users.rendered";
+  private static final int SEGMENTS = 16;
+  private static final int MAX_ENTRY_SIZE = 16 * 1024;
+  private static final int OBJECT_ID_LENGTH = 24;
+
+  private final Segment[] segments;
+  private final int maxEntrySize;
+  private final ThreadLocal<byte[]> copyBuffers;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public RenderedUserCache(
+      @Value("${users.rendered-cache.max-size:64MB}") final DataSize maxSize,
+      @Value("${users.rendered-cache.slab-size:256KB}") final DataSize slabSize) {
+    if (slabSize.toBytes() <= Segment.HEADER_SIZE || slabSize.toBytes() > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(String.format("Rendered user cache slab size %s must be between %d bytes and 2GB!", slabSize, Segment.HEADER_SIZE));
+    }
+    final int slabsPerSegment = (int) Math.min(Integer.MAX_VALUE, maxSize.toBytes() / SEGMENTS / slabSize.toBytes());
+    this.segments = new Segment[slabsPerSegment > 0 ? SEGMENTS : 0];
+    for (int i = 0; i < this.segments.length; i++) {
+      this.segments[i] = new Segment(slabsPerSegment, (int) slabSize.toBytes());
+    }
+    this.maxEntrySize = (int) Math.min(MAX_ENTRY_SIZE, slabSize.toBytes() - Segment.HEADER_SIZE);
+    this.copyBuffers = ThreadLocal.withInitial(() -> new byte[this.maxEntrySize]);
+  }
+
+  /**
+   * Whether users with this id can be cached at all.
+   */
+  boolean accepts(final String id) {
+    return this.segments.length > 0 && isObjectId(id);
+  }
+
+  /**
+   * Whether some version of the user is cached, worth looking its current version up for.
+   */
+  boolean contains(final String id) {
+    if (!accepts(id)) {
+      return false;
+    }
+    final long high = highOf(id);
+    final int low = lowOf(id);
+    return segmentOf(high, low).contains(high, low);
+  }
+
+  /**
+   * Writes the cached JSON of this version of the user, with its ETag, to the response.
+   *
+   * @return whether it was cached, the response being left untouched otherwise
+   */
+  boolean writeTo(final String id, final long version, final String eTag, final HttpServletResponse response) throws IOException {
+    if (!accepts(id)) {
+      return false;
+    }
+    final long high = highOf(id);
+    final int low = lowOf(id);
+    final byte[] buffer = this.copyBuffers.get();
+    final int length = segmentOf(high, low).read(high, low, version, buffer);
+    if (length < 0) {
+      this.misses.increment();
+      return false;
+    }
+    this.hits.increment();
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setHeader(HttpHeaders.ETAG, eTag);
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setContentLength(length);
+    response.getOutputStream().write(buffer, 0, length);
+    return true;
+  }
+
+  void put(final String id, final Long version, final byte[] json) {
+    if (version == null || json.length > this.maxEntrySize || !accepts(id)) {
+      return;
+    }
+    final long high = highOf(id);
+    final int low = lowOf(id);
+    segmentOf(high, low).write(high, low, version, json);
+  }
+
+  public void invalidate(final String id) {
+    if (accepts(id)) {
+      final long high = highOf(id);
+      final int low = lowOf(id);
+      segmentOf(high, low).remove(high, low);
+    }
+  }
+
+  long size() {
+    return Arrays.stream(this.segments).mapToLong(Segment::size).sum();
+  }
+
+  long memoryInBytes() {
+    return Arrays.stream(this.segments).mapToLong(Segment::memoryInBytes).sum();
+  }
+
+  long evictions() {
+    return Arrays.stream(this.segments).mapToLong(Segment::evictions).sum();
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    FunctionCounter.builder("cache.gets", this.hits, LongAdder::sum)
+        .tags("cache", CACHE_NAME, "result", "hit")
+        .register(registry);
+    FunctionCounter.builder("cache.gets", this.misses, LongAdder::sum)
+        .tags("cache", CACHE_NAME, "result", "miss")
+        .register(registry);
+    FunctionCounter.builder("cache.evictions", this, RenderedUserCache::evictions)
+        .tags("cache", CACHE_NAME)
+        .register(registry);
+    Gauge.builder("cache.size", this, RenderedUserCache::size)
+        .tags("cache", CACHE_NAME)
+        .register(registry);
+    Gauge.builder("users.rendered-cache.memory", this, RenderedUserCache::memoryInBytes)
+        .baseUnit("bytes")
+        .register(registry);
+  }
+
+  private Segment segmentOf(final long high, final int low) {
+    return this.segments[(int) ((hash(high, low) >>> 32) & (SEGMENTS - 1))];
+  }
+
+  private static long hash(final long high, final int low) {
+    long hash = high * 0x9E3779B97F4A7C15L ^ low;
+    hash ^= hash >>> 29;
+    hash *= 0xBF58476D1CE4E5B9L;
+    return hash ^ hash >>> 32;
+  }
+
+  private static boolean isObjectId(final String id) {
+    if (id == null || id.length() != OBJECT_ID_LENGTH) {
+      return false;
+    }
+    for (int i = 0; i < OBJECT_ID_LENGTH; i++) {
+      final char character = id.charAt(i);
+      if (!(character >= '0' && character <= '9' || character >= 'a' && character <= 'f' || character >= 'A' && character <= 'F')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long highOf(final String objectId) {
+    return Long.parseUnsignedLong(objectId, 0, 16, 16);
+  }
+
+  private static int lowOf(final String objectId) {
+    return Integer.parseUnsignedInt(objectId, 16, OBJECT_ID_LENGTH, 16);
+  }
+
+  /**
+   * A ring of slabs holding entries laid out as {@code [length, id high, id low, version, json]},
+   * and an open addressing index from id to the version and location of its latest entry.
+   * Locations pack the slab number in their high half and the offset in the low one.
+   */
+  private static final class Segment {
+
+    private static final int HEADER_SIZE = 24;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long EMPTY = -1;
+
+    private final StampedLock lock = new StampedLock();
+    private final ByteBuffer[] slabs;
+    private final int slabSize;
+    private int writeSlab;
+    private int writeOffset;
+    private long evictions;
+
+    private long[] highs = new long[INITIAL_CAPACITY];
+    private int[] lows = new int[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    private long[] locations = newLocations(INITIAL_CAPACITY);
+    private int size;
+
+    private Segment(final int slabs, final int slabSize) {
+      this.slabs = new ByteBuffer[slabs];
+      this.slabSize = slabSize;
+      this.writeSlab = slabs - 1;
+      this.writeOffset = slabSize;
+    }
+
+    private boolean contains(final long high, final int low) {
+      final long stamp = this.lock.readLock();
+      try {
+        return this.locations[slotOf(high, low)] != EMPTY;
+      } finally {
+        this.lock.unlockRead(stamp);
+      }
+    }
+
+    private int read(final long high, final int low, final long version, final byte[] target) {
+      final long stamp = this.lock.readLock();
+      try {
+        final int slot = slotOf(high, low);
+        if (this.locations[slot] == EMPTY || this.versions[slot] != version) {
+          return -1;
+        }
+        final ByteBuffer slab = this.slabs[(int) (this.locations[slot] >>> 32)];
+        final int offset = (int) this.locations[slot];
+        final int length = slab.getInt(offset);
+        slab.get(offset + HEADER_SIZE, target, 0, length);
+        return length;
+      } finally {
+        this.lock.unlockRead(stamp);
+      }
+    }
+
+    private void write(final long high, final int low, final long version, final byte[] json) {
+      final long stamp = this.lock.writeLock();
+      try {
+        if (this.writeOffset + HEADER_SIZE + json.length > this.slabSize) {
+          nextSlab();
+        }
+        final ByteBuffer slab = this.slabs[this.writeSlab];
+        slab.putInt(this.writeOffset, json.length)
+            .putLong(this.writeOffset + 4, high)
+            .putInt(this.writeOffset + 12, low)
+            .putLong(this.writeOffset + 16, version)
+            .put(this.writeOffset + HEADER_SIZE, json);
+
+        final int slot = slotOf(high, low);
+        if (this.locations[slot] == EMPTY) {
+          this.highs[slot] = high;
+          this.lows[slot] = low;
+          this.size++;
+        }
+        this.versions[slot] = version;
+        this.locations[slot] = (long) this.writeSlab << 32 | this.writeOffset;
+        this.writeOffset += HEADER_SIZE + json.length;
+        if (this.size * 2 > this.locations.length) {
+          resize();
+        }
+      } finally {
+        this.lock.unlockWrite(stamp);
+      }
+    }
+
+    private void remove(final long high, final int low) {
+      final long stamp = this.lock.writeLock();
+      try {
+        final int slot = slotOf(high, low);
+        if (this.locations[slot] != EMPTY) {
+          removeSlot(slot);
+        }
+      } finally {
+        this.lock.unlockWrite(stamp);
+      }
+    }
+
+    /**
+     * Closes the current slab with a zero length and moves to the next one, dropping from the
+     * index whatever entry still pointed to it.
+     */
+    private void nextSlab() {
+      if (this.writeOffset + 4 <= this.slabSize) {
+        this.slabs[this.writeSlab].putInt(this.writeOffset, 0);
+      }
+      this.writeSlab = (this.writeSlab + 1) % this.slabs.length;
+      this.writeOffset = 0;
+      final ByteBuffer slab = this.slabs[this.writeSlab];
+      if (slab == null) {
+        this.slabs[this.writeSlab] = ByteBuffer.allocateDirect(this.slabSize);
+        return;
+      }
+      for (int offset = 0; offset + HEADER_SIZE <= this.slabSize; ) {
+        final int length = slab.getInt(offset);
+        if (length == 0) {
+          break;
+        }
+        final int slot = slotOf(slab.getLong(offset + 4), slab.getInt(offset + 12));
+        if (this.locations[slot] == ((long) this.writeSlab << 32 | offset)) {
+          removeSlot(slot);
+          this.evictions++;
+        }
+        offset += HEADER_SIZE + length;
+      }
+    }
+
+    /**
+     * Linear probing: the slot holding the id, or the empty one ending its probe sequence.
+     */
+    private int slotOf(final long high, final int low) {
+      final int mask = this.locations.length - 1;
+      int slot = (int) hash(high, low) & mask;
+      while (this.locations[slot] != EMPTY && (this.highs[slot] != high || this.lows[slot] != low)) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    /**
+     * Backward shift deletion: following entries of the probe sequence are moved up so that no
+     * tombstone is needed.
+     */
+    private void removeSlot(final int removed) {
+      final int mask = this.locations.length - 1;
+      int hole = removed;
+      for (int slot = (hole + 1) & mask; this.locations[slot] != EMPTY; slot = (slot + 1) & mask) {
+        final int home = (int) hash(this.highs[slot], this.lows[slot]) & mask;
+        if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+          this.highs[hole] = this.highs[slot];
+          this.lows[hole] = this.lows[slot];
+          this.versions[hole] = this.versions[slot];
+          this.locations[hole] = this.locations[slot];
+          hole = slot;
+        }
+      }
+      this.locations[hole] = EMPTY;
+      this.size--;
+    }
+
+    private void resize() {
+      final long[] oldHighs = this.highs;
+      final int[] oldLows = this.lows;
+      final long[] oldVersions = this.versions;
+      final long[] oldLocations = this.locations;
+      final int capacity = oldLocations.length * 2;
+      this.highs = new long[capacity];
+      this.lows = new int[capacity];
+      this.versions = new long[capacity];
+      this.locations = newLocations(capacity);
+      for (int i = 0; i < oldLocations.length; i++) {
+        if (oldLocations[i] != EMPTY) {
+          final int slot = slotOf(oldHighs[i], oldLows[i]);
+          this.highs[slot] = oldHighs[i];
+          this.lows[slot] = oldLows[i];
+          this.versions[slot] = oldVersions[i];
+          this.locations[slot] = oldLocations[i];
+        }
+      }
+    }
+
+    private long size() {
+      final long stamp = this.lock.readLock();
+      try {
+        return this.size;
+      } finally {
+        this.lock.unlockRead(stamp);
+      }
+    }
+
+    private long memoryInBytes() {
+      final long stamp = this.lock.readLock();
+      try {
+        return (long) Arrays.stream(this.slabs).filter(slab -> slab != null).count() * this.slabSize
+            + this.locations.length * (Long.BYTES * 3L + Integer.BYTES);
+      } finally {
+        this.lock.unlockRead(stamp);
+      }
+    }
+
+    private long evictions() {
+      final long stamp = this.lock.readLock();
+      try {
+        return this.evictions;
+      } finally {
+        this.lock.unlockRead(stamp);
+      }
+    }
+
+    private static long[] newLocations(final int capacity) {
+      final long[] locations = new long[capacity];
+      Arrays.fill(locations, EMPTY);
+      return locations;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.mercadolivre.users.app.entrypoint;
+
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.UserField;
+
+/**
+ * Strong ETag of a user representation, {@code "<version>"} for every field and
+ * {@code "<version>.<fields>"} for a projection, {@code <fields>} being the hex mask of the
+ * projected fields. Two representations only share an ETag when they are byte-identical.
+ */
+final class UserETag {
+
+  private static final String ANY = "*";
+  private static final String WEAK_PREFIX = "W/";
+
+  private UserETag() {
+  }
+
+  static String of(final Long version, final Projection projection) {
+    final long userVersion = version == null ? 0 : version;
+    if (projection.isAll()) {
+      return "\"" + userVersion + "\"";
+    }
+    int mask = 0;
+    for (final UserField field : projection.fields()) {
+      mask |= 1 << field.ordinal();
+    }
+    return "\"" + userVersion + "." + Integer.toHexString(mask) + "\"";
+  }
+
+  /**
+   * Weak comparison of {@code If-None-Match}: any listed tag, weak or not, or {@code *}.
+   */
+  static boolean matchesAny(final String ifNoneMatch, final String etag) {
+    for (final String candidate : ifNoneMatch.split(",")) {
+      final String tag = candidate.strip();
+      if (ANY.equals(tag) || etag.equals(tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Version required by {@code If-Match}, null when absent or {@code *}. Only a single strong ETag
+   * of this API can be compared, whatever its projection.
+   */
+  static Long versionOf(final String ifMatch) {
+    if (ifMatch == null || ANY.equals(ifMatch.strip())) {
+      return null;
+    }
+    final String tag = ifMatch.strip();
+    if (tag.length() > 2 && tag.charAt(0) == '"' && tag.charAt(tag.length() - 1) == '"') {
+      final String value = tag.substring(1, tag.length() - 1);
+      final int projectionStart = value.indexOf('.');
+      final String version = projectionStart < 0 ? value : value.substring(0, projectionStart);
+      if (!version.isEmpty() && version.chars().allMatch(Character::isDigit) && version.length() < 19) {
+        return Long.parseLong(version);
+      }
+    }
+    throw new IllegalArgumentException(String.format("If-Match %s must be * or a single strong ETag of the user!", ifMatch));
+  }
+}
@@ -0,0 +1,140 @@
+package com.mercadolivre.users.app.entrypoint;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jsonpatch.JsonPatch;
+import com.mercadolivre.users.app.entrypoint.dto.UserRegistrationDTO;
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.Message;
+import com.mercadolivre.users.core.entity.UserChanges;
+import com.mercadolivre.users.core.entity.UserField;
+import com.mercadolivre.users.core.exception.VersionConflictException;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JSON Patch on a user, compiled into {@link UserChanges} when every operation is a
+ * {@code replace}, {@code add} or {@code remove} of a distinct registration field with a textual
+ * value. Anything else ({@code move}, {@code copy}, {@code test}, unknown paths, a field touched
+ * twice...) leaves {@code changes} empty and goes through the read-modify-write of
+ * {@link #remainder}. A {@code test} of {@code /version} is always taken out of the patch and
+ * becomes the expected version of the update.
+ */
+record UserPatch(UserChanges changes, Long expectedVersion, JsonPatch remainder) {
+
+  static final String VERSION_PATH = "/version";
+
+  private static final Map<String, UserField> PATCHABLE_FIELDS = Map.of(
+      "/name", UserField.NAME,
+      "/cpf", UserField.CPF,
+      "/email", UserField.EMAIL,
+      "/birthDate", UserField.BIRTH_DATE);
+  private static final Set<String> COMPILABLE_OPERATIONS = Set.of("replace", "add", "remove");
+
+  boolean isCompiled() {
+    return this.changes != null;
+  }
+
+  /**
+   * Adds a version the user must still be at, e.g. from {@code If-Match}. A patch already testing
+   * another version can never apply.
+   */
+  UserPatch expecting(final Long version) {
+    if (version == null || version.equals(this.expectedVersion)) {
+      return this;
+    }
+    if (this.expectedVersion != null) {
+      throw new VersionConflictException(
+          Message.REGISTRATION_ERROR_VERSION_CONFLICT.getCode(),
+          Message.REGISTRATION_ERROR_VERSION_CONFLICT.getMessage());
+    }
+    final UserChanges versionedChanges = isCompiled() ? new UserChanges(this.changes.values(), version) : null;
+    return new UserPatch(versionedChanges, version, this.remainder);
+  }
+
+  static UserPatch of(final ObjectMapper mapper, final JsonPatch patch) {
+    final ArrayNode remainder = mapper.createArrayNode();
+    final ObjectNode values = mapper.createObjectNode();
+    final Set<UserField> touchedFields = new HashSet<>();
+    final Set<UserField> removedFields = new HashSet<>();
+    Long expectedVersion = null;
+    boolean compilable = true;
+
+    for (final JsonNode operation : mapper.<JsonNode>valueToTree(patch)) {
+      final String op = operation.path("op").asText();
+      final String path = operation.path("path").asText();
+      if ("test".equals(op) && VERSION_PATH.equals(path)) {
+        expectedVersion = versionOf(operation.path("value"), expectedVersion);
+        continue;
+      }
+
+      remainder.add(operation);
+      final UserField field = PATCHABLE_FIELDS.get(path);
+      if (field == null || !COMPILABLE_OPERATIONS.contains(op) || !touchedFields.add(field)) {
+        compilable = false;
+      } else if ("remove".equals(op)) {
+        removedFields.add(field);
+      } else if (operation.path("value").isTextual()) {
+        values.set(field.getName(), operation.get("value"));
+      } else {
+        compilable = false;
+      }
+    }
+
+    final JsonPatch remainderPatch = toPatch(remainder);
+    if (!compilable) {
+      return new UserPatch(null, expectedVersion, remainderPatch);
+    }
+    return new UserPatch(new UserChanges(changesOf(mapper, values, removedFields), expectedVersion), expectedVersion, remainderPatch);
+  }
+
+  /**
+   * Values are read through {@link UserRegistrationDTO} so that they are parsed exactly as in the
+   * read-modify-write path, birth date format included.
+   */
+  private static Map<UserField, Object> changesOf(final ObjectMapper mapper, final ObjectNode values, final Set<UserField> removedFields) {
+    final UserRegistrationDTO typedValues;
+    try {
+      typedValues = mapper.treeToValue(values, UserRegistrationDTO.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(e);
+    }
+
+    final Map<UserField, Object> changes = new EnumMap<>(UserField.class);
+    values.fieldNames().forEachRemaining(name -> {
+      final UserField field = UserField.fromName(name);
+      changes.put(field, switch (field) {
+        case NAME -> typedValues.getName();
+        case CPF -> new BrazilianCPF(typedValues.getCpf());
+        case EMAIL -> typedValues.getEmail();
+        default -> typedValues.getBirthDate();
+      });
+    });
+    removedFields.forEach(field -> changes.put(field, null));
+    return changes;
+  }
+
+  private static Long versionOf(final JsonNode value, final Long previousVersion) {
+    if (!value.canConvertToExactIntegral() || !value.canConvertToLong() || value.asLong() < 0) {
+      throw new IllegalArgumentException(String.format("Patch must test %s against a non negative integer!", VERSION_PATH));
+    }
+    if (previousVersion != null && previousVersion != value.asLong()) {
+      throw new IllegalArgumentException(String.format("Patch tests %s against different versions!", VERSION_PATH));
+    }
+    return value.asLong();
+  }
+
+  private static JsonPatch toPatch(final ArrayNode operations) {
+    try {
+      return JsonPatch.fromJson(operations);
+    } catch (IOException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+}
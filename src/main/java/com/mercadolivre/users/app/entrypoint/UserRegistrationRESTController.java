@@ -5,41 +5,66 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jsonpatch.JsonPatch;
 import com.github.fge.jsonpatch.JsonPatchException;
+import com.mercadolivre.users.app.entrypoint.dto.RegistrationResultDTO;
 import com.mercadolivre.users.app.entrypoint.dto.UserRegistrationDTO;
+import com.mercadolivre.users.core.entity.RegistrationResult;
 import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserChanges;
 import com.mercadolivre.users.core.usecase.AccountRegistration;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @Tag(name = "Users")
 @Slf4j
+@Profile("!reactive")
 @RestController
 @RequestMapping("/users")
 public class UserRegistrationRESTController {
 
-  private final AccountRegistration<User> userRegistration;
+  private static final String INVALID_FIELDS = "INVALID_FIELDS";
+
+  private final AccountRegistration<User, UserChanges> userRegistration;
   private final ObjectMapper mapper;
+  private final Validator validator;
+  private final RenderedUserCache renderedUsers;
 
-  public UserRegistrationRESTController(final AccountRegistration<User> userRegistration, final ObjectMapper mapper) {
+  public UserRegistrationRESTController(
+      final AccountRegistration<User, UserChanges> userRegistration,
+      final ObjectMapper mapper,
+      final Validator validator,
+      final RenderedUserCache renderedUsers) {
     this.userRegistration = userRegistration;
     this.mapper = mapper;
+    this.validator = validator;
+    this.renderedUsers = renderedUsers;
   }
 
   @Operation(summary = "Create a new user")
@@ -76,6 +101,50 @@ public class UserRegistrationRESTController {
     return ResponseEntity.created(location).build();
   }
 
+  @Operation(summary = "Create users in batch")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Batch has been processed, one result per user in the same order"),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Batch is larger than allowed"),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Server could not process for internal reasons")
+      })
+  @PostMapping("/batch")
+  public ResponseEntity<List<RegistrationResultDTO>> createBatch(
+      @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(examples =
+      @ExampleObject(value ="[{\n"
+      + "  \"name\": \"Josh\",\n"
+      + "  \"cpf\": \"130.877.567-92\",\n"
+      + "  \"email\": \"josh@something.com\",\n"
+      + "  \"birthDate\": \"20/01/1990\"\n"
+      + "}]"))) @RequestBody final List<UserRegistrationDTO> users) {
+    final RegistrationResult[] results = new RegistrationResult[users.size()];
+    final List<Integer> validIndexes = new ArrayList<>(users.size());
+    final List<User> validUsers = new ArrayList<>(users.size());
+    for (int index = 0; index < users.size(); index++) {
+      final UserRegistrationDTO user = users.get(index);
+      final String violations = violationsOf(user);
+      if (violations.isEmpty()) {
+        validIndexes.add(index);
+        validUsers.add(user.toUserEntity());
+      } else {
+        results[index] = RegistrationResult.failed(INVALID_FIELDS, violations);
+      }
+    }
+
+    final List<RegistrationResult> registered = this.userRegistration.createAll(validUsers);
+    for (int i = 0; i < validIndexes.size(); i++) {
+      results[validIndexes.get(i)] = registered.get(i);
+    }
+
+    return ResponseEntity.ok(IntStream.range(0, results.length)
+        .mapToObj(index -> new RegistrationResultDTO(index, results[index]))
+        .collect(Collectors.toList()));
+  }
+
   @Operation(summary = "Update an existing user (partial)")
   @ApiResponses(
       value = {
@@ -83,22 +152,47 @@ public class UserRegistrationRESTController {
         @ApiResponse(
             responseCode = "400",
             description = "Invalid fields. Also it validates user's age, email and CPF"),
+        @ApiResponse(
+            responseCode = "412",
+            description = "User is no longer at the version given in If-Match or tested by the patch on /version"),
         @ApiResponse(
             responseCode = "500",
             description = "Server could not process for internal reasons")
       })
   @PatchMapping(value = "/{id}", consumes = "application/json-patch+json")
   public ResponseEntity<Void> partialUpdate(@PathVariable final String id, @io.swagger.v3.oas.annotations.parameters.RequestBody(
-      content = @Content(examples = @ExampleObject(value = "[{\"op\":\"replace\",\"path\":\"/birthDate\",\"value\":\"25/12/1991\"}]\n"))) @RequestBody final JsonPatch patch) {
+      content = @Content(examples = @ExampleObject(value = "[{\"op\":\"replace\",\"path\":\"/birthDate\",\"value\":\"25/12/1991\"}]\n"))) @RequestBody final JsonPatch patch,
+      @Parameter(description = "ETag of the user the patch was made against") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch) {
+    final UserPatch userPatch = UserPatch.of(this.mapper, patch).expecting(UserETag.versionOf(ifMatch));
+    if (userPatch.isCompiled()) {
+      this.userRegistration.update(id, userPatch.changes());
+      this.renderedUsers.invalidate(id);
+      return ResponseEntity.noContent().build();
+    }
+
     final User existingUser = this.userRegistration.findById(id);
-    final UserRegistrationDTO userChanges = applyPatch(patch, new UserRegistrationDTO(existingUser));
+    final UserRegistrationDTO userChanges = applyPatch(this.mapper, userPatch.remainder(), new UserRegistrationDTO(existingUser));
+    final User patchedUser = userChanges.toUserEntity(existingUser.getId(), existingUser.getCreatedAt(), LocalDateTime.now());
+    patchedUser.setVersion(userPatch.expectedVersion() != null ? userPatch.expectedVersion() : existingUser.getVersion());
 
-    this.userRegistration.update(userChanges.toUserEntity(existingUser.getId(), existingUser.getCreatedAt(), LocalDateTime.now()));
+    this.userRegistration.update(patchedUser);
+    this.renderedUsers.invalidate(id);
 
     return ResponseEntity.noContent().build();
   }
 
-  private UserRegistrationDTO applyPatch(final JsonPatch patch, final UserRegistrationDTO target) {
+  private String violationsOf(final UserRegistrationDTO user) {
+    if (user == null) {
+      return "user must not be null";
+    }
+    final Set<ConstraintViolation<UserRegistrationDTO>> violations = this.validator.validate(user);
+    return violations.stream()
+        .map(violation -> String.format("%s %s", violation.getPropertyPath(), violation.getMessage()))
+        .sorted()
+        .collect(Collectors.joining(", "));
+  }
+
+  static UserRegistrationDTO applyPatch(final ObjectMapper mapper, final JsonPatch patch, final UserRegistrationDTO target) {
     try {
       final JsonNode patched = patch.apply(mapper.convertValue(target, JsonNode.class));
       return mapper.treeToValue(patched, UserRegistrationDTO.class);
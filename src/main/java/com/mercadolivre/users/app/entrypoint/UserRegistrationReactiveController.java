@@ -0,0 +1,62 @@
+package com.mercadolivre.users.app.entrypoint;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonpatch.JsonPatch;
+import com.mercadolivre.users.app.entrypoint.dto.UserRegistrationDTO;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.usecase.ReactiveAccountRegistration;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import java.time.LocalDateTime;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+@Tag(name = "Users")
+@Profile("reactive")
+@RestController
+@RequestMapping("/users")
+public class UserRegistrationReactiveController {
+
+  private final ReactiveAccountRegistration<User> userRegistration;
+  private final ObjectMapper mapper;
+
+  public UserRegistrationReactiveController(final ReactiveAccountRegistration<User> userRegistration, final ObjectMapper mapper) {
+    this.userRegistration = userRegistration;
+    this.mapper = mapper;
+  }
+
+  @Operation(summary = "Create a new user")
+  @PostMapping
+  public Mono<ResponseEntity<Void>> create(@RequestBody @Valid final UserRegistrationDTO user, final ServerHttpRequest request) {
+    return this.userRegistration.create(user.toUserEntity())
+        .map(id -> ResponseEntity.created(UriComponentsBuilder.fromUri(request.getURI())
+                .path("/{id}")
+                .buildAndExpand(id)
+                .toUri())
+            .build());
+  }
+
+  @Operation(summary = "Update an existing user (partial)")
+  @PatchMapping(value = "/{id}", consumes = "application/json-patch+json")
+  public Mono<ResponseEntity<Void>> partialUpdate(@PathVariable final String id, @RequestBody final JsonPatch patch) {
+    final UserPatch userPatch = UserPatch.of(this.mapper, patch);
+    return this.userRegistration.findById(id)
+        .flatMap(existingUser -> {
+          final UserRegistrationDTO userChanges = UserRegistrationRESTController.applyPatch(this.mapper, userPatch.remainder(), new UserRegistrationDTO(existingUser));
+          final User patchedUser = userChanges.toUserEntity(existingUser.getId(), existingUser.getCreatedAt(), LocalDateTime.now());
+          patchedUser.setVersion(userPatch.expectedVersion() != null ? userPatch.expectedVersion() : existingUser.getVersion());
+          return this.userRegistration.update(patchedUser);
+        })
+        .then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+  }
+}
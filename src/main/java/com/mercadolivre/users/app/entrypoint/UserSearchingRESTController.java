@@ -1,7 +1,16 @@
 package com.mercadolivre.users.app.entrypoint;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mercadolivre.users.app.entrypoint.dto.UserLookupRequestDTO;
+import com.mercadolivre.users.app.entrypoint.dto.UserLookupResponseDTO;
 import com.mercadolivre.users.app.entrypoint.dto.UserResponseDTO;
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.JsonPage;
+import com.mercadolivre.users.core.entity.Projection;
 import com.mercadolivre.users.core.entity.User;
 import com.mercadolivre.users.core.entity.UserFilter;
 import com.mercadolivre.users.core.usecase.AccountSearchEngine;
@@ -13,48 +22,203 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @Tag(name = "Users")
+@Profile("!reactive")
 @RestController
 @RequestMapping("/users")
 public class UserSearchingRESTController {
 
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  static final String FIELDS_DESCRIPTION = "Comma separated fields to return (id, name, cpf, email, birthDate, createdAt, updatedAt). Every field when absent";
+  private static final Set<String> NON_FILTER_PARAMS = Set.of("limit", "cursor", "fields");
+  private static final int STREAM_FLUSH_SIZE = 500;
+
   private final AccountSearchEngine<User, UserFilter> userSearching;
+  private final ObjectMapper mapper;
+  private final ObjectWriter userWriter;
+  private final RenderedUserCache renderedUsers;
+  private final boolean rawJson;
 
-  public UserSearchingRESTController(final AccountSearchEngine<User, UserFilter> userSearching) {
+  public UserSearchingRESTController(
+      final AccountSearchEngine<User, UserFilter> userSearching,
+      final ObjectMapper mapper,
+      final RenderedUserCache renderedUsers,
+      @Value("${users.search.raw-json:false}") final boolean rawJson) {
     this.userSearching = userSearching;
+    this.mapper = mapper;
+    this.renderedUsers = renderedUsers;
+    this.rawJson = rawJson;
+    this.userWriter = mapper.writerFor(UserResponseDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
   }
 
   @Operation(summary = "Get a user by its id")
   @ApiResponses(value = {
-      @ApiResponse(responseCode = "200", description = "Found the user", content = { @Content(mediaType = "application/json", schema = @Schema(implementation = UserResponseDTO.class)) }),
+      @ApiResponse(responseCode = "200", description = "Found the user, its ETag changes on every update", content = { @Content(mediaType = "application/json", schema = @Schema(implementation = UserResponseDTO.class)) }),
+      @ApiResponse(responseCode = "304", description = "User has not changed since the ETag given in If-None-Match", content = @Content),
       @ApiResponse(responseCode = "400", description = "Invalid id supplied", content = @Content),
   })
   @GetMapping("/{id}")
-  public ResponseEntity<UserResponseDTO> getSingleUser(@PathVariable final String id) {
-    return ResponseEntity.ok(new UserResponseDTO(this.userSearching.findById(id)));
+  public ResponseEntity<?> getSingleUser(
+      @PathVariable final String id,
+      @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) final String fields,
+      @Parameter(description = "ETags of the user already held by the client") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+      final HttpServletResponse response) throws IOException {
+    final Projection projection = Projection.of(fields);
+    final boolean renderable = projection.isAll() && this.renderedUsers.accepts(id);
+    if (ifNoneMatch != null || renderable && this.renderedUsers.contains(id)) {
+      final long version = this.userSearching.findVersion(id);
+      final String currentETag = UserETag.of(version, projection);
+      if (ifNoneMatch != null && UserETag.matchesAny(ifNoneMatch, currentETag)) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag).build();
+      }
+      if (renderable && this.renderedUsers.writeTo(id, version, currentETag, response)) {
+        return null;
+      }
+    }
+    final User user = this.userSearching.findById(id, projection);
+    final ResponseEntity.BodyBuilder ok = ResponseEntity.ok().eTag(UserETag.of(user.getVersion(), projection));
+    if (!renderable) {
+      return ok.body(new UserResponseDTO(user, projection));
+    }
+    final byte[] json = this.userWriter.writeValueAsBytes(new UserResponseDTO(user, projection));
+    this.renderedUsers.put(id, user.getVersion(), json);
+    return ok.contentType(MediaType.APPLICATION_JSON).body(json);
+  }
+
+  @Operation(summary = "Get users by their ids")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Found users in the requested order, ids that do not exist are listed as missing", content = { @Content(mediaType = "application/json", schema = @Schema(implementation = UserLookupResponseDTO.class)) }),
+      @ApiResponse(responseCode = "400", description = "Too many ids supplied", content = @Content)
+  })
+  @GetMapping(params = "ids")
+  public ResponseEntity<UserLookupResponseDTO> getUsersByIds(
+      @Parameter(description = "Comma separated user ids") @RequestParam final List<String> ids,
+      @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) final String fields) {
+    final Projection projection = Projection.of(fields);
+    return ResponseEntity.ok(new UserLookupResponseDTO(this.userSearching.findAllById(ids, projection), projection));
+  }
+
+  @Operation(summary = "Get users by their ids, for lists too long for a query string")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Found users in the requested order, ids that do not exist are listed as missing", content = { @Content(mediaType = "application/json", schema = @Schema(implementation = UserLookupResponseDTO.class)) }),
+      @ApiResponse(responseCode = "400", description = "No ids or too many ids supplied", content = @Content)
+  })
+  @PostMapping("/lookup")
+  public ResponseEntity<UserLookupResponseDTO> lookupUsers(
+      @RequestBody @Valid final UserLookupRequestDTO lookup,
+      @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) final String fields) {
+    final Projection projection = Projection.of(fields);
+    return ResponseEntity.ok(new UserLookupResponseDTO(this.userSearching.findAllById(lookup.getIds(), projection), projection));
   }
 
   @Operation(summary = "Get users by filters")
   @ApiResponses(value = {
-      @ApiResponse(responseCode = "200", description = "Found users", content = { @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = UserResponseDTO.class))) }),
+      @ApiResponse(responseCode = "200", description = "Found users. When there are more results, the X-Next-Cursor header holds the cursor of the next page", content = { @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = UserResponseDTO.class))) }),
       @ApiResponse(responseCode = "400", description = "Invalid filter supplied", content = @Content),
       @ApiResponse(responseCode = "404", description = "User not found", content = @Content)
   })
   @GetMapping
-  public ResponseEntity<List<UserResponseDTO>> getUsers(@Parameter(description = "The filter for retrieve users", required = true, schema = @Schema(implementation = UserFilter.class)) @RequestParam final Map<String, String> filter) {
-    return ResponseEntity.ok(
-        userSearching.searchBy(new UserFilter(filter)).stream()
-            .map(UserResponseDTO::new)
+  public ResponseEntity<?> getUsers(
+      @Parameter(description = "Maximum number of users per page (1-" + CursorPageRequest.MAX_LIMIT + ")") @RequestParam(required = false) final Integer limit,
+      @Parameter(description = "Opaque cursor returned by the previous page") @RequestParam(required = false) final String cursor,
+      @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) final String fields,
+      @Parameter(description = "The filter for retrieve users", required = true, schema = @Schema(implementation = UserFilter.class)) @RequestParam final Map<String, String> filter,
+      final HttpServletResponse response) throws IOException {
+    final Projection projection = Projection.of(fields);
+    final UserFilter userFilter = new UserFilter(filterParams(filter));
+    if (this.rawJson) {
+      final JsonPage page = this.userSearching.searchJsonBy(userFilter, CursorPageRequest.of(limit, cursor), projection);
+      nextPageHeaders(page.nextCursor()).forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+      response.setStatus(HttpServletResponse.SC_OK);
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      page.writeTo(response.getOutputStream());
+      return null;
+    }
+    final CursorPage<User> page = userSearching.searchBy(userFilter, CursorPageRequest.of(limit, cursor), projection);
+
+    return ResponseEntity.ok()
+        .headers(nextPageHeaders(page.nextCursor()))
+        .body(page.items().stream()
+            .map(user -> new UserResponseDTO(user, projection))
             .collect(Collectors.toList()));
   }
+
+  private static HttpHeaders nextPageHeaders(final String nextCursor) {
+    final HttpHeaders headers = new HttpHeaders();
+    if (nextCursor != null) {
+      headers.add(NEXT_CURSOR_HEADER, nextCursor);
+      headers.add(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", ServletUriComponentsBuilder.fromCurrentRequest()
+          .replaceQueryParam("cursor", nextCursor)
+          .toUriString()));
+    }
+    return headers;
+  }
+
+  @Operation(summary = "Stream every user matching the filters as newline delimited JSON")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "One user per line", content = { @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = UserResponseDTO.class)) }),
+      @ApiResponse(responseCode = "400", description = "Invalid filter supplied", content = @Content)
+  })
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamUsers(
+      @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) final String fields,
+      @Parameter(description = "The filter for retrieve users", required = true, schema = @Schema(implementation = UserFilter.class)) @RequestParam final Map<String, String> filter) {
+    final UserFilter userFilter = new UserFilter(filterParams(filter));
+    final Projection projection = Projection.of(fields);
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(outputStream -> writeAsNdjson(userFilter, projection, outputStream));
+  }
+
+  private void writeAsNdjson(final UserFilter filter, final Projection projection, final OutputStream outputStream) throws IOException {
+    try (Stream<User> users = this.userSearching.streamBy(filter, projection);
+        JsonGenerator generator = this.mapper.getFactory().createGenerator(outputStream)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.setRootValueSeparator(null);
+
+      int pending = 0;
+      for (final Iterator<User> iterator = users.iterator(); iterator.hasNext(); ) {
+        this.userWriter.writeValue(generator, new UserResponseDTO(iterator.next(), projection));
+        generator.writeRaw('\n');
+        if (++pending == STREAM_FLUSH_SIZE) {
+          generator.flush();
+          pending = 0;
+        }
+      }
+    }
+  }
+
+  static Map<String, String> filterParams(final Map<String, String> params) {
+    return params.entrySet().stream()
+        .filter(param -> !NON_FILTER_PARAMS.contains(param.getKey()))
+        .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
+  }
 }
@@ -0,0 +1,117 @@
+package com.mercadolivre.users.app.entrypoint;
+
+import static com.mercadolivre.users.app.entrypoint.UserSearchingRESTController.FIELDS_DESCRIPTION;
+import static com.mercadolivre.users.app.entrypoint.UserSearchingRESTController.NEXT_CURSOR_HEADER;
+
+import com.mercadolivre.users.app.entrypoint.dto.UserLookupRequestDTO;
+import com.mercadolivre.users.app.entrypoint.dto.UserLookupResponseDTO;
+import com.mercadolivre.users.app.entrypoint.dto.UserResponseDTO;
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserFilter;
+import com.mercadolivre.users.core.usecase.ReactiveAccountSearchEngine;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Tag(name = "Users")
+@Profile("reactive")
+@RestController
+@RequestMapping("/users")
+public class UserSearchingReactiveController {
+
+  private final ReactiveAccountSearchEngine<User, UserFilter> userSearching;
+
+  public UserSearchingReactiveController(final ReactiveAccountSearchEngine<User, UserFilter> userSearching) {
+    this.userSearching = userSearching;
+  }
+
+  @Operation(summary = "Get a user by its id")
+  @GetMapping("/{id}")
+  public Mono<UserResponseDTO> getSingleUser(
+      @PathVariable final String id,
+      @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) final String fields) {
+    final Projection projection = Projection.of(fields);
+    return this.userSearching.findById(id, projection)
+        .map(user -> new UserResponseDTO(user, projection));
+  }
+
+  @Operation(summary = "Get users by their ids")
+  @GetMapping(params = "ids")
+  public Mono<UserLookupResponseDTO> getUsersByIds(
+      @Parameter(description = "Comma separated user ids") @RequestParam final List<String> ids,
+      @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) final String fields) {
+    final Projection projection = Projection.of(fields);
+    return this.userSearching.findAllById(ids, projection)
+        .map(lookup -> new UserLookupResponseDTO(lookup, projection));
+  }
+
+  @Operation(summary = "Get users by their ids, for lists too long for a query string")
+  @PostMapping("/lookup")
+  public Mono<UserLookupResponseDTO> lookupUsers(
+      @RequestBody @Valid final UserLookupRequestDTO lookup,
+      @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) final String fields) {
+    final Projection projection = Projection.of(fields);
+    return this.userSearching.findAllById(lookup.getIds(), projection)
+        .map(result -> new UserLookupResponseDTO(result, projection));
+  }
+
+  @Operation(summary = "Get users by filters")
+  @GetMapping
+  public Mono<ResponseEntity<List<UserResponseDTO>>> getUsers(
+      @RequestParam(required = false) final Integer limit,
+      @RequestParam(required = false) final String cursor,
+      @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) final String fields,
+      @RequestParam final Map<String, String> filter,
+      final ServerHttpRequest request) {
+    final Projection projection = Projection.of(fields);
+    return this.userSearching.searchBy(new UserFilter(UserSearchingRESTController.filterParams(filter)), CursorPageRequest.of(limit, cursor), projection)
+        .map(page -> ResponseEntity.ok()
+            .headers(nextPageHeaders(page, request))
+            .body(page.items().stream()
+                .map(user -> new UserResponseDTO(user, projection))
+                .collect(Collectors.toList())));
+  }
+
+  @Operation(summary = "Stream every user matching the filters as newline delimited JSON")
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<UserResponseDTO> streamUsers(
+      @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) final String fields,
+      @RequestParam final Map<String, String> filter) {
+    final Projection projection = Projection.of(fields);
+    return this.userSearching.streamBy(new UserFilter(UserSearchingRESTController.filterParams(filter)), projection)
+        .map(user -> new UserResponseDTO(user, projection));
+  }
+
+  private HttpHeaders nextPageHeaders(final CursorPage<User> page, final ServerHttpRequest request) {
+    final HttpHeaders headers = new HttpHeaders();
+    if (page.hasNext()) {
+      headers.add(NEXT_CURSOR_HEADER, page.nextCursor());
+      headers.add(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", UriComponentsBuilder.fromUri(request.getURI())
+          .replaceQueryParam("cursor", page.nextCursor())
+          .toUriString()));
+    }
+    return headers;
+  }
+}
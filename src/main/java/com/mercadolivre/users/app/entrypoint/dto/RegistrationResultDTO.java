@@ -0,0 +1,27 @@
+package com.mercadolivre.users.app.entrypoint.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.mercadolivre.users.core.entity.RegistrationResult;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Getter
+@EqualsAndHashCode
+@JsonInclude(Include.NON_NULL)
+public class RegistrationResultDTO {
+
+  private final int index;
+  private final boolean created;
+  private final String id;
+  private final String code;
+  private final String message;
+
+  public RegistrationResultDTO(final int index, final RegistrationResult result) {
+    this.index = index;
+    this.created = result.isCreated();
+    this.id = result.id();
+    this.code = result.code();
+    this.message = result.message();
+  }
+}
@@ -0,0 +1,20 @@
+package com.mercadolivre.users.app.entrypoint.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@EqualsAndHashCode
+@NoArgsConstructor
+public class UserLookupRequestDTO {
+
+  @NotEmpty
+  private List<String> ids;
+
+  public UserLookupRequestDTO(final List<String> ids) {
+    this.ids = ids;
+  }
+}
@@ -0,0 +1,24 @@
+package com.mercadolivre.users.app.entrypoint.dto;
+
+import com.mercadolivre.users.core.entity.IdLookup;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.User;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Getter
+@EqualsAndHashCode
+public class UserLookupResponseDTO {
+
+  private final List<UserResponseDTO> users;
+  private final List<String> missingIds;
+
+  public UserLookupResponseDTO(final IdLookup<User> lookup, final Projection projection) {
+    this.users = lookup.items().stream()
+        .map(user -> new UserResponseDTO(user, projection))
+        .collect(Collectors.toList());
+    this.missingIds = lookup.missingIds();
+  }
+}
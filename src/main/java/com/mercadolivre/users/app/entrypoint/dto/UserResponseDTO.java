@@ -3,7 +3,9 @@ package com.mercadolivre.users.app.entrypoint.dto;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.mercadolivre.users.core.entity.Projection;
 import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserField;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import lombok.EqualsAndHashCode;
@@ -28,13 +30,17 @@ public class UserResponseDTO {
   private LocalDateTime updatedAt;
 
   public UserResponseDTO(final User userModel) {
-    this.id = userModel.getId();
-    this.name = userModel.getName();
-    this.cpf = userModel.getCpf().getFormatted();
-    this.email = userModel.getEmail();
-    this.birthDate = userModel.getBirthDate();
-    this.createdAt = userModel.getCreatedAt();
-    this.updatedAt = userModel.getUpdatedAt();
+    this(userModel, Projection.ALL);
+  }
+
+  public UserResponseDTO(final User userModel, final Projection projection) {
+    this.id = projection.includes(UserField.ID) ? userModel.getId() : null;
+    this.name = projection.includes(UserField.NAME) ? userModel.getName() : null;
+    this.cpf = projection.includes(UserField.CPF) && userModel.getCpf() != null ? userModel.getCpf().getFormatted() : null;
+    this.email = projection.includes(UserField.EMAIL) ? userModel.getEmail() : null;
+    this.birthDate = projection.includes(UserField.BIRTH_DATE) ? userModel.getBirthDate() : null;
+    this.createdAt = projection.includes(UserField.CREATED_AT) ? userModel.getCreatedAt() : null;
+    this.updatedAt = projection.includes(UserField.UPDATED_AT) ? userModel.getUpdatedAt() : null;
   }
 
 }
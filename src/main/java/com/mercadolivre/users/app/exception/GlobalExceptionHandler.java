@@ -3,8 +3,10 @@ package com.mercadolivre.users.app.exception;
 import com.mercadolivre.users.core.exception.AgeBelowException;
 import com.mercadolivre.users.core.exception.AlreadyExistsException;
 import com.mercadolivre.users.core.exception.NotFoundException;
+import com.mercadolivre.users.core.exception.VersionConflictException;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -13,6 +15,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 @Slf4j
+@Profile("!reactive")
 @RestControllerAdvice
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
@@ -48,6 +51,14 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorDTO);
     }
 
+    @ExceptionHandler(VersionConflictException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ResponseEntity<APIErrorDTO> handleVersionConflictException(final VersionConflictException e) {
+        logger.error(e.getMessage(), e);
+        final APIErrorDTO errorDTO = getErrorMessageFromException(e.getCode(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorDTO);
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ResponseEntity<APIErrorDTO> handleIllegalStateException(final IllegalStateException e) {
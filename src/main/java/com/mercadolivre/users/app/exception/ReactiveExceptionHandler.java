@@ -0,0 +1,63 @@
+package com.mercadolivre.users.app.exception;
+
+import com.mercadolivre.users.core.exception.AgeBelowException;
+import com.mercadolivre.users.core.exception.AlreadyExistsException;
+import com.mercadolivre.users.core.exception.NotFoundException;
+import com.mercadolivre.users.core.exception.VersionConflictException;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Same error contract as {@link GlobalExceptionHandler} for the WebFlux controllers.
+ */
+@Slf4j
+@Profile("reactive")
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(AgeBelowException.class)
+    public ResponseEntity<APIErrorDTO> handleAgeBelowException(final AgeBelowException e) {
+        log.error(e.getMessage(), e);
+        return ResponseEntity.badRequest().body(getErrorMessageFromException(e.getCode(), e.getMessage()));
+    }
+
+    @ExceptionHandler(AlreadyExistsException.class)
+    public ResponseEntity<APIErrorDTO> handleAlreadyExistsException(final AlreadyExistsException e) {
+        log.error(e.getMessage(), e);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(getErrorMessageFromException(e.getCode(), e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<APIErrorDTO> handleIllegalArgumentException(final IllegalArgumentException e) {
+        log.error(e.getMessage(), e);
+        return ResponseEntity.badRequest().body(getErrorMessageFromException("INVALID_FIELDS", e.getMessage()));
+    }
+
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<APIErrorDTO> handleNotFoundException(final NotFoundException e) {
+        log.error(e.getMessage(), e);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(getErrorMessageFromException(e.getCode(), e.getMessage()));
+    }
+
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<APIErrorDTO> handleVersionConflictException(final VersionConflictException e) {
+        log.error(e.getMessage(), e);
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(getErrorMessageFromException(e.getCode(), e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<APIErrorDTO> handleIllegalStateException(final IllegalStateException e) {
+        log.error(e.getMessage(), e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(getErrorMessageFromException("INVALID_APPLICATION_STATE", e.getMessage()));
+    }
+
+    private APIErrorDTO getErrorMessageFromException(final String code, final String message) {
+        return new APIErrorDTO(code, Map.of("en", message));
+    }
+
+}
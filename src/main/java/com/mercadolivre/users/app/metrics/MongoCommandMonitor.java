@@ -0,0 +1,321 @@
+package com.mercadolivre.users.app.metrics;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonDocument;
+import org.bson.BsonReader;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listens to every command of the Mongo clients, on top of the latency already timed by
+ * {@code mongodb.driver.commands}. It records documents returned and reply bytes, logs commands
+ * slower than {@code users.mongo.slow-command-threshold} with their shape (see
+ * {@link MongoCommandShape}) and explains each new query shape once, in the background, flagging
+ * the ones planned as a collection scan.
+ */
+@Slf4j
+@Component
+public class MongoCommandMonitor implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+  static final String DOCUMENTS_SUMMARY = "users.mongo.documents";
+  static final String REPLY_BYTES_SUMMARY = "users.mongo.reply.bytes";
+  static final String SLOW_COMMANDS_COUNTER = "users.mongo.slow.commands";
+  static final String COLLSCAN_COUNTER = "users.mongo.collscan.executions";
+  static final String COLLSCAN_SHAPES_GAUGE = "users.mongo.collscan.shapes";
+  static final String COLLSCAN_STAGE = "COLLSCAN";
+
+  private static final int EXPLAIN_QUEUE_SIZE = 100;
+
+  private final MeterRegistry meterRegistry;
+  private final UnaryOperator<BsonDocument> explainer;
+  private final ExecutorService explainExecutor;
+  private final long slowThresholdNanos;
+  private final int maxShapes;
+  private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+  private final Map<Integer, ShapeStats> inFlight = new ConcurrentHashMap<>();
+  private final Map<String, CommandMeters> commandMeters = new ConcurrentHashMap<>();
+
+  public MongoCommandMonitor(
+      final MeterRegistry meterRegistry,
+      final ObjectProvider<MongoTemplate> mongoTemplate,
+      @Value("${users.mongo.slow-command-threshold:100ms}") final Duration slowThreshold,
+      @Value("${users.mongo.max-shapes:500}") final int maxShapes) {
+    this(meterRegistry, command -> mongoTemplate.getObject().getDb().runCommand(command, BsonDocument.class),
+        explainExecutor(), slowThreshold, maxShapes);
+  }
+
+  MongoCommandMonitor(
+      final MeterRegistry meterRegistry,
+      final UnaryOperator<BsonDocument> explainer,
+      final ExecutorService explainExecutor,
+      final Duration slowThreshold,
+      final int maxShapes) {
+    this.meterRegistry = meterRegistry;
+    this.explainer = explainer;
+    this.explainExecutor = explainExecutor;
+    this.slowThresholdNanos = slowThreshold.toNanos();
+    this.maxShapes = maxShapes;
+
+    Gauge.builder("users.mongo.shapes", this.shapes, Map::size)
+        .description("Distinct query shapes seen")
+        .register(meterRegistry);
+    Gauge.builder(COLLSCAN_SHAPES_GAUGE, this, monitor -> monitor.shapes.values().stream().filter(ShapeStats::isCollectionScan).count())
+        .description("Query shapes planned as a collection scan")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void customize(final MongoClientSettings.Builder settings) {
+    settings.addCommandListener(this);
+  }
+
+  /**
+   * The command is only readable during this call, its shape and, for a new shape, a copy to
+   * explain are taken right away.
+   */
+  @Override
+  public void commandStarted(final CommandStartedEvent event) {
+    if (!MongoCommandShape.QUERY_COMMANDS.contains(event.getCommandName())) {
+      return;
+    }
+    final BsonDocument command = event.getCommand();
+    final String shape = MongoCommandShape.of(command);
+    ShapeStats stats = this.shapes.get(shape);
+    if (stats == null && this.shapes.size() < this.maxShapes) {
+      final ShapeStats newStats = new ShapeStats(shape);
+      stats = this.shapes.computeIfAbsent(shape, ignored -> newStats);
+      if (stats == newStats) {
+        explain(stats, MongoCommandShape.explainable(command.clone()));
+      }
+    }
+    if (stats != null) {
+      this.inFlight.put(event.getRequestId(), stats);
+    }
+  }
+
+  @Override
+  public void commandSucceeded(final CommandSucceededEvent event) {
+    final ShapeStats stats = this.inFlight.remove(event.getRequestId());
+    final CommandMeters meters = metersOf(event.getCommandName());
+    final BsonDocument response = event.getResponse();
+    final long documents = documentsOf(response);
+    final long replyBytes = sizeOf(response);
+    meters.documents.record(documents);
+    meters.replyBytes.record(replyBytes);
+
+    final long elapsedNanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+    final boolean slow = elapsedNanos >= this.slowThresholdNanos;
+    if (slow) {
+      meters.slowCommands.increment();
+      log.warn("Slow Mongo {} took {} ms, returning {} documents in {} bytes: {}", event.getCommandName(),
+          TimeUnit.NANOSECONDS.toMillis(elapsedNanos), documents, replyBytes, stats == null ? "(shape not tracked)" : stats.shape);
+    }
+    if (stats != null) {
+      stats.record(elapsedNanos, slow);
+      if (stats.isCollectionScan()) {
+        meters.collectionScans.increment();
+      }
+    }
+  }
+
+  @Override
+  public void commandFailed(final CommandFailedEvent event) {
+    this.inFlight.remove(event.getRequestId());
+  }
+
+  Collection<ShapeStats> shapes() {
+    return this.shapes.values();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    this.explainExecutor.shutdownNow();
+  }
+
+  private void explain(final ShapeStats stats, final BsonDocument command) {
+    try {
+      this.explainExecutor.execute(() -> {
+        try {
+          final BsonDocument explanation = this.explainer.apply(
+              new BsonDocument("explain", command).append("verbosity", new BsonString("queryPlanner")));
+          stats.plan = planOf(explanation);
+          if (stats.isCollectionScan()) {
+            log.warn("Mongo query shape is planned as a collection scan: {}", stats.shape);
+          }
+        } catch (RuntimeException e) {
+          stats.plan = "explain failed: " + e.getMessage();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      log.debug("Explain queue is full, shape {} will not be explained", stats.shape);
+    }
+  }
+
+  private CommandMeters metersOf(final String commandName) {
+    return this.commandMeters.computeIfAbsent(commandName, name -> new CommandMeters(
+        DistributionSummary.builder(DOCUMENTS_SUMMARY).tag("command", name).register(this.meterRegistry),
+        DistributionSummary.builder(REPLY_BYTES_SUMMARY).baseUnit("bytes").tag("command", name).register(this.meterRegistry),
+        Counter.builder(SLOW_COMMANDS_COUNTER).tag("command", name).register(this.meterRegistry),
+        Counter.builder(COLLSCAN_COUNTER).tag("command", name).register(this.meterRegistry)));
+  }
+
+  /**
+   * Stages of the winning plan, outermost first, e.g. {@code FETCH > IXSCAN(ux_users_cpf)}.
+   */
+  static String planOf(final BsonDocument explanation) {
+    final BsonDocument winningPlan = findWinningPlan(explanation);
+    if (winningPlan == null) {
+      return "unknown";
+    }
+    final StringBuilder plan = new StringBuilder();
+    appendStages(winningPlan.containsKey("queryPlan") ? winningPlan.getDocument("queryPlan") : winningPlan, plan);
+    return plan.toString();
+  }
+
+  private static BsonDocument findWinningPlan(final BsonValue value) {
+    if (value.isDocument()) {
+      final BsonDocument document = value.asDocument();
+      if (document.isDocument("winningPlan")) {
+        return document.getDocument("winningPlan");
+      }
+      for (final BsonValue fieldValue : document.values()) {
+        final BsonDocument found = findWinningPlan(fieldValue);
+        if (found != null) {
+          return found;
+        }
+      }
+    } else if (value.isArray()) {
+      for (final BsonValue element : value.asArray()) {
+        final BsonDocument found = findWinningPlan(element);
+        if (found != null) {
+          return found;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static void appendStages(final BsonDocument stage, final StringBuilder plan) {
+    if (!plan.isEmpty()) {
+      plan.append(" > ");
+    }
+    plan.append(stage.getString("stage", new BsonString("?")).getValue());
+    if (stage.isString("indexName")) {
+      plan.append('(').append(stage.getString("indexName").getValue()).append(')');
+    }
+    if (stage.isDocument("inputStage")) {
+      appendStages(stage.getDocument("inputStage"), plan);
+    } else if (stage.isArray("inputStages")) {
+      stage.getArray("inputStages").stream()
+          .filter(BsonValue::isDocument)
+          .forEach(input -> appendStages(input.asDocument(), plan));
+    }
+  }
+
+  static long documentsOf(final BsonDocument response) {
+    if (response.isDocument("cursor")) {
+      final BsonDocument cursor = response.getDocument("cursor");
+      if (cursor.isArray("firstBatch")) {
+        return cursor.getArray("firstBatch").size();
+      }
+      if (cursor.isArray("nextBatch")) {
+        return cursor.getArray("nextBatch").size();
+      }
+    }
+    if (response.isArray("values")) {
+      return response.getArray("values").size();
+    }
+    return response.isNumber("n") ? response.getNumber("n").longValue() : 0;
+  }
+
+  /**
+   * Replies read off the wire are backed by their bytes, whose first four hold the size.
+   */
+  static long sizeOf(final BsonDocument response) {
+    try (BsonReader reader = response.asBsonReader()) {
+      if (reader instanceof BsonBinaryReader binaryReader) {
+        return binaryReader.getBsonInput().readInt32();
+      }
+    }
+    return new RawBsonDocument(response, new BsonDocumentCodec()).getByteBuffer().remaining();
+  }
+
+  private static ExecutorService explainExecutor() {
+    return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(EXPLAIN_QUEUE_SIZE), runnable -> {
+      final Thread thread = new Thread(runnable, "mongo-explain");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private record CommandMeters(DistributionSummary documents, DistributionSummary replyBytes, Counter slowCommands, Counter collectionScans) {
+  }
+
+  static final class ShapeStats {
+
+    final String shape;
+    volatile String plan;
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder slowExecutions = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    ShapeStats(final String shape) {
+      this.shape = shape;
+    }
+
+    void record(final long elapsedNanos, final boolean slow) {
+      this.executions.increment();
+      if (slow) {
+        this.slowExecutions.increment();
+      }
+      this.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    boolean isCollectionScan() {
+      final String currentPlan = this.plan;
+      return currentPlan != null && currentPlan.contains(COLLSCAN_STAGE);
+    }
+
+    long executions() {
+      return this.executions.sum();
+    }
+
+    long slowExecutions() {
+      return this.slowExecutions.sum();
+    }
+
+    long maxMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(this.maxNanos.get());
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.mercadolivre.users.app.metrics;
+
+import java.util.Set;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+/**
+ * What a Mongo command looks like once its values are taken out: {@code {"find": "users",
+ * "filter": {"cpf": {"$in": "?"}}, "sort": {"_id": 1}}}. Sorts, projections, hints and keys are
+ * part of the plan and kept as they are, session and paging details are dropped.
+ */
+final class MongoCommandShape {
+
+  static final Set<String> QUERY_COMMANDS = Set.of("find", "aggregate", "count", "distinct", "update", "delete", "findAndModify");
+
+  private static final BsonString PLACEHOLDER = new BsonString("?");
+  private static final Set<String> VERBATIM_FIELDS = Set.of("sort", "projection", "hint", "key");
+  private static final Set<String> IGNORED_FIELDS = Set.of(
+      "$db", "lsid", "$clusterTime", "txnNumber", "$readPreference", "readConcern", "writeConcern", "apiVersion",
+      "apiStrict", "apiDeprecationErrors", "maxTimeMS", "comment", "batchSize", "limit", "skip", "singleBatch",
+      "cursor", "ordered", "bypassDocumentValidation", "let", "allowDiskUse", "collation");
+  private static final Set<String> STATEMENT_ARRAYS = Set.of("updates", "deletes");
+
+  private MongoCommandShape() {
+  }
+
+  static String of(final BsonDocument command) {
+    final String commandName = command.getFirstKey();
+    final BsonDocument shape = new BsonDocument(commandName, command.get(commandName));
+    for (final String field : command.keySet()) {
+      if (field.equals(commandName) || IGNORED_FIELDS.contains(field)) {
+        continue;
+      }
+      final BsonValue value = command.get(field);
+      if (VERBATIM_FIELDS.contains(field)) {
+        shape.append(field, value);
+      } else {
+        shape.append(field, normalize(firstStatement(field, value)));
+      }
+    }
+    return shape.toJson();
+  }
+
+  /**
+   * The command as {@code explain} accepts it: no session fields and a single statement.
+   */
+  static BsonDocument explainable(final BsonDocument command) {
+    final BsonDocument explainable = new BsonDocument();
+    for (final String field : command.keySet()) {
+      if (field.startsWith("$") || "lsid".equals(field) || "txnNumber".equals(field)) {
+        continue;
+      }
+      explainable.append(field, firstStatement(field, command.get(field)));
+    }
+    return explainable;
+  }
+
+  /**
+   * A bulk update or delete is shaped, and explained, by its first statement.
+   */
+  private static BsonValue firstStatement(final String field, final BsonValue value) {
+    if (STATEMENT_ARRAYS.contains(field) && value.isArray() && value.asArray().size() > 1) {
+      return new BsonArray(value.asArray().subList(0, 1));
+    }
+    return value;
+  }
+
+  private static BsonValue normalize(final BsonValue value) {
+    if (value.isDocument()) {
+      final BsonDocument normalized = new BsonDocument();
+      value.asDocument().forEach((field, fieldValue) -> normalized.append(field, normalize(fieldValue)));
+      return normalized;
+    }
+    if (value.isArray() && !value.asArray().isEmpty() && value.asArray().get(0).isDocument()) {
+      final BsonArray normalized = new BsonArray();
+      value.asArray().forEach(element -> normalized.add(normalize(element)));
+      return normalized;
+    }
+    return PLACEHOLDER;
+  }
+}
@@ -0,0 +1,33 @@
+package com.mercadolivre.users.app.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/mongoshapes}: every query shape seen with its plan, collection scans first.
+ */
+@Component
+@Endpoint(id = "mongoshapes")
+public class MongoShapesEndpoint {
+
+  private final MongoCommandMonitor monitor;
+
+  public MongoShapesEndpoint(final MongoCommandMonitor monitor) {
+    this.monitor = monitor;
+  }
+
+  @ReadOperation
+  public List<ShapeReport> shapes() {
+    return this.monitor.shapes().stream()
+        .map(stats -> new ShapeReport(stats.shape, stats.plan, stats.isCollectionScan(), stats.executions(), stats.slowExecutions(), stats.maxMillis()))
+        .sorted(Comparator.comparing(ShapeReport::collectionScan).reversed()
+            .thenComparing(Comparator.comparingLong(ShapeReport::executions).reversed()))
+        .toList();
+  }
+
+  public record ShapeReport(String shape, String plan, boolean collectionScan, long executions, long slowExecutions, long maxMillis) {
+  }
+}
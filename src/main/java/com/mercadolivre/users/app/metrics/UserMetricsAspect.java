@@ -0,0 +1,144 @@
+package com.mercadolivre.users.app.metrics;
+
+import com.mercadolivre.users.app.dataprovider.query.UserQueryShape;
+import com.mercadolivre.users.app.dataprovider.query.UserSearchField;
+import com.mercadolivre.users.core.entity.UserFilter;
+import com.mercadolivre.users.core.exception.AgeBelowException;
+import com.mercadolivre.users.core.exception.AlreadyExistsException;
+import com.mercadolivre.users.core.exception.CPFInvalidException;
+import com.mercadolivre.users.core.exception.NotFoundException;
+import com.mercadolivre.users.core.exception.VersionConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times the use cases and the Mongo repository, tagged by operation, filter shape and outcome.
+ * Histograms are turned on per timer name through
+ * {@code management.metrics.distribution.percentiles-histogram}. A returned {@link Stream} is
+ * timed until it is closed. Domain exceptions are counted once, by the outermost use case they
+ * leave.
+ */
+@Aspect
+@Component
+public class UserMetricsAspect {
+
+  static final String USE_CASE_TIMER = "users.usecase";
+  static final String REPOSITORY_TIMER = "users.repository";
+  static final String EXCEPTIONS_COUNTER = "users.exceptions";
+  static final String NONE = "none";
+  static final String SUCCESS = "success";
+
+  private static final List<Class<? extends RuntimeException>> DOMAIN_EXCEPTIONS = List.of(
+      AlreadyExistsException.class,
+      CPFInvalidException.class,
+      AgeBelowException.class,
+      NotFoundException.class,
+      VersionConflictException.class);
+  private static final String[] FIELDS_TAGS = fieldsTags();
+  private static final Tags NO_SHAPE = Tags.of("fields", NONE, "operator", NONE, "type", NONE);
+
+  private final MeterRegistry meterRegistry;
+  private final Map<Class<?>, Counter> exceptionCounters;
+  private final ThreadLocal<int[]> useCaseDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+  public UserMetricsAspect(final MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.exceptionCounters = DOMAIN_EXCEPTIONS.stream()
+        .collect(Collectors.toMap(Function.identity(), exception -> Counter.builder(EXCEPTIONS_COUNTER)
+            .description("Domain exceptions raised by the use cases")
+            .tag("exception", exception.getSimpleName())
+            .register(meterRegistry)));
+  }
+
+  @Around("execution(public * com.mercadolivre.users.core.usecase.AccountSearchEngine+.*(..))"
+      + " || execution(public * com.mercadolivre.users.core.usecase.AccountRegistration+.*(..))")
+  public Object timeUseCase(final ProceedingJoinPoint joinPoint) throws Throwable {
+    final int[] depth = this.useCaseDepth.get();
+    depth[0]++;
+    try {
+      return time(USE_CASE_TIMER, joinPoint);
+    } catch (RuntimeException e) {
+      if (depth[0] == 1) {
+        countException(e);
+      }
+      throw e;
+    } finally {
+      if (--depth[0] == 0) {
+        this.useCaseDepth.remove();
+      }
+    }
+  }
+
+  @Around("execution(public * com.mercadolivre.users.app.dataprovider.UserMongoRepository.*(..))")
+  public Object timeRepository(final ProceedingJoinPoint joinPoint) throws Throwable {
+    return time(REPOSITORY_TIMER, joinPoint);
+  }
+
+  private Object time(final String name, final ProceedingJoinPoint joinPoint) throws Throwable {
+    final Tags tags = shapeTags(joinPoint.getArgs()).and("operation", joinPoint.getSignature().getName());
+    final Timer.Sample sample = Timer.start(this.meterRegistry);
+    final Object result;
+    try {
+      result = joinPoint.proceed();
+    } catch (Throwable e) {
+      sample.stop(this.meterRegistry.timer(name, tags.and("outcome", e.getClass().getSimpleName())));
+      throw e;
+    }
+    if (result instanceof Stream<?> stream) {
+      return stream.onClose(() -> sample.stop(this.meterRegistry.timer(name, tags.and("outcome", SUCCESS))));
+    }
+    sample.stop(this.meterRegistry.timer(name, tags.and("outcome", SUCCESS)));
+    return result;
+  }
+
+  private void countException(final RuntimeException e) {
+    final Counter counter = this.exceptionCounters.get(e.getClass());
+    if (counter != null) {
+      counter.increment();
+    }
+  }
+
+  /**
+   * Every timer has the same tag keys, {@value #NONE} standing for operations without a filter.
+   */
+  static Tags shapeTags(final Object[] args) {
+    for (final Object arg : args) {
+      if (arg instanceof UserFilter filter) {
+        final UserQueryShape shape = UserQueryShape.of(filter);
+        return Tags.of(
+            "fields", FIELDS_TAGS[shape.fields()],
+            "operator", shape.operator() == null ? NONE : shape.operator().name(),
+            "type", shape.type() == null ? NONE : shape.type().name());
+      }
+    }
+    return NO_SHAPE;
+  }
+
+  private static String[] fieldsTags() {
+    final UserSearchField[] fields = UserSearchField.values();
+    final String[] tags = new String[1 << fields.length];
+    for (int mask = 0; mask < tags.length; mask++) {
+      final StringJoiner joiner = new StringJoiner("+").setEmptyValue(NONE);
+      for (final UserSearchField field : fields) {
+        if ((mask & field.mask()) != 0) {
+          joiner.add(field.name().toLowerCase(Locale.ROOT));
+        }
+      }
+      tags[mask] = joiner.toString();
+    }
+    return tags;
+  }
+}
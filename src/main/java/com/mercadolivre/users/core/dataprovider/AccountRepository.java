@@ -1,18 +1,50 @@
 package com.mercadolivre.users.core.dataprovider;
 
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.JsonPage;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.RegistrationResult;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.springframework.stereotype.Component;
 
 @Component
-public interface AccountRepository<T, U> {
+public interface AccountRepository<T, U, C> {
 
   String create(final T entity);
 
+  List<RegistrationResult> createAll(final List<T> entities);
+
+  List<T> findConflicting(final List<T> entities);
+
   void update(final T entity);
 
-  List<T> find(final U filter);
+  /**
+   * @return whether a user with that id, and the expected version if any, has been updated
+   */
+  boolean update(final String id, final C changes);
+
+  /**
+   * Current version of the user, {@code 0} when it has never been updated.
+   */
+  Optional<Long> findVersion(final String id);
+
+  CursorPage<T> find(final U filter, final CursorPageRequest page, final Projection projection);
+
+  /**
+   * Same page as {@link #find(Object, CursorPageRequest, Projection)}, rendered as JSON by the storage.
+   */
+  JsonPage findJson(final U filter, final CursorPageRequest page, final Projection projection);
+
+  Stream<T> stream(final U filter, final Projection projection);
 
   Optional<T> findById(final String id);
 
+  Optional<T> findById(final String id, final Projection projection);
+
+  List<T> findAllById(final Collection<String> ids, final Projection projection);
+
 }
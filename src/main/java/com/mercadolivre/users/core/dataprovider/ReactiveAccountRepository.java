@@ -0,0 +1,24 @@
+package com.mercadolivre.users.core.dataprovider;
+
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.Projection;
+import java.util.Collection;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAccountRepository<T, U> {
+
+  Mono<String> create(final T entity);
+
+  Mono<Void> update(final T entity);
+
+  Mono<CursorPage<T>> find(final U filter, final CursorPageRequest page, final Projection projection);
+
+  Flux<T> stream(final U filter, final Projection projection);
+
+  Mono<T> findById(final String id, final Projection projection);
+
+  Flux<T> findAllById(final Collection<String> ids, final Projection projection);
+
+}
@@ -1,51 +1,205 @@
 package com.mercadolivre.users.core.entity;
 
-import java.util.regex.Pattern;
-import java.util.stream.IntStream;
+import java.util.OptionalLong;
 
-public record BrazilianCPF(String number) {
+/**
+ * CPF parsed once into its digits packed in a {@code long}. Validation, formatting, equality and
+ * hashing are plain arithmetic on that value; the text it was built from is only kept for
+ * {@link #number()}. Inputs with more digits than a {@code long} holds are never valid and fall
+ * back to their text.
+ */
+public final class BrazilianCPF {
 
-  public boolean isValid() {
-    final String cleanedCPF = getRaw();
-    final boolean isInvalid = (!isValidLength(cleanedCPF) || isAllDigitsEqual(cleanedCPF));
+  private static final int LENGTH = 11;
+  private static final int FORMATTED_LENGTH = 14;
+  private static final int MAX_PACKED_DIGITS = 18;
+  private static final long MAX_VALUE = 99_999_999_999L;
+  private static final long REPEATED_DIGIT = 11_111_111_111L;
+  private static final long MAX_BASE = 999_999_999L;
+  private static final long REPEATED_BASE_DIGIT = 111_111_111L;
 
-    if (isInvalid) {
-      return false;
+  private final String number;
+  private final long packed;
+  private final int digits;
+
+  public BrazilianCPF(final String number) {
+    long value = 0;
+    int count = 0;
+    if (number != null) {
+      for (int i = 0; i < number.length(); i++) {
+        final char character = number.charAt(i);
+        if (isDigit(character)) {
+          if (count < MAX_PACKED_DIGITS) {
+            value = value * 10 + (character - '0');
+          }
+          count++;
+        }
+      }
+    }
+    this.number = number;
+    this.packed = value;
+    this.digits = count;
+  }
+
+  private BrazilianCPF(final long packed) {
+    this.number = null;
+    this.packed = packed;
+    this.digits = LENGTH;
+  }
+
+  /**
+   * Inverse of {@link #toLong()}, leading zeros included.
+   */
+  public static BrazilianCPF fromLong(final long packed) {
+    if (packed < 0 || packed > MAX_VALUE) {
+      throw new IllegalArgumentException(String.format("CPF %d must have at most %d digits!", packed, LENGTH));
     }
+    return new BrazilianCPF(packed);
+  }
 
-    int firstDigit = calculateDigit(cleanedCPF, 8, 10);
-    int secondDigit = calculateDigit(cleanedCPF, 9, 11);
+  /**
+   * The valid CPF whose first nine digits are {@code base}, followed by the check digits
+   * {@link #isValid()} expects. Bases made of a single repeated digit have none.
+   */
+  public static BrazilianCPF withCheckDigits(final long base) {
+    if (base < 0 || base > MAX_BASE || base % REPEATED_BASE_DIGIT == 0) {
+      throw new IllegalArgumentException(String.format("CPF base %d must have at most 9 digits, not all equal!", base));
+    }
+    long remaining = base;
+    int firstSum = 0;
+    int secondSum = 0;
+    for (int weight = 2; weight <= 10; weight++) {
+      final int digit = (int) (remaining % 10);
+      remaining /= 10;
+      firstSum += digit * weight;
+      secondSum += digit * (weight + 1);
+    }
+    final int firstCheckDigit = checkDigitOf(firstSum);
+    final int secondCheckDigit = checkDigitOf(secondSum + firstCheckDigit * 2);
+    return new BrazilianCPF(base * 100 + firstCheckDigit * 10 + secondCheckDigit);
+  }
+
+  /**
+   * The CPF as a number, present only when it has exactly 11 digits.
+   */
+  public OptionalLong toLong() {
+    return this.digits == LENGTH ? OptionalLong.of(this.packed) : OptionalLong.empty();
+  }
+
+  public String number() {
+    return this.number == null && this.digits > 0 ? getRaw() : this.number;
+  }
+
+  public boolean isValid() {
+    if (this.digits != LENGTH || this.packed % REPEATED_DIGIT == 0) {
+      return false;
+    }
 
-    return Character.getNumericValue(cleanedCPF.charAt(9)) == firstDigit
-        && Character.getNumericValue(cleanedCPF.charAt(10)) == secondDigit;
+    final int secondCheckDigit = (int) (this.packed % 10);
+    final int firstCheckDigit = (int) (this.packed / 10 % 10);
+    long remaining = this.packed / 100;
+    int firstSum = 0;
+    int secondSum = firstCheckDigit * 2;
+    for (int weight = 2; weight <= 10; weight++) {
+      final int digit = (int) (remaining % 10);
+      remaining /= 10;
+      firstSum += digit * weight;
+      secondSum += digit * (weight + 1);
+    }
+    return checkDigitOf(firstSum) == firstCheckDigit && checkDigitOf(secondSum) == secondCheckDigit;
   }
 
   public String getRaw() {
-    return this.number.replaceAll("\\D", "");
+    if (isOverflowed()) {
+      return stripNonDigits(this.number);
+    }
+    final char[] raw = new char[this.digits];
+    long remaining = this.packed;
+    for (int i = raw.length - 1; i >= 0; i--) {
+      raw[i] = (char) ('0' + remaining % 10);
+      remaining /= 10;
+    }
+    return new String(raw);
   }
 
+  /**
+   * {@code 000.000.000-00}. Anything but 11 digits is returned raw, every full group of 11 digits
+   * of an overlong input being formatted.
+   */
   public String getFormatted() {
+    if (this.digits == LENGTH) {
+      final char[] formatted = new char[FORMATTED_LENGTH];
+      long remaining = this.packed;
+      for (int i = FORMATTED_LENGTH - 1; i >= 0; i--) {
+        if (i == 3 || i == 7) {
+          formatted[i] = '.';
+        } else if (i == 11) {
+          formatted[i] = '-';
+        } else {
+          formatted[i] = (char) ('0' + remaining % 10);
+          remaining /= 10;
+        }
+      }
+      return new String(formatted);
+    }
+
     final String raw = getRaw();
-    return Pattern.compile("(\\d{3})(\\d{3})(\\d{3})(\\d{2})")
-        .matcher(raw)
-        .replaceAll("$1.$2.$3-$4");
+    if (raw.length() < LENGTH) {
+      return raw;
+    }
+    final StringBuilder formatted = new StringBuilder(raw.length() + raw.length() / LENGTH * 3);
+    int start = 0;
+    for (; start + LENGTH <= raw.length(); start += LENGTH) {
+      formatted.append(raw, start, start + 3).append('.')
+          .append(raw, start + 3, start + 6).append('.')
+          .append(raw, start + 6, start + 9).append('-')
+          .append(raw, start + 9, start + LENGTH);
+    }
+    return formatted.append(raw, start, raw.length()).toString();
   }
 
-  private boolean isValidLength(final String cleanedCPF) {
-    return cleanedCPF.length() == 11;
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof BrazilianCPF cpf) || this.digits != cpf.digits) {
+      return false;
+    }
+    return isOverflowed() ? getRaw().equals(cpf.getRaw()) : this.packed == cpf.packed;
   }
 
-  private boolean isAllDigitsEqual(final String cleanedCpf) {
-    return cleanedCpf.matches("(\\d)\\1{10}");
+  @Override
+  public int hashCode() {
+    return isOverflowed() ? getRaw().hashCode() : 31 * Long.hashCode(this.packed) + this.digits;
   }
 
-  private int calculateDigit(final String cleanedCPF, final int endIndex, final int multiplier) {
-    final int sum = IntStream.rangeClosed(0, endIndex)
-        .map(i -> Character.getNumericValue(cleanedCPF.charAt(i)) * (multiplier - i))
-        .sum();
+  @Override
+  public String toString() {
+    return "BrazilianCPF[number=" + number() + "]";
+  }
 
+  private boolean isOverflowed() {
+    return this.digits > MAX_PACKED_DIGITS;
+  }
+
+  private static int checkDigitOf(final int sum) {
     final int remainder = sum % 11;
     return (remainder < 2) ? 0 : 11 - remainder;
   }
 
+  private static String stripNonDigits(final String value) {
+    final StringBuilder digits = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      if (isDigit(value.charAt(i))) {
+        digits.append(value.charAt(i));
+      }
+    }
+    return digits.toString();
+  }
+
+  private static boolean isDigit(final char character) {
+    return character >= '0' && character <= '9';
+  }
+
 }
@@ -0,0 +1,10 @@
+package com.mercadolivre.users.core.entity;
+
+import java.util.List;
+
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+  public boolean hasNext() {
+    return this.nextCursor != null;
+  }
+}
@@ -0,0 +1,21 @@
+package com.mercadolivre.users.core.entity;
+
+public record CursorPageRequest(int limit, String cursor) {
+
+  public static final int DEFAULT_LIMIT = 100;
+  public static final int MAX_LIMIT = 1000;
+
+  public CursorPageRequest {
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new IllegalArgumentException(String.format("limit must be between 1 and %d!", MAX_LIMIT));
+    }
+  }
+
+  public static CursorPageRequest of(final Integer limit, final String cursor) {
+    return new CursorPageRequest(limit == null ? DEFAULT_LIMIT : limit, cursor);
+  }
+
+  public static CursorPageRequest first(final int limit) {
+    return new CursorPageRequest(limit, null);
+  }
+}
@@ -0,0 +1,6 @@
+package com.mercadolivre.users.core.entity;
+
+import java.util.List;
+
+public record IdLookup<T>(List<T> items, List<String> missingIds) {
+}
@@ -0,0 +1,22 @@
+package com.mercadolivre.users.core.entity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A page of users that the storage renders itself, as the JSON array of a search response, straight
+ * from the rows it read. No {@link User} is built along the way.
+ */
+public interface JsonPage {
+
+  /**
+   * Cursor of the next page, {@code null} on the last one.
+   */
+  String nextCursor();
+
+  default boolean hasNext() {
+    return nextCursor() != null;
+  }
+
+  void writeTo(final OutputStream outputStream) throws IOException;
+}
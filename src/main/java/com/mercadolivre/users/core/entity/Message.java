@@ -8,6 +8,9 @@ public enum Message {
       "AGE_BELOW_X", "Registration is only allowed to users aged 18 and above."),
   REGISTRATION_ERROR_USER_ALREADY_EXISTS("USER_ALREADY_EXISTS", "User already exists."),
   REGISTRATION_ERROR_CPF_INVALID("INVALID_CPF", "CPF is invalid."),
+  REGISTRATION_ERROR_USER_DUPLICATED_IN_BATCH("USER_DUPLICATED_IN_BATCH", "User is duplicated in the batch."),
+  REGISTRATION_ERROR_USER_NOT_PERSISTED("USER_NOT_PERSISTED", "User could not be persisted."),
+  REGISTRATION_ERROR_VERSION_CONFLICT("VERSION_CONFLICT", "User has been modified since the expected version."),
 
   ERROR_TEMPLATE_USER_NOT_FOUND("USER_NOT_FOUND", "User %s not found.");
 
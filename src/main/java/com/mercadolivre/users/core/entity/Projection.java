@@ -0,0 +1,43 @@
+package com.mercadolivre.users.core.entity;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public record Projection(Set<UserField> fields) {
+
+  public static final Projection ALL = new Projection(EnumSet.allOf(UserField.class));
+
+  public Projection {
+    fields = Collections.unmodifiableSet(EnumSet.copyOf(fields));
+  }
+
+  /**
+   * Every field when none is given, the fields listed otherwise. A list that names no field, such
+   * as {@code ","}, is rejected rather than rendering empty users.
+   */
+  public static Projection of(final String commaSeparatedFields) {
+    if (commaSeparatedFields == null || commaSeparatedFields.isBlank()) {
+      return ALL;
+    }
+    final EnumSet<UserField> fields = Arrays.stream(commaSeparatedFields.split(","))
+        .map(String::strip)
+        .filter(name -> !name.isEmpty())
+        .map(UserField::fromName)
+        .collect(Collectors.toCollection(() -> EnumSet.noneOf(UserField.class)));
+    if (fields.isEmpty()) {
+      throw new IllegalArgumentException(String.format("User fields %s must name at least one field!", commaSeparatedFields));
+    }
+    return new Projection(fields);
+  }
+
+  public boolean isAll() {
+    return this.fields.size() == UserField.values().length;
+  }
+
+  public boolean includes(final UserField field) {
+    return this.fields.contains(field);
+  }
+}
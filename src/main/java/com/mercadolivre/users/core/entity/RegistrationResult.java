@@ -0,0 +1,20 @@
+package com.mercadolivre.users.core.entity;
+
+public record RegistrationResult(String id, String code, String message) {
+
+  public static RegistrationResult created(final String id) {
+    return new RegistrationResult(id, null, null);
+  }
+
+  public static RegistrationResult failed(final Message message) {
+    return new RegistrationResult(null, message.getCode(), message.getMessage());
+  }
+
+  public static RegistrationResult failed(final String code, final String message) {
+    return new RegistrationResult(null, code, message);
+  }
+
+  public boolean isCreated() {
+    return this.id != null;
+  }
+}
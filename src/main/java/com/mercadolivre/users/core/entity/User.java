@@ -21,6 +21,7 @@ public class User {
     private final LocalDate birthDate;
     private final LocalDateTime createdAt;
     private final LocalDateTime updatedAt;
+    private Long version;
 
     public User(final String name, final BrazilianCPF cpf, final String email, final LocalDate birthDate) {
         this.name = name;
@@ -52,7 +53,11 @@ public class User {
     }
 
     public boolean isValidAge(final int allowedMinimalAge) {
-        final Period period = Period.between(this.birthDate, LocalDate.now());
+        return isValidAge(this.birthDate, allowedMinimalAge);
+    }
+
+    public static boolean isValidAge(final LocalDate birthDate, final int allowedMinimalAge) {
+        final Period period = Period.between(birthDate, LocalDate.now());
         return period.getYears() >= allowedMinimalAge;
     }
     
@@ -0,0 +1,48 @@
+package com.mercadolivre.users.core.entity;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Field level changes of a user, written at once without reading the user first. A {@code null}
+ * value removes the field. When {@code expectedVersion} is set the changes only apply if the user
+ * is still at that version.
+ */
+public record UserChanges(Map<UserField, Object> values, Long expectedVersion) {
+
+  private static final Set<UserField> CHANGEABLE_FIELDS = EnumSet.of(UserField.NAME, UserField.CPF, UserField.EMAIL, UserField.BIRTH_DATE);
+
+  public UserChanges {
+    final EnumMap<UserField, Object> copy = new EnumMap<>(UserField.class);
+    for (final Map.Entry<UserField, Object> change : values.entrySet()) {
+      if (!CHANGEABLE_FIELDS.contains(change.getKey())) {
+        throw new IllegalArgumentException(String.format("User field %s cannot be changed!", change.getKey().getName()));
+      }
+      copy.put(change.getKey(), change.getValue());
+    }
+    values = Collections.unmodifiableMap(copy);
+  }
+
+  /**
+   * Every changeable field of the user, at the version it carries.
+   */
+  public static UserChanges of(final User user) {
+    final Map<UserField, Object> values = new EnumMap<>(UserField.class);
+    values.put(UserField.NAME, user.getName());
+    values.put(UserField.CPF, user.getCpf());
+    values.put(UserField.EMAIL, user.getEmail());
+    values.put(UserField.BIRTH_DATE, user.getBirthDate());
+    return new UserChanges(values, user.getVersion());
+  }
+
+  public boolean changes(final UserField field) {
+    return this.values.containsKey(field);
+  }
+
+  public Object valueOf(final UserField field) {
+    return this.values.get(field);
+  }
+}
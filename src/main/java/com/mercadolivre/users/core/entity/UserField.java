@@ -0,0 +1,28 @@
+package com.mercadolivre.users.core.entity;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+@Getter
+public enum UserField {
+  ID("id"),
+  NAME("name"),
+  CPF("cpf"),
+  EMAIL("email"),
+  BIRTH_DATE("birthDate"),
+  CREATED_AT("createdAt"),
+  UPDATED_AT("updatedAt");
+
+  private final String name;
+
+  UserField(final String name) {
+    this.name = name;
+  }
+
+  public static UserField fromName(final String name) {
+    return Arrays.stream(values())
+        .filter(field -> field.name.equals(name))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException(String.format("User field %s does not exist!", name)));
+  }
+}
@@ -1,16 +1,16 @@
 package com.mercadolivre.users.core.entity;
 
-import java.lang.reflect.Field;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
-import org.springframework.util.ReflectionUtils;
 
 @Getter
 @EqualsAndHashCode
@@ -20,6 +20,20 @@ import org.springframework.util.ReflectionUtils;
 @ToString
 public class UserFilter {
 
+  /**
+   * Binder of every accepted request param, resolved once instead of looking fields up by
+   * reflection on each request.
+   */
+  private static final Map<String, BiConsumer<UserFilter, String>> BINDERS = Map.of(
+      "operator", (userFilter, value) -> userFilter.operator = enumParam("operator", value, LogicalOperator.class),
+      "type", (userFilter, value) -> userFilter.type = enumParam("type", value, SearchType.class),
+      "normalize", (userFilter, value) -> userFilter.normalize = booleanParam("normalize", value),
+      "cpf", (userFilter, value) -> userFilter.cpf = value,
+      "name", (userFilter, value) -> userFilter.name = value,
+      "email", (userFilter, value) -> userFilter.email = value);
+
+  private static final Set<String> NON_SEARCHABLE_FIELDS = Set.of("operator", "type", "normalize");
+
   @Builder.Default
   private LogicalOperator operator = LogicalOperator.AND;
 
@@ -37,34 +51,36 @@ public class UserFilter {
     this.operator = LogicalOperator.AND;
     this.type = SearchType.EQUALS;
     this.normalize = true;
-    initFields(this, filter);
+    for (final Entry<String, String> param : filter.entrySet()) {
+      final BiConsumer<UserFilter, String> binder = BINDERS.get(param.getKey());
+      if (binder == null) {
+        throw new IllegalArgumentException(String.format("UserFilter %s does not exist!", param.getKey()));
+      }
+      binder.accept(this, param.getValue());
+    }
   }
 
   public boolean isSearchableFields(final String filter) {
-    final Set<String> nonSearchableFields = Set.of("operator", "type", "normalize");
-    return !nonSearchableFields.contains(filter);
-  }
-
-  private void initFields(final UserFilter newInstance, final Map<String, String> filter) {
-    filter.entrySet().stream()
-        .filter(this::isSearchableFields)
-        .forEach(entrySet -> {
-          final Field field = ReflectionUtils.findField(this.getClass(), entrySet.getKey());
-          if (field == null) throw new IllegalArgumentException(String.format("UserFilter %s does not exist!", entrySet.getKey()));
-          setValueOnField(newInstance, field, entrySet.getValue());
-        });
+    return !NON_SEARCHABLE_FIELDS.contains(filter);
   }
 
-  private boolean isSearchableFields(final Entry<String, String> filter) {
-    return isSearchableFields(filter.getKey());
+  private static <E extends Enum<E>> E enumParam(final String key, final String value, final Class<E> type) {
+    try {
+      return Enum.valueOf(type, value.strip().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(String.format("UserFilter %s does not accept %s!", key, value));
+    }
   }
 
-  private void setValueOnField(final UserFilter newInstance, final Field targetField, final String value) {
-    try {
-      targetField.set(newInstance, value);
-    } catch (IllegalAccessException e) {
-      throw new IllegalStateException("Could not initialize filters");
+  /**
+   * Only {@code true} or {@code false}: anything else is rejected rather than read as false.
+   */
+  private static boolean booleanParam(final String key, final String value) {
+    final String stripped = value.strip();
+    if (!"true".equalsIgnoreCase(stripped) && !"false".equalsIgnoreCase(stripped)) {
+      throw new IllegalArgumentException(String.format("UserFilter %s does not accept %s!", key, value));
     }
+    return "true".equalsIgnoreCase(stripped);
   }
 
 }
@@ -0,0 +1,15 @@
+package com.mercadolivre.users.core.exception;
+
+import lombok.Getter;
+
+@Getter
+public class VersionConflictException extends IllegalStateException {
+
+  private String code;
+
+  public VersionConflictException(final String code, final String message) {
+    super(message);
+    this.code = code;
+  }
+
+}
@@ -1,13 +1,19 @@
 package com.mercadolivre.users.core.usecase;
 
+import com.mercadolivre.users.core.entity.RegistrationResult;
+import java.util.List;
 import org.springframework.stereotype.Component;
 
 @Component
-public interface AccountRegistration<T> {
+public interface AccountRegistration<T, C> {
 
   String create(T user);
 
+  List<RegistrationResult> createAll(List<T> users);
+
   void update(T user);
 
+  void update(final String id, C changes);
+
   T findById(final String id);
 }
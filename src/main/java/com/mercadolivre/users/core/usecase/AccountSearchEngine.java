@@ -1,11 +1,22 @@
 package com.mercadolivre.users.core.usecase;
 
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.IdLookup;
+import com.mercadolivre.users.core.entity.JsonPage;
+import com.mercadolivre.users.core.entity.Projection;
 import java.util.List;
+import java.util.stream.Stream;
 import org.springframework.stereotype.Component;
 
 @Component
 public interface AccountSearchEngine<T, U> {
 
   T findById(final String id);
-  List<T> searchBy(final U filter);
+  T findById(final String id, final Projection projection);
+  long findVersion(final String id);
+  IdLookup<T> findAllById(final List<String> ids, final Projection projection);
+  CursorPage<T> searchBy(final U filter, final CursorPageRequest page, final Projection projection);
+  JsonPage searchJsonBy(final U filter, final CursorPageRequest page, final Projection projection);
+  Stream<T> streamBy(final U filter, final Projection projection);
 }
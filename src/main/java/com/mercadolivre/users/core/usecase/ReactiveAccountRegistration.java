@@ -0,0 +1,12 @@
+package com.mercadolivre.users.core.usecase;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAccountRegistration<T> {
+
+  Mono<String> create(T user);
+
+  Mono<Void> update(T user);
+
+  Mono<T> findById(final String id);
+}
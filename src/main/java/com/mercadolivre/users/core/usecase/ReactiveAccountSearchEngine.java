@@ -0,0 +1,17 @@
+package com.mercadolivre.users.core.usecase;
+
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.IdLookup;
+import com.mercadolivre.users.core.entity.Projection;
+import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAccountSearchEngine<T, U> {
+
+  Mono<T> findById(final String id, final Projection projection);
+  Mono<IdLookup<T>> findAllById(final List<String> ids, final Projection projection);
+  Mono<CursorPage<T>> searchBy(final U filter, final CursorPageRequest page, final Projection projection);
+  Flux<T> streamBy(final U filter, final Projection projection);
+}
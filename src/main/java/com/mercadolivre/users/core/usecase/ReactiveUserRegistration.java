@@ -0,0 +1,43 @@
+package com.mercadolivre.users.core.usecase;
+
+import com.mercadolivre.users.core.dataprovider.ReactiveAccountRepository;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Service
+@Profile("reactive")
+class ReactiveUserRegistration implements ReactiveAccountRegistration<User> {
+
+  private final ReactiveAccountSearchEngine<User, UserFilter> userSearching;
+  private final ReactiveAccountRepository<User, UserFilter> accountRepository;
+
+  public ReactiveUserRegistration(final ReactiveAccountSearchEngine<User, UserFilter> userSearching, final ReactiveAccountRepository<User, UserFilter> accountRepository) {
+    this.userSearching = userSearching;
+    this.accountRepository = accountRepository;
+  }
+
+  @Override
+  public Mono<String> create(final User user) {
+    return Mono.fromCallable(() -> UserRegistrationRules.validate(user))
+        .flatMap(this.accountRepository::create);
+  }
+
+  @Override
+  public Mono<Void> update(final User userWithNewChanges) {
+    return Mono.fromCallable(() -> UserRegistrationRules.validate(userWithNewChanges))
+        .flatMap(this.accountRepository::update)
+        .doOnSuccess(ignored -> log.info("User has been updated"));
+  }
+
+  @Override
+  public Mono<User> findById(final String id) {
+    return this.userSearching.findById(id, Projection.ALL);
+  }
+
+}
@@ -0,0 +1,58 @@
+package com.mercadolivre.users.core.usecase;
+
+import com.mercadolivre.users.core.dataprovider.ReactiveAccountRepository;
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.IdLookup;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserFilter;
+import java.util.List;
+import java.util.Set;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+class ReactiveUserSearching implements ReactiveAccountSearchEngine<User, UserFilter> {
+
+  private final ReactiveAccountRepository<User, UserFilter> accountRepository;
+
+  public ReactiveUserSearching(final ReactiveAccountRepository<User, UserFilter> accountRepository) {
+    this.accountRepository = accountRepository;
+  }
+
+  @Override
+  public Mono<User> findById(final String id, final Projection projection) {
+    return this.accountRepository
+        .findById(id, projection)
+        .switchIfEmpty(Mono.error(() -> UserSearching.notFound(id)));
+  }
+
+  @Override
+  public Mono<IdLookup<User>> findAllById(final List<String> ids, final Projection projection) {
+    return Mono.fromCallable(() -> UserSearching.distinctLookupIds(ids))
+        .flatMap(distinctIds -> distinctIds.isEmpty()
+            ? Mono.just(new IdLookup<>(List.<User>of(), List.<String>of()))
+            : lookup(distinctIds, projection));
+  }
+
+  @Override
+  public Mono<CursorPage<User>> searchBy(final UserFilter userFilter, final CursorPageRequest page, final Projection projection) {
+    return this.accountRepository.find(userFilter, page, projection);
+  }
+
+  @Override
+  public Flux<User> streamBy(final UserFilter userFilter, final Projection projection) {
+    return this.accountRepository.stream(userFilter, projection);
+  }
+
+  private Mono<IdLookup<User>> lookup(final Set<String> distinctIds, final Projection projection) {
+    return this.accountRepository.findAllById(distinctIds, projection)
+        .collectList()
+        .map(users -> UserSearching.inRequestOrder(distinctIds, users));
+  }
+
+}
@@ -1,88 +1,129 @@
 package com.mercadolivre.users.core.usecase;
 
 import com.mercadolivre.users.core.dataprovider.AccountRepository;
-import com.mercadolivre.users.core.entity.LogicalOperator;
 import com.mercadolivre.users.core.entity.Message;
+import com.mercadolivre.users.core.entity.RegistrationResult;
 import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserChanges;
 import com.mercadolivre.users.core.entity.UserFilter;
-import com.mercadolivre.users.core.exception.AgeBelowException;
-import com.mercadolivre.users.core.exception.AlreadyExistsException;
-import com.mercadolivre.users.core.exception.CPFInvalidException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 
 @Slf4j
 @Service
-class UserRegistration implements AccountRegistration<User> {
+class UserRegistration implements AccountRegistration<User, UserChanges> {
 
-  private static int ALLOWED_MINIMAL_AGE = 18;
+  static final int MAX_BATCH_SIZE = 10_000;
+  static final int BATCH_CHUNK_SIZE = 500;
 
   private final AccountSearchEngine<User, UserFilter> userSearching;
-  private final AccountRepository<User, UserFilter> accountRepository;
+  private final AccountRepository<User, UserFilter, UserChanges> accountRepository;
 
-  public UserRegistration(final AccountSearchEngine<User, UserFilter> userSearching, final AccountRepository<User, UserFilter> accountRepository) {
+  public UserRegistration(final AccountSearchEngine<User, UserFilter> userSearching, final AccountRepository<User, UserFilter, UserChanges> accountRepository) {
     this.userSearching = userSearching;
     this.accountRepository = accountRepository;
   }
 
   public String create(final User user) {
     return Optional.of(user)
-        .map(this::fullValidation)
+        .map(UserRegistrationRules::validate)
         .map(this.accountRepository::create)
         .orElseThrow(() -> new IllegalStateException("Could not create user!"));
   }
 
+  @Override
+  public List<RegistrationResult> createAll(final List<User> users) {
+    if (users.size() > MAX_BATCH_SIZE) {
+      throw new IllegalArgumentException(String.format("Batch must have at most %d users!", MAX_BATCH_SIZE));
+    }
+
+    final RegistrationResult[] results = users.parallelStream()
+        .map(user -> UserRegistrationRules.check(user).orElse(null))
+        .toArray(RegistrationResult[]::new);
+    rejectDuplicatesInBatch(users, results);
+
+    final List<Integer> pending = IntStream.range(0, users.size())
+        .filter(index -> results[index] == null)
+        .boxed()
+        .collect(Collectors.toList());
+    for (int from = 0; from < pending.size(); from += BATCH_CHUNK_SIZE) {
+      persistChunk(users, pending.subList(from, Math.min(from + BATCH_CHUNK_SIZE, pending.size())), results);
+    }
+
+    log.info("Batch of {} users has been processed, {} created", users.size(), Arrays.stream(results).filter(RegistrationResult::isCreated).count());
+    return Arrays.asList(results);
+  }
+
   public void update(final User userWithNewChanges) {
-    validateAge(userWithNewChanges);
-    validateCPF(userWithNewChanges);
+    UserRegistrationRules.validate(userWithNewChanges);
     this.accountRepository.update(userWithNewChanges);
     log.info("User has been updated");
   }
 
+  /**
+   * A single conditional write. Only when it matches nothing is the user read again, to tell a
+   * missing user from a stale version.
+   */
   @Override
-  public User findById(final String id) {
-    return this.userSearching.findById(id);
+  public void update(final String id, final UserChanges changes) {
+    UserRegistrationRules.validate(changes);
+    if (!this.accountRepository.update(id, changes)) {
+      if (this.accountRepository.findVersion(id).isEmpty()) {
+        throw UserSearching.notFound(id);
+      }
+      throw UserRegistrationRules.versionConflict(id);
+    }
+    log.info("User has been updated");
   }
 
-  private User fullValidation(final User user) {
-    validateAge(user);
-    validateCPF(user);
-    validateIfAlreadyExists(user);
-    return user;
+  @Override
+  public User findById(final String id) {
+    return this.userSearching.findById(id);
   }
 
-  private void validateCPF(final User user) {
-    if (!user.getCpf().isValid()) {
-      log.error("CPF is invalid.");
-      throw new CPFInvalidException(
-          Message.REGISTRATION_ERROR_CPF_INVALID.getCode(),
-          Message.REGISTRATION_ERROR_CPF_INVALID.getMessage());
+  private void rejectDuplicatesInBatch(final List<User> users, final RegistrationResult[] results) {
+    final Set<String> seenKeys = new HashSet<>();
+    for (int index = 0; index < users.size(); index++) {
+      if (results[index] != null) {
+        continue;
+      }
+      final List<String> keys = UserRegistrationRules.uniqueKeysOf(users.get(index)).collect(Collectors.toList());
+      if (keys.stream().anyMatch(seenKeys::contains)) {
+        results[index] = RegistrationResult.failed(Message.REGISTRATION_ERROR_USER_DUPLICATED_IN_BATCH);
+      } else {
+        seenKeys.addAll(keys);
+      }
     }
   }
 
-  private void validateAge(final User user) {
-    if (!user.isValidAge(ALLOWED_MINIMAL_AGE)) {
-      log.error("The user is below the allowed age.");
-      throw new AgeBelowException(
-          Message.REGISTRATION_ERROR_AGE_BELOW_X.getCode(),
-          Message.REGISTRATION_ERROR_AGE_BELOW_X.getMessage());
+  private void persistChunk(final List<User> users, final List<Integer> chunk, final RegistrationResult[] results) {
+    final Set<String> existingKeys = this.accountRepository.findConflicting(chunk.stream().map(users::get).collect(Collectors.toList())).stream()
+        .flatMap(UserRegistrationRules::uniqueKeysOf)
+        .collect(Collectors.toSet());
+
+    final List<Integer> insertable = new ArrayList<>(chunk.size());
+    for (final Integer index : chunk) {
+      if (UserRegistrationRules.uniqueKeysOf(users.get(index)).anyMatch(existingKeys::contains)) {
+        results[index] = RegistrationResult.failed(Message.REGISTRATION_ERROR_USER_ALREADY_EXISTS);
+      } else {
+        insertable.add(index);
+      }
+    }
+    if (insertable.isEmpty()) {
+      return;
     }
-  }
 
-  private void validateIfAlreadyExists(final User user) {
-    final UserFilter filter = UserFilter.builder()
-        .cpf(user.getCpf().getRaw())
-        .email(user.getEmail())
-        .operator(LogicalOperator.OR)
-        .build();
-
-    if (!CollectionUtils.isEmpty(this.accountRepository.find(filter))) {
-      log.warn("User is already registered!");
-      throw new AlreadyExistsException(
-          Message.REGISTRATION_ERROR_USER_ALREADY_EXISTS.getCode(),
-          Message.REGISTRATION_ERROR_USER_ALREADY_EXISTS.getMessage());
+    final List<RegistrationResult> inserted = this.accountRepository.createAll(insertable.stream().map(users::get).collect(Collectors.toList()));
+    for (int i = 0; i < insertable.size(); i++) {
+      results[insertable.get(i)] = inserted.get(i);
     }
   }
 
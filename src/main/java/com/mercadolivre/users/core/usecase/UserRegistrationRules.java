@@ -0,0 +1,110 @@
+package com.mercadolivre.users.core.usecase;
+
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.Message;
+import com.mercadolivre.users.core.entity.RegistrationResult;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserChanges;
+import com.mercadolivre.users.core.entity.UserField;
+import com.mercadolivre.users.core.exception.AgeBelowException;
+import com.mercadolivre.users.core.exception.CPFInvalidException;
+import com.mercadolivre.users.core.exception.VersionConflictException;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registration rules shared by the single and the batch registration. The batch flavour reports the
+ * broken rule as a {@link RegistrationResult} instead of throwing, so that a batch does not pay for
+ * an exception and a log line per rejected user.
+ */
+@Slf4j
+public final class UserRegistrationRules {
+
+  static final int ALLOWED_MINIMAL_AGE = 18;
+
+  private UserRegistrationRules() {
+  }
+
+  static User validate(final User user) {
+    validateAge(user);
+    validateCPF(user);
+    return user;
+  }
+
+  /**
+   * Only the changed fields are checked, in the same order as a whole user. A CPF or a birth date
+   * can be replaced but never removed.
+   */
+  static UserChanges validate(final UserChanges changes) {
+    if (changes.changes(UserField.BIRTH_DATE)) {
+      validateAge((LocalDate) required(changes, UserField.BIRTH_DATE));
+    }
+    if (changes.changes(UserField.CPF)) {
+      validateCPF((BrazilianCPF) required(changes, UserField.CPF));
+    }
+    return changes;
+  }
+
+  static void validateCPF(final User user) {
+    validateCPF(user.getCpf());
+  }
+
+  static void validateCPF(final BrazilianCPF cpf) {
+    if (!cpf.isValid()) {
+      log.error("CPF is invalid.");
+      throw new CPFInvalidException(
+          Message.REGISTRATION_ERROR_CPF_INVALID.getCode(),
+          Message.REGISTRATION_ERROR_CPF_INVALID.getMessage());
+    }
+  }
+
+  static void validateAge(final User user) {
+    validateAge(user.getBirthDate());
+  }
+
+  static void validateAge(final LocalDate birthDate) {
+    if (!User.isValidAge(birthDate, ALLOWED_MINIMAL_AGE)) {
+      log.error("The user is below the allowed age.");
+      throw new AgeBelowException(
+          Message.REGISTRATION_ERROR_AGE_BELOW_X.getCode(),
+          Message.REGISTRATION_ERROR_AGE_BELOW_X.getMessage());
+    }
+  }
+
+  static VersionConflictException versionConflict(final String id) {
+    log.warn("User {} has been modified since the expected version!", id);
+    return new VersionConflictException(
+        Message.REGISTRATION_ERROR_VERSION_CONFLICT.getCode(),
+        Message.REGISTRATION_ERROR_VERSION_CONFLICT.getMessage());
+  }
+
+  private static Object required(final UserChanges changes, final UserField field) {
+    final Object value = changes.valueOf(field);
+    if (value == null) {
+      throw new IllegalArgumentException(String.format("User field %s cannot be removed!", field.getName()));
+    }
+    return value;
+  }
+
+  static Optional<RegistrationResult> check(final User user) {
+    if (!user.isValidAge(ALLOWED_MINIMAL_AGE)) {
+      return Optional.of(RegistrationResult.failed(Message.REGISTRATION_ERROR_AGE_BELOW_X));
+    }
+    if (!user.getCpf().isValid()) {
+      return Optional.of(RegistrationResult.failed(Message.REGISTRATION_ERROR_CPF_INVALID));
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Keys under which the unique indexes compare users: raw CPF digits and case-insensitive email.
+   */
+  public static Stream<String> uniqueKeysOf(final User user) {
+    return Stream.concat(
+        Stream.ofNullable(user.getCpf()).map(cpf -> "cpf:" + cpf.getRaw()),
+        Stream.ofNullable(user.getEmail()).map(email -> "email:" + email.toLowerCase(Locale.ROOT)));
+  }
+}
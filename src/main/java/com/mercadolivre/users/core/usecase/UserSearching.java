@@ -1,20 +1,39 @@
 package com.mercadolivre.users.core.usecase;
 
 import com.mercadolivre.users.core.dataprovider.AccountRepository;
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.IdLookup;
+import com.mercadolivre.users.core.entity.JsonPage;
 import com.mercadolivre.users.core.entity.Message;
+import com.mercadolivre.users.core.entity.Projection;
 import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserChanges;
 import com.mercadolivre.users.core.entity.UserFilter;
 import com.mercadolivre.users.core.exception.NotFoundException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
 class UserSearching implements AccountSearchEngine<User, UserFilter> {
-  private final AccountRepository<User, UserFilter> accountRepository;
 
-  public UserSearching(final AccountRepository<User, UserFilter> accountRepository) {
+  static final int MAX_LOOKUP_IDS = 1000;
+  private static final int OBJECT_ID_LENGTH = 24;
+
+  private final AccountRepository<User, UserFilter, UserChanges> accountRepository;
+
+  public UserSearching(final AccountRepository<User, UserFilter, UserChanges> accountRepository) {
     this.accountRepository = accountRepository;
   }
 
@@ -22,17 +41,99 @@ class UserSearching implements AccountSearchEngine<User, UserFilter> {
   public User findById(final String id) {
     return this.accountRepository
         .findById(id)
-        .orElseThrow(() -> {
-          log.error("User {} not found!", id);
-          return new NotFoundException(
-              Message.ERROR_TEMPLATE_USER_NOT_FOUND.getCode(),
-              String.format(Message.ERROR_TEMPLATE_USER_NOT_FOUND.getMessage(), id));
-        });
+        .orElseThrow(() -> notFound(id));
+  }
+
+  @Override
+  public User findById(final String id, final Projection projection) {
+    return this.accountRepository
+        .findById(id, projection)
+        .orElseThrow(() -> notFound(id));
+  }
+
+  @Override
+  public long findVersion(final String id) {
+    return this.accountRepository
+        .findVersion(id)
+        .orElseThrow(() -> notFound(id));
+  }
+
+  @Override
+  public IdLookup<User> findAllById(final List<String> ids, final Projection projection) {
+    final Set<String> distinctIds = distinctLookupIds(ids);
+    if (distinctIds.isEmpty()) {
+      return new IdLookup<>(List.of(), List.of());
+    }
+    return inRequestOrder(distinctIds, this.accountRepository.findAllById(distinctIds, projection));
+  }
+
+  /**
+   * Ids in the order and spelling they were first given, those naming the same user once.
+   */
+  static Set<String> distinctLookupIds(final List<String> ids) {
+    final Map<String, String> distinctIds = new LinkedHashMap<>();
+    for (final String id : ids) {
+      distinctIds.putIfAbsent(lookupKeyOf(id), id);
+    }
+    if (distinctIds.size() > MAX_LOOKUP_IDS) {
+      throw new IllegalArgumentException(String.format("Lookup must have at most %d ids!", MAX_LOOKUP_IDS));
+    }
+    return new LinkedHashSet<>(distinctIds.values());
+  }
+
+  static IdLookup<User> inRequestOrder(final Set<String> distinctIds, final List<User> foundUsers) {
+    final Map<String, User> usersById = foundUsers.stream()
+        .collect(Collectors.toMap(user -> lookupKeyOf(user.getId()), Function.identity()));
+
+    final List<User> users = new ArrayList<>(usersById.size());
+    final List<String> missingIds = new ArrayList<>();
+    for (final String id : distinctIds) {
+      final User user = usersById.get(lookupKeyOf(id));
+      if (user == null) {
+        missingIds.add(id);
+      } else {
+        users.add(user);
+      }
+    }
+    return new IdLookup<>(users, missingIds);
+  }
+
+  /**
+   * Ids of 24 hexadecimal digits are ObjectIds, found whatever the case of their digits and returned
+   * in lower case, so they are compared in lower case.
+   */
+  private static String lookupKeyOf(final String id) {
+    if (id == null || id.length() != OBJECT_ID_LENGTH) {
+      return id;
+    }
+    for (int i = 0; i < OBJECT_ID_LENGTH; i++) {
+      if (Character.digit(id.charAt(i), 16) < 0) {
+        return id;
+      }
+    }
+    return id.toLowerCase(Locale.ROOT);
+  }
+
+  @Override
+  public CursorPage<User> searchBy(final UserFilter userFilter, final CursorPageRequest page, final Projection projection) {
+    return this.accountRepository.find(userFilter, page, projection);
   }
 
   @Override
-  public List<User> searchBy(final UserFilter userFilter) {
-    return this.accountRepository.find(userFilter);
+  public JsonPage searchJsonBy(final UserFilter userFilter, final CursorPageRequest page, final Projection projection) {
+    return this.accountRepository.findJson(userFilter, page, projection);
+  }
+
+  @Override
+  public Stream<User> streamBy(final UserFilter userFilter, final Projection projection) {
+    return this.accountRepository.stream(userFilter, projection);
+  }
+
+  static NotFoundException notFound(final String id) {
+    log.error("User {} not found!", id);
+    return new NotFoundException(
+        Message.ERROR_TEMPLATE_USER_NOT_FOUND.getCode(),
+        String.format(Message.ERROR_TEMPLATE_USER_NOT_FOUND.getMessage(), id));
   }
 
 }
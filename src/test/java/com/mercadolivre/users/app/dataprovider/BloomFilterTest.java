@@ -0,0 +1,54 @@
+package com.mercadolivre.users.app.dataprovider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("[BloomFilter] Unit Tests")
+class BloomFilterTest {
+
+  @Test
+  @DisplayName("Should never report an inserted value as absent")
+  void shouldHaveNoFalseNegatives() {
+    final BloomFilter filter = BloomFilter.create(10_000, 0.01);
+
+    IntStream.range(0, 10_000).forEach(i -> filter.put("email:user" + i + "@users.com"));
+
+    assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("email:user" + i + "@users.com"))).isTrue();
+    assertThat(filter.insertions()).isEqualTo(10_000);
+  }
+
+  @Test
+  @DisplayName("Should keep false positives close to the configured rate")
+  void shouldKeepFalsePositivesCloseToConfiguredRate() {
+    final BloomFilter filter = BloomFilter.create(10_000, 0.01);
+    IntStream.range(0, 10_000).forEach(i -> filter.put("cpf:" + (10_000_000_000L + i)));
+
+    final long falsePositives = IntStream.range(0, 100_000)
+        .filter(i -> filter.mightContain("cpf:" + (20_000_000_000L + i)))
+        .count();
+
+    assertThat(falsePositives / 100_000d).isLessThan(0.02);
+    assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.02);
+  }
+
+  @Test
+  @DisplayName("Should size bits and hash functions from expected insertions and false positive rate")
+  void shouldSizeFromExpectedInsertionsAndRate() {
+    final BloomFilter filter = BloomFilter.create(1_000_000, 0.01);
+
+    assertThat(filter.bitSize()).isBetween(9_585_000L, 9_585_100L);
+    assertThat(filter.hashFunctions()).isEqualTo(7);
+    assertThat(filter.memoryInBytes()).isEqualTo(filter.bitSize() / 8);
+  }
+
+  @Test
+  @DisplayName("Should reject invalid sizing")
+  void shouldRejectInvalidSizing() {
+    assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, 0.01));
+    assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(1000, 1));
+  }
+}
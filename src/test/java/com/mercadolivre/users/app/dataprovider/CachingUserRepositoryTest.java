@@ -0,0 +1,283 @@
+package com.mercadolivre.users.app.dataprovider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import com.mercadolivre.users.app.dataprovider.model.CpfStorage;
+import com.mercadolivre.users.app.dataprovider.query.UserQueryCompiler;
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.Message;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.RegistrationResult;
+import com.mercadolivre.users.core.entity.SearchType;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserChanges;
+import com.mercadolivre.users.core.entity.UserField;
+import com.mercadolivre.users.core.entity.UserFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("[CachingUserRepository] Unit Tests")
+class CachingUserRepositoryTest {
+
+  private static final String USER_ID = "65b6c19ae3ee4232dbd2f2e2";
+
+  @Mock
+  private UserMongoRepository userMongoRepository;
+
+  private SimpleMeterRegistry meterRegistry;
+  private CachingUserRepository cachingUserRepository;
+
+  @BeforeEach
+  void setUp() {
+    this.meterRegistry = new SimpleMeterRegistry();
+    final UserSearchCache searchCache = new UserSearchCache(new UserQueryCompiler(CpfStorage.STRING), meterRegistry, 100, Duration.ofMinutes(5));
+    this.cachingUserRepository = new CachingUserRepository(userMongoRepository, searchCache, meterRegistry, 100, Duration.ofMinutes(5));
+  }
+
+  @Test
+  @DisplayName("Should read a user from Mongo only once while it is cached")
+  void shouldReadThroughOnlyOnce() {
+    final User user = getUserSample();
+    given(userMongoRepository.findById(USER_ID)).willReturn(Optional.of(user));
+
+    assertThat(cachingUserRepository.findById(USER_ID)).contains(user);
+    assertThat(cachingUserRepository.findById(USER_ID)).contains(user);
+    assertThat(cachingUserRepository.findById(USER_ID, Projection.of("email"))).contains(user);
+
+    verify(userMongoRepository, times(1)).findById(USER_ID);
+    verifyNoMoreInteractions(userMongoRepository);
+    assertThat(meterRegistry.get("cache.gets").tag("cache", CachingUserRepository.CACHE_NAME).tag("result", "hit").functionCounter().count()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should answer the version of a cached user without going to Mongo")
+  void shouldAnswerTheVersionOfACachedUser() {
+    final User user = getUserSample();
+    user.setVersion(4L);
+    given(userMongoRepository.findById(USER_ID)).willReturn(Optional.of(user));
+    given(userMongoRepository.findVersion("missing")).willReturn(Optional.empty());
+    cachingUserRepository.findById(USER_ID);
+
+    assertThat(cachingUserRepository.findVersion(USER_ID)).contains(4L);
+    assertThat(cachingUserRepository.findVersion("missing")).isEmpty();
+
+    verify(userMongoRepository, times(0)).findVersion(USER_ID);
+  }
+
+  @Test
+  @DisplayName("Should not cache users that do not exist")
+  void shouldNotCacheMissingUsers() {
+    given(userMongoRepository.findById(USER_ID)).willReturn(Optional.empty());
+
+    assertThat(cachingUserRepository.findById(USER_ID)).isEmpty();
+    assertThat(cachingUserRepository.findById(USER_ID)).isEmpty();
+
+    verify(userMongoRepository, times(2)).findById(USER_ID);
+  }
+
+  @Test
+  @DisplayName("Should evict a user when it is updated")
+  void shouldEvictUpdatedUser() {
+    final User user = getUserSample();
+    given(userMongoRepository.findById(USER_ID)).willReturn(Optional.of(user));
+    cachingUserRepository.findById(USER_ID);
+
+    cachingUserRepository.update(user);
+    cachingUserRepository.findById(USER_ID);
+
+    verify(userMongoRepository).update(user);
+    verify(userMongoRepository, times(2)).findById(USER_ID);
+  }
+
+  @Test
+  @DisplayName("Should cache a user asked for in upper case hex under its own id, so that updates evict it")
+  void shouldEvictUsersAskedForInUpperCase() {
+    final User user = getUserSample();
+    user.setVersion(4L);
+    final String upperCaseId = USER_ID.toUpperCase();
+    given(userMongoRepository.findById(USER_ID)).willReturn(Optional.of(user));
+    given(userMongoRepository.update(any(String.class), any(UserChanges.class))).willReturn(true);
+    given(userMongoRepository.findVersion(upperCaseId)).willReturn(Optional.of(5L));
+    cachingUserRepository.findById(upperCaseId);
+    assertThat(cachingUserRepository.findVersion(USER_ID)).contains(4L);
+
+    cachingUserRepository.update(USER_ID, new UserChanges(Map.of(UserField.NAME, "Bill"), 4L));
+
+    assertThat(cachingUserRepository.findVersion(upperCaseId)).contains(5L);
+    cachingUserRepository.findById(upperCaseId);
+    verify(userMongoRepository, times(2)).findById(USER_ID);
+  }
+
+  @Test
+  @DisplayName("Should return the users of ids asked for in upper case hex")
+  void shouldLoadUsersAskedForInUpperCase() {
+    final User user = getUserSample();
+    given(userMongoRepository.findAllById(any(), any())).willReturn(List.of(user));
+
+    assertThat(cachingUserRepository.findAllById(List.of(USER_ID.toUpperCase()), Projection.ALL)).containsExactly(user);
+
+    verify(userMongoRepository).findAllById(List.of(USER_ID), Projection.ALL);
+  }
+
+  @Test
+  @DisplayName("Should coalesce concurrent misses of the same id into a single read")
+  void shouldCoalesceConcurrentMisses() throws Exception {
+    final CountDownLatch loading = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    given(userMongoRepository.findById(USER_ID)).willAnswer(invocation -> {
+      loading.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return Optional.of(getUserSample());
+    });
+
+    final CompletableFuture<Optional<User>> first = CompletableFuture.supplyAsync(() -> cachingUserRepository.findById(USER_ID));
+    assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+    final List<CompletableFuture<Optional<User>>> others = IntStream.range(0, 4)
+        .mapToObj(i -> CompletableFuture.supplyAsync(() -> cachingUserRepository.findById(USER_ID)))
+        .collect(Collectors.toList());
+    release.countDown();
+
+    assertThat(first.get(5, TimeUnit.SECONDS)).isPresent();
+    for (final CompletableFuture<Optional<User>> other : others) {
+      assertThat(other.get(5, TimeUnit.SECONDS)).isPresent();
+    }
+    verify(userMongoRepository, times(1)).findById(USER_ID);
+  }
+
+  @Test
+  @DisplayName("Should only query the ids that are not cached yet")
+  void shouldLoadOnlyUncachedIds() {
+    final User cached = getUserSample();
+    final User uncached = new User("65b6c19ae3ee4232dbd2f2e3", "Jean", new BrazilianCPF("18327164309"), "jean@billy.com", LocalDate.of(1990, 1, 21));
+    given(userMongoRepository.findById(USER_ID)).willReturn(Optional.of(cached));
+    given(userMongoRepository.findAllById(any(), any())).willReturn(List.of(uncached));
+    cachingUserRepository.findById(USER_ID);
+
+    final List<User> actualUsers = cachingUserRepository.findAllById(List.of(USER_ID, uncached.getId(), "65b6c19ae3ee4232dbd2f2e4"), Projection.ALL);
+
+    assertThat(actualUsers).containsExactlyInAnyOrder(cached, uncached);
+    verify(userMongoRepository).findAllById(List.of(uncached.getId(), "65b6c19ae3ee4232dbd2f2e4"), Projection.ALL);
+  }
+
+  @Test
+  @DisplayName("Should serve a search page again from the cached ids, whatever wildcard ends the pattern")
+  void shouldServeCachedSearchPages() {
+    final User user = getUserSample();
+    final CursorPageRequest page = CursorPageRequest.of(10, null);
+    given(userMongoRepository.find(any(UserFilter.class), any(CursorPageRequest.class), any(Projection.class)))
+        .willReturn(new CursorPage<>(List.of(user), null));
+    given(userMongoRepository.findAllById(any(), any())).willReturn(List.of(user));
+
+    cachingUserRepository.find(likeName("bil*"), page, Projection.ALL);
+    final CursorPage<User> cachedPage = cachingUserRepository.find(likeName("bil%"), page, Projection.ALL);
+
+    assertThat(cachedPage.items()).containsExactly(user);
+    verify(userMongoRepository, times(1)).find(any(UserFilter.class), any(CursorPageRequest.class), any(Projection.class));
+    assertThat(meterRegistry.get("cache.gets").tag("cache", UserSearchCache.CACHE_NAME).tag("result", "hit").functionCounter().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should only evict the search pages a written user could be in")
+  void shouldEvictOnlyTheSearchPagesOfWrittenUsers() {
+    final User user = getUserSample();
+    final CursorPageRequest page = CursorPageRequest.of(10, null);
+    given(userMongoRepository.find(eq(likeName("Bil")), any(CursorPageRequest.class), any(Projection.class)))
+        .willReturn(new CursorPage<>(List.of(user), null));
+    given(userMongoRepository.find(eq(likeName("Jo")), any(CursorPageRequest.class), any(Projection.class)))
+        .willReturn(new CursorPage<>(List.of(), null));
+    given(userMongoRepository.findAllById(any(), any())).willReturn(List.of(user));
+    given(userMongoRepository.create(any(User.class))).willReturn("65b6c19ae3ee4232dbd2f2e9");
+    given(userMongoRepository.update(any(String.class), any(UserChanges.class))).willReturn(true);
+    cachingUserRepository.find(likeName("Bil"), page, Projection.ALL);
+    cachingUserRepository.find(likeName("Jo"), page, Projection.ALL);
+
+    cachingUserRepository.create(new User("Joe", new BrazilianCPF("18327164309"), "joe@billy.com", LocalDate.of(1990, 1, 21)));
+    assertThat(cachingUserRepository.find(likeName("Bil"), page, Projection.ALL).items()).containsExactly(user);
+    cachingUserRepository.find(likeName("Jo"), page, Projection.ALL);
+
+    cachingUserRepository.update(USER_ID, new UserChanges(Map.of(UserField.EMAIL, "billy@jean.org"), null));
+    cachingUserRepository.find(likeName("Bil"), page, Projection.ALL);
+    cachingUserRepository.find(likeName("Jo"), page, Projection.ALL);
+
+    verify(userMongoRepository, times(2)).find(eq(likeName("Bil")), any(CursorPageRequest.class), any(Projection.class));
+    verify(userMongoRepository, times(2)).find(eq(likeName("Jo")), any(CursorPageRequest.class), any(Projection.class));
+  }
+
+  @Test
+  @DisplayName("Should evict the search pages of every user created in a batch")
+  void shouldEvictTheSearchPagesOfABatch() {
+    final CursorPageRequest page = CursorPageRequest.of(10, null);
+    given(userMongoRepository.find(any(UserFilter.class), any(CursorPageRequest.class), any(Projection.class)))
+        .willReturn(new CursorPage<>(List.of(), null));
+    given(userMongoRepository.createAll(any())).willReturn(List.of(
+        RegistrationResult.created("65b6c19ae3ee4232dbd2f2e9"),
+        RegistrationResult.failed(Message.REGISTRATION_ERROR_USER_ALREADY_EXISTS),
+        RegistrationResult.created("65b6c19ae3ee4232dbd2f2ea")));
+    for (final String name : List.of("Jo", "An", "Bil", "Ze")) {
+      cachingUserRepository.find(likeName(name), page, Projection.ALL);
+    }
+
+    cachingUserRepository.createAll(List.of(
+        new User("Joe", new BrazilianCPF("18327164309"), "joe@mail.com", LocalDate.of(1990, 1, 21)),
+        new User("Zeca", new BrazilianCPF("13087756792"), "zeca@mail.com", LocalDate.of(1990, 1, 21)),
+        new User("Ana", new BrazilianCPF("86371844563"), "ana@mail.com", LocalDate.of(1990, 1, 21))));
+    for (final String name : List.of("Jo", "An", "Bil", "Ze")) {
+      cachingUserRepository.find(likeName(name), page, Projection.ALL);
+    }
+
+    verify(userMongoRepository, times(2)).find(eq(likeName("Jo")), any(CursorPageRequest.class), any(Projection.class));
+    verify(userMongoRepository, times(2)).find(eq(likeName("An")), any(CursorPageRequest.class), any(Projection.class));
+    verify(userMongoRepository, times(1)).find(eq(likeName("Bil")), any(CursorPageRequest.class), any(Projection.class));
+    verify(userMongoRepository, times(1)).find(eq(likeName("Ze")), any(CursorPageRequest.class), any(Projection.class));
+  }
+
+  @Test
+  @DisplayName("Should not cache a search page read while a user was written")
+  void shouldNotCacheSearchPagesReadDuringAWrite() {
+    final User user = getUserSample();
+    final CursorPageRequest page = CursorPageRequest.of(10, null);
+    given(userMongoRepository.find(any(UserFilter.class), any(CursorPageRequest.class), any(Projection.class)))
+        .willAnswer(invocation -> {
+          cachingUserRepository.update(USER_ID, new UserChanges(Map.of(UserField.NAME, "Bill"), null));
+          return new CursorPage<>(List.of(user), null);
+        });
+    given(userMongoRepository.update(any(String.class), any(UserChanges.class))).willReturn(true);
+
+    cachingUserRepository.find(likeName("Bil"), page, Projection.ALL);
+    cachingUserRepository.find(likeName("Bil"), page, Projection.ALL);
+
+    verify(userMongoRepository, times(2)).find(any(UserFilter.class), any(CursorPageRequest.class), any(Projection.class));
+  }
+
+  private static UserFilter likeName(final String name) {
+    return UserFilter.builder().type(SearchType.LIKE).name(name).build();
+  }
+
+  private User getUserSample() {
+    return new User(USER_ID, "Billy", new BrazilianCPF("86371844563"), "billy@jean.com", LocalDate.of(1990, 1, 21));
+  }
+}
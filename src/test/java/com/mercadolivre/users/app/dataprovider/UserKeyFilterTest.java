@@ -0,0 +1,93 @@
+package com.mercadolivre.users.app.dataprovider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("[UserKeyFilter] Unit Tests")
+class UserKeyFilterTest {
+
+  @Mock
+  private MongoTemplate mongoTemplate;
+
+  private SimpleMeterRegistry meterRegistry;
+  private UserKeyFilter keyFilter;
+
+  @BeforeEach
+  void setUp() {
+    this.meterRegistry = new SimpleMeterRegistry();
+    this.keyFilter = new UserKeyFilter(mongoTemplate, meterRegistry, 1000, 0.01);
+  }
+
+  @Test
+  @DisplayName("Should report every user as possibly registered until rebuilt")
+  void shouldReportEveryUserUntilRebuilt() {
+    assertThat(keyFilter.isReady()).isFalse();
+    assertThat(keyFilter.mightContain(newUser("86371844563", "billy@jean.com"))).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should know registered CPFs and emails of both layouts after rebuilding from the collection")
+  void shouldKnowRegisteredKeysAfterRebuild() {
+    given(mongoTemplate.estimatedCount(anyString())).willReturn(1L);
+    given(mongoTemplate.stream(any(Query.class), eq(Document.class), anyString()))
+        .willReturn(Stream.of(
+            new Document("cpf", "86371844563").append("email", "Billy@Jean.com"),
+            new Document("c", 13087756792L).append("e", "josh@something.com")));
+
+    keyFilter.rebuild();
+
+    assertThat(keyFilter.isReady()).isTrue();
+    assertThat(keyFilter.mightContain(newUser("130.877.567-92", "someone@else.com"))).isTrue();
+    assertThat(keyFilter.mightContain(newUser("863.718.445-63", "someone@else.com"))).isTrue();
+    assertThat(keyFilter.mightContain(newUser("18327164309", "billy@jean.com"))).isTrue();
+    assertThat(keyFilter.mightContain(newUser("18327164309", "jean@billy.com"))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should know users added after the rebuild and report its memory")
+  void shouldKnowAddedUsers() {
+    given(mongoTemplate.estimatedCount(anyString())).willReturn(0L);
+    given(mongoTemplate.stream(any(Query.class), eq(Document.class), anyString())).willReturn(Stream.empty());
+    keyFilter.rebuild();
+
+    keyFilter.add(newUser("18327164309", "jean@billy.com"));
+
+    assertThat(keyFilter.mightContain(newUser("18327164309", "other@billy.com"))).isTrue();
+    assertThat(meterRegistry.get("users.key-filter.insertions").gauge().value()).isEqualTo(2);
+    assertThat(meterRegistry.get("users.key-filter.memory").gauge().value()).isPositive();
+  }
+
+  @Test
+  @DisplayName("Should keep reporting every user as possibly registered when rebuild fails")
+  void shouldFallBackWhenRebuildFails() {
+    given(mongoTemplate.estimatedCount(anyString())).willThrow(new IllegalStateException("Mongo is down"));
+
+    keyFilter.rebuild();
+
+    assertThat(keyFilter.isReady()).isFalse();
+    assertThat(keyFilter.mightContain(newUser("18327164309", "jean@billy.com"))).isTrue();
+  }
+
+  private User newUser(final String cpf, final String email) {
+    return new User("Billy", new BrazilianCPF(cpf), email, LocalDate.of(1990, 1, 21));
+  }
+}
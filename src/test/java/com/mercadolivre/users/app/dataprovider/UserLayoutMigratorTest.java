@@ -0,0 +1,112 @@
+package com.mercadolivre.users.app.dataprovider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.mercadolivre.users.app.dataprovider.model.CpfStorage;
+import com.mercadolivre.users.app.dataprovider.model.UserLayout;
+import com.mercadolivre.users.app.dataprovider.model.UserModel;
+import com.mercadolivre.users.app.dataprovider.model.UserStorageFormat;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.CollectionCallback;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@DisplayName("[UserLayoutMigrator] Unit Tests")
+class UserLayoutMigratorTest {
+
+  private static final List<UserModel> STANDARD_USERS = List.of(
+      new UserModel("65b2f0c1e4b0a1a2b3c4d5e6", "Jean Grey", 18327164309L, "jean@grey.com", LocalDate.of(1991, 2, 10), null, null),
+      new UserModel("65b2f0c1e4b0a1a2b3c4d5e7", "Josh", 13087756792L, "josh@something.com", LocalDate.of(1990, 1, 1), null, null));
+
+  private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+  @SuppressWarnings("unchecked")
+  private final MongoCollection<UserModel> users = mock(MongoCollection.class, RETURNS_SELF);
+  @SuppressWarnings("unchecked")
+  private final FindIterable<UserModel> found = mock(FindIterable.class, RETURNS_SELF);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private UserLayoutMigrator migrator;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    final MongoCollection<Document> collection = mock(MongoCollection.class);
+    given(collection.withDocumentClass(UserModel.class)).willReturn(this.users);
+    given(this.mongoTemplate.execute(eq(UserMongoRepository.COLLECTION_NAME), any(CollectionCallback.class)))
+        .willAnswer(invocation -> invocation.getArgument(1, CollectionCallback.class).doInCollection(collection));
+    given(this.users.find(any(Bson.class))).willReturn(this.found);
+    this.migrator = new UserLayoutMigrator(this.mongoTemplate, new UserStorageFormat(UserLayout.COMPACT, true, CpfStorage.INT64),
+        this.meterRegistry, true, 2, Duration.ofMillis(100));
+  }
+
+  @Test
+  @DisplayName("Should move past users whose rewrite fails and finish the migration")
+  @SuppressWarnings("unchecked")
+  void shouldMovePastFailedRewrites() {
+    given(this.found.into(anyList()))
+        .willAnswer(invocation -> {
+          invocation.<List<UserModel>>getArgument(0).addAll(STANDARD_USERS);
+          return invocation.getArgument(0);
+        })
+        .willAnswer(invocation -> invocation.getArgument(0));
+    given(this.users.bulkWrite(anyList(), any())).willThrow(new MongoBulkWriteException(
+        BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()),
+        List.of(new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1)),
+        null, new ServerAddress(), Set.of()));
+
+    assertThat(this.migrator.migrateBatch()).isEqualTo(2);
+    assertThat(this.migrator.migrateBatch()).isZero();
+
+    assertThat(this.migrator.isDone()).isTrue();
+    assertThat(this.meterRegistry.get(UserLayoutMigrator.MIGRATED_COUNTER).counter().count()).isEqualTo(1);
+    assertThat(this.meterRegistry.get(UserLayoutMigrator.FAILURES_COUNTER).counter().count()).isEqualTo(1);
+    assertThat(this.meterRegistry.get(UserLayoutMigrator.CONFLICTS_COUNTER).counter().count()).isZero();
+    final ArgumentCaptor<Bson> filters = ArgumentCaptor.forClass(Bson.class);
+    verify(this.users, times(2)).find(filters.capture());
+    assertThat(filters.getAllValues().get(1)).isEqualTo(new Document("v", new Document("$exists", false))
+        .append("_id", new Document("$gt", new ObjectId("65b2f0c1e4b0a1a2b3c4d5e7"))));
+  }
+
+  @Test
+  @DisplayName("Should pass again over users changed while being rewritten")
+  @SuppressWarnings("unchecked")
+  void shouldPassAgainOverChangedUsers() {
+    given(this.found.into(anyList()))
+        .willAnswer(invocation -> {
+          invocation.<List<UserModel>>getArgument(0).addAll(STANDARD_USERS);
+          return invocation.getArgument(0);
+        })
+        .willAnswer(invocation -> invocation.getArgument(0));
+    given(this.users.bulkWrite(anyList(), any())).willReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+
+    this.migrator.migrateBatch();
+    this.migrator.migrateBatch();
+
+    assertThat(this.migrator.isDone()).isFalse();
+    assertThat(this.meterRegistry.get(UserLayoutMigrator.CONFLICTS_COUNTER).counter().count()).isEqualTo(1);
+  }
+}
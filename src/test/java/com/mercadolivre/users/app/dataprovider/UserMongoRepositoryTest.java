@@ -0,0 +1,179 @@
+package com.mercadolivre.users.app.dataprovider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.mercadolivre.users.app.dataprovider.model.CpfStorage;
+import com.mercadolivre.users.app.dataprovider.model.UserLayout;
+import com.mercadolivre.users.app.dataprovider.model.UserModel;
+import com.mercadolivre.users.app.dataprovider.model.UserStorageFormat;
+import com.mercadolivre.users.app.dataprovider.query.UserQueryCompiler;
+import com.mercadolivre.users.app.dataprovider.query.UserQueryPlan;
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.Message;
+import com.mercadolivre.users.core.entity.RegistrationResult;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserChanges;
+import com.mercadolivre.users.core.entity.UserField;
+import com.mercadolivre.users.core.exception.AlreadyExistsException;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.CollectionCallback;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@DisplayName("[UserMongoRepository] Unit Tests")
+class UserMongoRepositoryTest {
+
+  private static final UserModel STANDARD_USER = new UserModel("65b2f0c1e4b0a1a2b3c4d5e6", "Jean Grey", 18327164309L, "jean@grey.com", LocalDate.of(1991, 2, 10), null, null);
+
+  private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+  private final UserKeyFilter keyFilter = mock(UserKeyFilter.class);
+  @SuppressWarnings("unchecked")
+  private final MongoCollection<UserModel> users = mock(MongoCollection.class, RETURNS_SELF);
+  @SuppressWarnings("unchecked")
+  private final FindIterable<UserModel> found = mock(FindIterable.class, RETURNS_SELF);
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    final MongoCollection<Document> collection = mock(MongoCollection.class);
+    given(collection.withDocumentClass(UserModel.class)).willReturn(this.users);
+    given(this.mongoTemplate.execute(eq(UserMongoRepository.COLLECTION_NAME), any(CollectionCallback.class)))
+        .willAnswer(invocation -> invocation.getArgument(1, CollectionCallback.class).doInCollection(collection));
+    given(this.users.find(any(Bson.class))).willReturn(this.found);
+    given(this.found.into(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  @Test
+  @DisplayName("Should reject a compact user whose CPF is held by a standard user while reading both layouts")
+  void shouldRejectKeysTakenInTheOtherLayout() {
+    holdersFound(STANDARD_USER);
+
+    assertThatThrownBy(() -> repository(true).create(newUser("183.271.643-09", "jean.grey@xmen.com")))
+        .isInstanceOf(AlreadyExistsException.class);
+
+    verify(this.users, never()).insertOne(any());
+    assertThat(capturedFilters().get(0).toJson()).contains("\"c\"", "\"cpf\"");
+  }
+
+  @Test
+  @DisplayName("Should reject a compact user whose email is held by a standard user, whatever its case")
+  void shouldRejectEmailsTakenInTheOtherLayoutWithoutCase() {
+    given(this.found.into(anyList()))
+        .willAnswer(invocation -> invocation.getArgument(0))
+        .willAnswer(invocation -> {
+          invocation.<List<Object>>getArgument(0).add(STANDARD_USER.toEntity());
+          return invocation.getArgument(0);
+        });
+
+    assertThatThrownBy(() -> repository(true).create(newUser("130.877.567-92", "Jean@Grey.com")))
+        .isInstanceOf(AlreadyExistsException.class);
+
+    verify(this.users, never()).insertOne(any());
+    assertThat(capturedFilters().get(1).toJson()).contains("\"e\"", "\"email\"", "Jean@Grey.com");
+    verify(this.found).collation(UserQueryPlan.CASE_INSENSITIVE.toMongoCollation());
+  }
+
+  @Test
+  @DisplayName("Should insert a user whose keys are free in both layouts")
+  void shouldInsertFreeKeys() {
+    repository(true).create(newUser("183.271.643-09", "jean.grey@xmen.com"));
+
+    verify(this.users, times(2)).find(any(Bson.class));
+    verify(this.users).insertOne(any(UserModel.class));
+  }
+
+  @Test
+  @DisplayName("Should look the keys up in both layouts even when the key filter has never seen them")
+  void shouldNotTrustTheKeyFilterWhileReadingBothLayouts() {
+    given(this.keyFilter.mightContain(any(User.class))).willReturn(false);
+    holdersFound(STANDARD_USER);
+
+    assertThatThrownBy(() -> repository(true).create(newUser("183.271.643-09", "jean.grey@xmen.com")))
+        .isInstanceOf(AlreadyExistsException.class);
+    assertThat(repository(true).findConflicting(List.of(newUser("183.271.643-09", "jean.grey@xmen.com")))).isNotEmpty();
+  }
+
+  @Test
+  @DisplayName("Should leave uniqueness to the indexes when reading a single layout")
+  void shouldNotLookKeysUpInASingleLayout() {
+    repository(false).create(newUser("183.271.643-09", "jean.grey@xmen.com"));
+
+    verify(this.users, never()).find(any(Bson.class));
+    verify(this.users).insertOne(any(UserModel.class));
+  }
+
+  @Test
+  @DisplayName("Should reject changing a user to keys of another user of the other layout, the user itself excepted")
+  void shouldRejectUpdatesToTakenKeys() {
+    holdersFound(STANDARD_USER);
+    final UserChanges changes = new UserChanges(Map.of(UserField.EMAIL, "jean@grey.com"), null);
+
+    assertThatThrownBy(() -> repository(true).update("65b2f0c1e4b0a1a2b3c4d5e7", changes))
+        .isInstanceOf(AlreadyExistsException.class);
+
+    verify(this.users, never()).updateOne(any(Bson.class), any(Bson.class));
+    assertThat(capturedFilters().get(0).toJson()).contains("\"$ne\": {\"$oid\": \"65b2f0c1e4b0a1a2b3c4d5e7\"}");
+  }
+
+  @Test
+  @DisplayName("Should leave out of a batch the users whose keys are taken in the other layout, emails compared without case")
+  @SuppressWarnings("unchecked")
+  void shouldLeaveTakenKeysOutOfBatches() {
+    holdersFound(STANDARD_USER);
+    final User taken = newUser("130.877.567-92", "JEAN@grey.com");
+    final User free = newUser("863.718.445-63", "josh@something.com");
+
+    final List<RegistrationResult> results = repository(true).createAll(List.of(taken, free));
+
+    assertThat(results.get(0)).isEqualTo(RegistrationResult.failed(Message.REGISTRATION_ERROR_USER_ALREADY_EXISTS));
+    assertThat(results.get(1).isCreated()).isTrue();
+    final ArgumentCaptor<List<UserModel>> inserted = ArgumentCaptor.forClass(List.class);
+    verify(this.users).insertMany(inserted.capture(), any());
+    assertThat(inserted.getValue()).extracting(UserModel::getEmail).containsExactly("josh@something.com");
+  }
+
+  private UserMongoRepository repository(final boolean dualRead) {
+    return new UserMongoRepository(this.mongoTemplate, new UserQueryCompiler(CpfStorage.INT64), this.keyFilter,
+        new UserStorageFormat(UserLayout.COMPACT, dualRead, CpfStorage.INT64));
+  }
+
+  /**
+   * Users are mapped to entities by the iterable itself, which the mock returns as is.
+   */
+  private void holdersFound(final UserModel holder) {
+    given(this.found.into(anyList())).willAnswer(invocation -> {
+      invocation.<List<Object>>getArgument(0).add(holder.toEntity());
+      return invocation.getArgument(0);
+    });
+  }
+
+  private List<Document> capturedFilters() {
+    final ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+    verify(this.users, atLeastOnce()).find(filter.capture());
+    return filter.getAllValues().stream().map(Document.class::cast).toList();
+  }
+
+  private static User newUser(final String cpf, final String email) {
+    return new User("Jean Grey", new BrazilianCPF(cpf), email, LocalDate.of(1991, 2, 10));
+  }
+}
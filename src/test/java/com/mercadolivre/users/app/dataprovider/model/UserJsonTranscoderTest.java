@@ -0,0 +1,96 @@
+package com.mercadolivre.users.app.dataprovider.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadolivre.users.app.entrypoint.dto.UserResponseDTO;
+import com.mercadolivre.users.core.entity.JsonPage;
+import com.mercadolivre.users.core.entity.Projection;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.bson.BsonBinary;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@DisplayName("[UserJsonTranscoder] Unit Tests")
+class UserJsonTranscoderTest {
+
+  private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 2, 3, 4, 5, 678_000_000);
+  private static final List<UserModel> MODELS = List.of(
+      new UserModel("65b2f0c1e4b0a1a2b3c4d5e6", "Jean Grey", "18327164309", "jean@grey.com", LocalDate.of(1991, 2, 10), CREATED_AT, CREATED_AT.plusDays(1), 3L),
+      new UserModel("65b2f0c1e4b0a1a2b3c4d5e7", "João \"Jo\" Ninguém\n", 13087756792L, "joao@ninguem.com.br", LocalDate.of(1960, 12, 31), CREATED_AT, null, 0L),
+      new UserModel("not-an-object-id", "Legacy", "1308775679", null, LocalDate.of(1, 1, 1), CREATED_AT.withYear(1969), null),
+      new UserModel("65b2f0c1e4b0a1a2b3c4d5e8", null, "183.271.643-09", "", null, null, null));
+  private static final List<Projection> PROJECTIONS = List.of(Projection.ALL, Projection.of("id,cpf,birthDate"), Projection.of("name,updatedAt"));
+
+  private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+  private final UserJsonTranscoder transcoder = new UserJsonTranscoder(ZoneId.systemDefault());
+
+  @Test
+  @DisplayName("Should render users of both layouts as the search response does")
+  void shouldRenderUsersAsTheResponse() throws Exception {
+    for (final UserLayout layout : UserLayout.values()) {
+      final UserModelCodec codec = new UserModelCodec(layout);
+      final List<RawBsonDocument> rows = MODELS.stream().map(model -> new RawBsonDocument(model, codec)).toList();
+
+      for (final Projection projection : PROJECTIONS) {
+        assertThat(render(rows, projection)).isEqualTo(expected(rows, projection));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should render fields written out of order, values of other types and unknown fields as the search response does")
+  void shouldRenderHandWrittenDocuments() throws Exception {
+    final Document stored = new Document("updatedAt", new Date(1_700_000_000_000L))
+        .append("_id", new ObjectId("65b2f0c1e4b0a1a2b3c4d5e6"))
+        .append("name", null)
+        .append("addresses", List.of(new Document("city", "Recife")))
+        .append("cpf", 1308775679)
+        .append("pattern", Pattern.compile("^a", Pattern.CASE_INSENSITIVE))
+        .append("photo", new BsonBinary(new byte[] {1, 2, 3}))
+        .append("active", true)
+        .append("b", 7000)
+        .append("ca", 1_600_000_000_000L)
+        .append("email", 42)
+        .append("version", 2);
+    final List<RawBsonDocument> rows = List.of(new RawBsonDocument(stored, new DocumentCodec()));
+
+    for (final Projection projection : PROJECTIONS) {
+      assertThat(render(rows, projection)).isEqualTo(expected(rows, projection));
+    }
+  }
+
+  @Test
+  @DisplayName("Should tell the cursor of the next page")
+  void shouldTellTheNextCursor() {
+    final JsonPage page = this.transcoder.page(List.of(), Projection.ALL, "ZbLwweSwoaKzxNXm");
+
+    assertThat(page.hasNext()).isTrue();
+    assertThat(page.nextCursor()).isEqualTo("ZbLwweSwoaKzxNXm");
+    assertThat(this.transcoder.page(List.of(), Projection.ALL, null).hasNext()).isFalse();
+  }
+
+  private String render(final List<RawBsonDocument> rows, final Projection projection) throws Exception {
+    final ByteArrayOutputStream json = new ByteArrayOutputStream();
+    this.transcoder.page(rows, projection, null).writeTo(json);
+    return json.toString(StandardCharsets.UTF_8);
+  }
+
+  private String expected(final List<RawBsonDocument> rows, final Projection projection) throws Exception {
+    return this.mapper.writeValueAsString(rows.stream()
+        .map(row -> new UserResponseDTO(row.decode(new UserModelCodec()).toEntity(), projection))
+        .toList());
+  }
+}
@@ -0,0 +1,110 @@
+package com.mercadolivre.users.app.dataprovider.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import org.bson.ByteBuf;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+@DisplayName("[UserModelCodec] Unit Tests")
+class UserModelCodecTest {
+
+  private final UserModelCodec codec = new UserModelCodec();
+  private final MappingMongoConverter converter = converter();
+
+  private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 2, 3, 4, 5, 678_000_000);
+  private static final List<UserModel> MODELS = List.of(
+      new UserModel("65b2f0c1e4b0a1a2b3c4d5e6", "Jean Grey", "18327164309", "jean@grey.com", LocalDate.of(1991, 2, 10), CREATED_AT, CREATED_AT.plusDays(1), 3L),
+      new UserModel("65b2f0c1e4b0a1a2b3c4d5e7", "João Ninguém", 13087756792L, "joao@ninguem.com.br", LocalDate.of(1960, 12, 31), CREATED_AT, null, 0L),
+      new UserModel("not-an-object-id", "Legacy", "1308775679", null, null, CREATED_AT, null),
+      new UserModel(null, null, null, null, null, null, null));
+
+  @Test
+  @DisplayName("Should write the same bytes as the mapping converter")
+  void shouldWriteTheSameBytesAsTheConverter() {
+    for (final UserModel model : MODELS) {
+      final Document converted = new Document();
+      this.converter.write(model, converted);
+
+      assertThat(bytesOf(new RawBsonDocument(model, this.codec)))
+          .isEqualTo(bytesOf(new RawBsonDocument(converted, new DocumentCodec())));
+    }
+  }
+
+  @Test
+  @DisplayName("Should read back what it wrote the way the mapping converter does")
+  void shouldReadBackWhatItWrote() {
+    for (final UserModel model : MODELS) {
+      final RawBsonDocument document = new RawBsonDocument(model, this.codec);
+
+      final UserModel decoded = document.decode(this.codec);
+
+      assertThat(decoded).isEqualTo(model).isEqualTo(this.converter.read(UserModel.class, document.decode(new DocumentCodec())));
+    }
+  }
+
+  @Test
+  @DisplayName("Should read narrow numbers, nulls and unknown fields like the mapping converter")
+  void shouldReadLikeTheConverter() {
+    final Document stored = new Document("_id", new ObjectId("65b2f0c1e4b0a1a2b3c4d5e6"))
+        .append("name", null)
+        .append("cpf", 1308775679)
+        .append("nickname", "Jeannie")
+        .append("addresses", List.of(new Document("city", "Recife")))
+        .append("birthDate", new Date(0))
+        .append("version", 2);
+    final RawBsonDocument bson = new RawBsonDocument(stored, new DocumentCodec());
+
+    final UserModel decoded = this.codec.decode(bson.asBsonReader(), DecoderContext.builder().build());
+
+    assertThat(decoded).isEqualTo(this.converter.read(UserModel.class, stored));
+    assertThat(decoded.getCpf()).isEqualTo(1308775679);
+    assertThat(decoded.getVersion()).isEqualTo(2L);
+  }
+
+  @Test
+  @DisplayName("Should write and read back the compact layout")
+  void shouldReadBackTheCompactLayout() {
+    final UserModelCodec compactCodec = new UserModelCodec(UserLayout.COMPACT);
+    final UserModel model = new UserModel("65b2f0c1e4b0a1a2b3c4d5e6", "Jean Grey", 18327164309L, "jean@grey.com", LocalDate.of(1991, 2, 10), CREATED_AT, CREATED_AT.plusDays(1), 3L);
+
+    final RawBsonDocument document = new RawBsonDocument(model, compactCodec);
+
+    assertThat(document.keySet()).containsExactly("_id", "n", "c", "e", "b", "ca", "ua", "v");
+    assertThat(document.getInt32("b").getValue()).isEqualTo((int) model.getBirthDate().toEpochDay());
+    assertThat(document.decode(compactCodec)).isEqualTo(model);
+    assertThat(document.decode(this.codec)).isEqualTo(model);
+    assertThat(new RawBsonDocument(new UserModel(null, "Legacy", "18327164309", null, null, CREATED_AT, null), compactCodec).decode(this.codec))
+        .isEqualTo(new UserModel(null, "Legacy", 18327164309L, null, null, CREATED_AT, null, 0L));
+  }
+
+  private static byte[] bytesOf(final RawBsonDocument document) {
+    final ByteBuf buffer = document.getByteBuffer();
+    final byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private static MappingMongoConverter converter() {
+    final MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+    final MongoMappingContext mappingContext = new MongoMappingContext();
+    mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+    final MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    converter.setCustomConversions(conversions);
+    converter.afterPropertiesSet();
+    return converter;
+  }
+}
@@ -0,0 +1,40 @@
+package com.mercadolivre.users.app.dataprovider.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.User;
+import java.time.LocalDate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("[UserModel] Unit Tests")
+class UserModelTest {
+
+  private final User user = new User("1", "Josh", new BrazilianCPF("013.087.756-79"), "josh@something.com", LocalDate.of(1990, 1, 20));
+
+  @Test
+  @DisplayName("Should store CPF as raw digits by default")
+  void shouldStoreCPFAsString() {
+    final UserModel model = new UserModel(user);
+
+    assertThat(model.getCpf()).isEqualTo("01308775679");
+    assertThat(model.toEntity().getCpf()).isEqualTo(user.getCpf());
+  }
+
+  @Test
+  @DisplayName("Should store CPF as int64 and read it back with its leading zeros")
+  void shouldStoreCPFAsInt64() {
+    final UserModel model = new UserModel(user, CpfStorage.INT64);
+
+    assertThat(model.getCpf()).isEqualTo(1308775679L);
+    assertThat(model.toEntity().getCpf().getRaw()).isEqualTo("01308775679");
+    assertThat(CpfStorage.rawOf(model.getCpf())).isEqualTo("01308775679");
+  }
+
+  @Test
+  @DisplayName("Should keep CPFs that are not 11 digits long as strings")
+  void shouldKeepMalformedCPFAsString() {
+    assertThat(CpfStorage.INT64.write(new BrazilianCPF("1308775679"))).isEqualTo("1308775679");
+  }
+}
@@ -0,0 +1,99 @@
+package com.mercadolivre.users.app.dataprovider.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.UserChanges;
+import com.mercadolivre.users.core.entity.UserField;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("[UserStorageFormat] Unit Tests")
+class UserStorageFormatTest {
+
+  private final UserStorageFormat compact = new UserStorageFormat(UserLayout.COMPACT, false, CpfStorage.INT64);
+  private final UserStorageFormat migrating = new UserStorageFormat(UserLayout.COMPACT, true, CpfStorage.INT64);
+
+  @Test
+  @DisplayName("Should keep queries as they are in the standard layout")
+  void shouldKeepStandardQueries() {
+    final Document query = new Document("name", "Jean Grey");
+
+    assertThat(UserStorageFormat.standard(CpfStorage.STRING).filter(query)).isSameAs(query);
+    assertThat(UserStorageFormat.standard(CpfStorage.STRING).fields(query)).isSameAs(query);
+  }
+
+  @Test
+  @DisplayName("Should rename the fields of a query to the compact keys")
+  void shouldRenameQueryFields() {
+    final Document query = new Document("_id", new Document("$gt", "65b2f0c1e4b0a1a2b3c4d5e6"))
+        .append("$or", List.of(new Document("name", "Jean"), new Document("email", "jean@grey.com")));
+
+    assertThat(this.compact.filter(query)).isEqualTo(new Document("_id", new Document("$gt", "65b2f0c1e4b0a1a2b3c4d5e6"))
+        .append("$or", List.of(new Document("n", "Jean"), new Document("e", "jean@grey.com"))));
+    assertThat(this.compact.fields(new Document("name", 1).append("cpf", 1)))
+        .isEqualTo(new Document("n", 1).append("c", 1));
+  }
+
+  @Test
+  @DisplayName("Should match both layouts while migrating")
+  void shouldMatchBothLayouts() {
+    final Document query = new Document("_id", new Document("$gt", "65b2f0c1e4b0a1a2b3c4d5e6"))
+        .append("name", "Jean")
+        .append("cpf", new Document("$in", List.of(18327164309L)));
+
+    assertThat(this.migrating.filter(query)).isEqualTo(new Document("_id", new Document("$gt", "65b2f0c1e4b0a1a2b3c4d5e6"))
+        .append("$and", List.of(
+            new Document("$or", List.of(new Document("n", "Jean"), new Document("name", "Jean"))),
+            new Document("$or", List.of(
+                new Document("c", new Document("$in", List.of(18327164309L))),
+                new Document("cpf", new Document("$in", List.of(18327164309L))))))));
+    assertThat(this.migrating.filter(new Document("email", "jean@grey.com")))
+        .isEqualTo(new Document("$or", List.of(new Document("e", "jean@grey.com"), new Document("email", "jean@grey.com"))));
+    assertThat(this.migrating.fields(new Document("name", 1)))
+        .isEqualTo(new Document("n", 1).append("name", 1));
+  }
+
+  @Test
+  @DisplayName("Should update a user in the layout it is stored in")
+  void shouldUpdateInTheStoredLayout() {
+    final Map<UserField, Object> values = new HashMap<>();
+    values.put(UserField.NAME, "Jean");
+    values.put(UserField.CPF, new BrazilianCPF("18327164309"));
+    values.put(UserField.EMAIL, null);
+    values.put(UserField.BIRTH_DATE, LocalDate.of(1991, 2, 10));
+    final UserChanges changes = new UserChanges(values, 3L);
+    final LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+    final long updatedMillis = updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    assertThat(this.migrating.update(changes, updatedAt, UserLayout.COMPACT)).isEqualTo(new Document()
+        .append("$set", new Document("n", "Jean")
+            .append("c", 18327164309L)
+            .append("b", (int) LocalDate.of(1991, 2, 10).toEpochDay())
+            .append("ua", updatedMillis))
+        .append("$unset", new Document("e", 1))
+        .append("$inc", new Document("v", 1)));
+    assertThat(this.migrating.update(changes, updatedAt, UserLayout.STANDARD).get("$inc"))
+        .isEqualTo(new Document("version", 1));
+    assertThat(this.migrating.versioned("id", 0L, UserLayout.STANDARD)).isEqualTo(new Document("_id", "id")
+        .append("version", new Document("$in", Arrays.asList(0L, null)))
+        .append("v", new Document("$exists", false)));
+  }
+
+  @Test
+  @DisplayName("Should require CPFs stored as int64 to read the compact layout")
+  void shouldRequireInt64Cpfs() {
+    assertThatThrownBy(() -> new UserStorageFormat(UserLayout.STANDARD, true, CpfStorage.STRING))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Compact users layout requires users.cpf.storage=int64!");
+  }
+}
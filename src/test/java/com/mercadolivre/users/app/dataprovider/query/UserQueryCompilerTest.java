@@ -0,0 +1,181 @@
+package com.mercadolivre.users.app.dataprovider.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.mercadolivre.users.app.dataprovider.model.CpfStorage;
+import com.mercadolivre.users.core.entity.LogicalOperator;
+import com.mercadolivre.users.core.entity.SearchType;
+import com.mercadolivre.users.core.entity.UserFilter;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+@DisplayName("[UserQueryCompiler] Unit Tests")
+class UserQueryCompilerTest {
+
+  private final UserQueryCompiler queryCompiler = new UserQueryCompiler(CpfStorage.STRING);
+
+  @Test
+  @DisplayName("Should match every user when filter has no populated fields")
+  void shouldMatchEveryUserWhenFilterIsEmpty() {
+    assertThat(queryCompiler.compile(UserFilter.builder().build()).getQueryObject()).isEqualTo(new Document());
+    assertThat(queryCompiler.compile(UserFilter.builder().operator(LogicalOperator.OR).build()).getQueryObject()).isEqualTo(new Document());
+  }
+
+  @Test
+  @DisplayName("Should combine populated fields with AND by default")
+  void shouldCombineFieldsWithAnd() {
+    final UserFilter filter = UserFilter.builder().name("Eddie").email("eddie@something.com").build();
+
+    final Document actualQuery = queryCompiler.compile(filter).getQueryObject();
+
+    assertThat(actualQuery).isEqualTo(new Document("name", "Eddie").append("email", "eddie@something.com"));
+  }
+
+  @Test
+  @DisplayName("Should combine populated fields with $or and normalize CPF")
+  void shouldCombineFieldsWithOrAndNormalizeCPF() {
+    final UserFilter filter = UserFilter.builder().cpf("183.271.643-09").email("billy@jean.com").operator(LogicalOperator.OR).build();
+
+    final Document actualQuery = queryCompiler.compile(filter).getQueryObject();
+
+    assertThat(actualQuery).isEqualTo(new Document("$or", List.of(
+        new Document("cpf", "18327164309"),
+        new Document("email", "billy@jean.com"))));
+  }
+
+  @Test
+  @DisplayName("Should keep CPF as is when normalization is disabled")
+  void shouldKeepCPFWhenNormalizationIsDisabled() {
+    final UserFilter filter = UserFilter.builder().cpf("183.271.643-09").normalize(false).build();
+
+    assertThat(queryCompiler.compile(filter).getQueryObject()).isEqualTo(new Document("cpf", "183.271.643-09"));
+  }
+
+  @Test
+  @DisplayName("Should bind values literally instead of parsing them as JSON")
+  void shouldBindValuesLiterally() {
+    final UserFilter filter = UserFilter.builder().name("O'Neil").build();
+
+    assertThat(queryCompiler.compile(filter).getQueryObject()).isEqualTo(new Document("name", "O'Neil"));
+  }
+
+  @Test
+  @DisplayName("Should compile a single plan per filter shape")
+  void shouldReusePlanForSameShape() {
+    final UserQueryPlan firstPlan = queryCompiler.planFor(UserFilter.builder().name("Eddie").build());
+    final UserQueryPlan secondPlan = queryCompiler.planFor(UserFilter.builder().name("Josh").build());
+    queryCompiler.planFor(UserFilter.builder().name("Josh").operator(LogicalOperator.OR).build());
+
+    assertThat(firstPlan).isSameAs(secondPlan);
+    assertThat(queryCompiler.cachedPlans()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should recognize the same values as the legacy CPF pattern")
+  void shouldRecognizeCPFLikeValues() {
+    for (final String value : List.of("13087756792", "130.877.567-92", "130.877.567--92", "1.", "1-", "1--2", "", ".1", "-1", "1-2.3", "Josh", "1a")) {
+      assertThat(UserQueryPlan.looksLikeCPF(value)).as(value).isEqualTo(value.matches("^(\\d+\\.*)+\\-*\\d*$"));
+    }
+  }
+
+  @Test
+  @DisplayName("Should bind LIKE as a case-insensitive prefix range")
+  void shouldBindLikeAsPrefixRange() {
+    final UserFilter filter = UserFilter.builder().name("Jos*").type(SearchType.LIKE).build();
+
+    final Query actualQuery = queryCompiler.compile(filter);
+
+    assertThat(actualQuery.getQueryObject()).isEqualTo(new Document("name", new Document("$gte", "Jos").append("$lt", "Jos\uffff")));
+    assertThat(actualQuery.getCollation()).contains(UserQueryPlan.CASE_INSENSITIVE);
+  }
+
+  @Test
+  @DisplayName("Should bind LIKE on CPF alone without collation so the unique index is used")
+  void shouldBindLikeOnCPFWithoutCollation() {
+    final UserFilter filter = UserFilter.builder().cpf("130.877%").type(SearchType.LIKE).build();
+
+    final Query actualQuery = queryCompiler.compile(filter);
+
+    assertThat(actualQuery.getQueryObject()).isEqualTo(new Document("cpf", new Document("$gte", "130877").append("$lt", "130877\uffff")));
+    assertThat(actualQuery.getCollation()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should bind CONTAINS as a text search narrowed by a literal regex per field")
+  void shouldBindContainsAsTextSearch() {
+    final UserFilter andFilter = UserFilter.builder().name("*jean grey*").email("x-men").type(SearchType.CONTAINS).build();
+    final UserFilter orFilter = UserFilter.builder().name("jean grey").email("-men").type(SearchType.CONTAINS).operator(LogicalOperator.OR).build();
+
+    assertThat(queryCompiler.compile(andFilter).getQueryObject()).isEqualTo(new Document("$text", new Document("$search", "\"jean grey\" \"x-men\""))
+        .append("name", new Document("$regex", "\\Qjean grey\\E").append("$options", "i"))
+        .append("email", new Document("$regex", "\\Qx-men\\E").append("$options", "i")));
+    assertThat(queryCompiler.compile(orFilter).getQueryObject()).isEqualTo(new Document("$text", new Document("$search", "jean grey men"))
+        .append("$or", List.of(
+            new Document("name", new Document("$regex", "\\Qjean grey\\E").append("$options", "i")),
+            new Document("email", new Document("$regex", "\\Q-men\\E").append("$options", "i")))));
+    assertThat(queryCompiler.compile(andFilter).getCollation()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should reject patterns that would need a collection scan")
+  void shouldRejectPatternsThatNeedCollectionScan() {
+    for (final String pattern : List.of("*osh", "J*sh", "J", "%")) {
+      assertThrows(IllegalArgumentException.class, () -> queryCompiler.compile(UserFilter.builder().name(pattern).type(SearchType.LIKE).build()), pattern);
+    }
+    assertThrows(IllegalArgumentException.class, () -> queryCompiler.compile(UserFilter.builder().name("je*an").type(SearchType.CONTAINS).build()));
+  }
+
+  @Test
+  @DisplayName("Should reject shapes that would need a collection scan")
+  void shouldRejectShapesThatNeedCollectionScan() {
+    assertThrows(IllegalArgumentException.class, () -> queryCompiler.compile(UserFilter.builder().cpf("130877").type(SearchType.CONTAINS).build()));
+    assertThrows(IllegalArgumentException.class, () -> queryCompiler.compile(UserFilter.builder().cpf("130877").name("Josh").type(SearchType.LIKE).operator(LogicalOperator.OR).build()));
+  }
+
+  @Test
+  @DisplayName("Should bind CPF as int64 and string, and CPF prefixes as a numeric range, when stored as int64")
+  void shouldBindCPFAsInt64WhenStoredAsInt64() {
+    final UserQueryCompiler int64Compiler = new UserQueryCompiler(CpfStorage.INT64);
+
+    assertThat(int64Compiler.compile(UserFilter.builder().cpf("013.087.756-79").build()).getQueryObject())
+        .isEqualTo(new Document("cpf", new Document("$in", List.of(1308775679L, "01308775679"))));
+    assertThat(int64Compiler.compile(UserFilter.builder().cpf("013.087*").type(SearchType.LIKE).build()).getQueryObject())
+        .isEqualTo(new Document("cpf", new Document("$gte", 1308700000L).append("$lt", 1308800000L)));
+    assertThat(int64Compiler.compile(UserFilter.builder().cpf("183.271.643-09").normalize(false).build()).getQueryObject())
+        .isEqualTo(new Document("cpf", "183.271.643-09"));
+  }
+
+  @Test
+  @DisplayName("Should give filters running the same query the same canonical form")
+  void shouldCanonicalizeFiltersRunningTheSameQuery() {
+    final UserFilter filter = UserFilter.builder().cpf("183.271*").type(SearchType.LIKE).operator(LogicalOperator.OR).build();
+
+    final UserFilter canonical = queryCompiler.planFor(filter).canonical(filter);
+
+    assertThat(canonical).isEqualTo(UserFilter.builder().cpf("183271").type(SearchType.LIKE).normalize(false).build());
+    final UserFilter sameUsers = UserFilter.builder().cpf("183271%").type(SearchType.LIKE).build();
+    assertThat(queryCompiler.planFor(sameUsers).canonical(sameUsers)).isEqualTo(canonical);
+  }
+
+  @Test
+  @DisplayName("Should tell whether user values could match a filter, unknown values matching anything")
+  void shouldTellWhetherValuesCouldMatch() {
+    final UserFilter like = UserFilter.builder().name("jose*").email("jose@").type(SearchType.LIKE).build();
+    final UserFilter contains = UserFilter.builder().name("silva").email("bob").type(SearchType.CONTAINS).operator(LogicalOperator.OR).build();
+    final UserFilter equals = UserFilter.builder().cpf("183.271.643-09").build();
+
+    assertThat(queryCompiler.planFor(like).couldMatch(like, Map.of(UserSearchField.NAME, "José Silva", UserSearchField.EMAIL, "JOSE@mail.com"))).isTrue();
+    assertThat(queryCompiler.planFor(like).couldMatch(like, Map.of(UserSearchField.NAME, "José Silva", UserSearchField.EMAIL, "joe@mail.com"))).isFalse();
+    assertThat(queryCompiler.planFor(like).couldMatch(like, Map.of(UserSearchField.NAME, "Joseph"))).isTrue();
+    assertThat(queryCompiler.planFor(contains).couldMatch(contains, Map.of(UserSearchField.NAME, "Ana SILVA", UserSearchField.EMAIL, "ana@mail.com"))).isTrue();
+    assertThat(queryCompiler.planFor(contains).couldMatch(contains, Map.of(UserSearchField.NAME, "Ana Souza", UserSearchField.EMAIL, "ana@mail.com"))).isFalse();
+    assertThat(queryCompiler.planFor(equals).couldMatch(equals, Map.of(UserSearchField.CPF, "18327164309"))).isTrue();
+    assertThat(queryCompiler.planFor(equals).couldMatch(equals, Collections.singletonMap(UserSearchField.CPF, null))).isFalse();
+  }
+}
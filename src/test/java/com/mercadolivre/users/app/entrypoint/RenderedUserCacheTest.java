@@ -0,0 +1,98 @@
+package com.mercadolivre.users.app.entrypoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+@DisplayName("[RenderedUserCache] Unit Tests")
+class RenderedUserCacheTest {
+
+  @Test
+  @DisplayName("Should write the cached JSON with its ETag only for the version it was rendered at")
+  void shouldServeOnlyTheRenderedVersion() throws IOException {
+    final RenderedUserCache cache = new RenderedUserCache(DataSize.ofMegabytes(1), DataSize.ofKilobytes(4));
+    final String id = new ObjectId().toHexString();
+    cache.put(id, 3L, json("{\"id\":\"" + id + "\"}"));
+
+    final MockHttpServletResponse response = new MockHttpServletResponse();
+    assertThat(cache.writeTo(id, 3L, "\"3\"", response)).isTrue();
+    assertThat(response.getContentAsString()).isEqualTo("{\"id\":\"" + id + "\"}");
+    assertThat(response.getContentLength()).isEqualTo(response.getContentAsByteArray().length);
+    assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"3\"");
+
+    final MockHttpServletResponse staleResponse = new MockHttpServletResponse();
+    assertThat(cache.writeTo(id, 4L, "\"4\"", staleResponse)).isFalse();
+    assertThat(staleResponse.getHeaderNames()).isEmpty();
+
+    cache.invalidate(id);
+    assertThat(cache.contains(id)).isFalse();
+    assertThat(cache.writeTo(id, 3L, "\"3\"", new MockHttpServletResponse())).isFalse();
+    assertThat(cache.accepts("929f30e3-0745-4e00-bc88-9125e9dcad6b")).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should stay within its memory bound by evicting the oldest slabs")
+  void shouldEvictTheOldestSlabs() throws IOException {
+    final RenderedUserCache cache = new RenderedUserCache(DataSize.ofKilobytes(64), DataSize.ofKilobytes(1));
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    cache.bindTo(meterRegistry);
+    final Random random = new Random(42);
+    final Map<String, Long> latestVersions = new HashMap<>();
+    final String firstId = new ObjectId().toHexString();
+    cache.put(firstId, 1L, json("{\"name\":\"first\"}"));
+
+    for (int i = 0; i < 20_000; i++) {
+      final String id = new ObjectId().toHexString();
+      final long version = random.nextInt(3);
+      cache.put(id, version, json("{\"name\":\"" + "x".repeat(random.nextInt(200)) + "\"}"));
+      latestVersions.put(id, version);
+      if (random.nextInt(10) == 0) {
+        cache.invalidate(id);
+        latestVersions.remove(id);
+      }
+    }
+
+    assertThat(cache.contains(firstId)).isFalse();
+    assertThat(cache.size()).isPositive().isLessThan(latestVersions.size());
+    assertThat(cache.memoryInBytes()).isLessThan(DataSize.ofKilobytes(64 + 128).toBytes());
+    assertThat(meterRegistry.get("cache.evictions").functionCounter().count()).isPositive();
+    long served = 0;
+    for (final Map.Entry<String, Long> latest : latestVersions.entrySet()) {
+      final MockHttpServletResponse response = new MockHttpServletResponse();
+      if (cache.writeTo(latest.getKey(), latest.getValue(), "\"" + latest.getValue() + "\"", response)) {
+        assertThat(response.getContentAsString()).startsWith("{\"name\":\"").endsWith("\"}");
+        served++;
+      }
+    }
+    assertThat(served).isEqualTo(cache.size());
+    assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(served);
+  }
+
+  @Test
+  @DisplayName("Should keep nothing when its maximum size is smaller than a slab per segment")
+  void shouldBeDisabledWithoutRoomForSlabs() {
+    final RenderedUserCache cache = new RenderedUserCache(DataSize.ofBytes(0), DataSize.ofKilobytes(4));
+    final String id = new ObjectId().toHexString();
+
+    cache.put(id, 1L, json("{}"));
+
+    assertThat(cache.accepts(id)).isFalse();
+    assertThat(cache.contains(id)).isFalse();
+    assertThat(cache.memoryInBytes()).isZero();
+  }
+
+  private static byte[] json(final String json) {
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,81 @@
+package com.mercadolivre.users.app.entrypoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonpatch.JsonPatch;
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.UserField;
+import java.io.IOException;
+import java.time.LocalDate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("[UserPatch] Unit Tests")
+public class UserPatchTest {
+
+  private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+  @Test
+  @DisplayName("Should compile replace, add and remove of distinct fields into user changes")
+  void shouldCompileSimpleOperations() throws IOException {
+    final UserPatch userPatch = UserPatch.of(mapper, patchOf("""
+        [{"op":"replace","path":"/cpf","value":"892.435.194-09"},
+         {"op":"add","path":"/birthDate","value":"25/12/1991"},
+         {"op":"remove","path":"/email"}]"""));
+
+    assertThat(userPatch.isCompiled()).isTrue();
+    assertThat(userPatch.changes().values())
+        .containsEntry(UserField.CPF, new BrazilianCPF("892.435.194-09"))
+        .containsEntry(UserField.BIRTH_DATE, LocalDate.of(1991, 12, 25))
+        .containsEntry(UserField.EMAIL, null)
+        .hasSize(3);
+    assertThat(userPatch.expectedVersion()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should take a test of /version out of the patch as the expected version")
+  void shouldExtractTheExpectedVersion() throws IOException {
+    final UserPatch userPatch = UserPatch.of(mapper, patchOf("""
+        [{"op":"test","path":"/version","value":4},
+         {"op":"replace","path":"/name","value":"Joe"}]"""));
+
+    assertThat(userPatch.isCompiled()).isTrue();
+    assertThat(userPatch.expectedVersion()).isEqualTo(4L);
+    assertThat(userPatch.changes().expectedVersion()).isEqualTo(4L);
+    assertThat(mapper.<JsonNode>valueToTree(userPatch.remainder()).size()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should fall back to the remainder patch when an operation cannot be compiled")
+  void shouldFallBackWhenAnOperationCannotBeCompiled() throws IOException {
+    final String[] patches = {
+        "[{\"op\":\"copy\",\"from\":\"/email\",\"path\":\"/name\"}]",
+        "[{\"op\":\"replace\",\"path\":\"/createdAt\",\"value\":\"01/01/2000\"}]",
+        "[{\"op\":\"replace\",\"path\":\"/name\",\"value\":1}]",
+        "[{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"Joe\"},{\"op\":\"remove\",\"path\":\"/name\"}]",
+        "[{\"op\":\"test\",\"path\":\"/name\",\"value\":\"Joe\"}]"
+    };
+
+    for (final String patch : patches) {
+      final UserPatch userPatch = UserPatch.of(mapper, patchOf(patch));
+      assertThat(userPatch.isCompiled()).as(patch).isFalse();
+      assertThat(mapper.<JsonNode>valueToTree(userPatch.remainder())).as(patch).isEqualTo(mapper.readTree(patch));
+    }
+  }
+
+  @Test
+  @DisplayName("Should reject a test of /version that is not a single non negative integer")
+  void shouldRejectAnInvalidVersionTest() {
+    assertThrows(IllegalArgumentException.class, () -> UserPatch.of(mapper, patchOf("[{\"op\":\"test\",\"path\":\"/version\",\"value\":\"1\"}]")));
+    assertThrows(IllegalArgumentException.class, () -> UserPatch.of(mapper, patchOf("[{\"op\":\"test\",\"path\":\"/version\",\"value\":-1}]")));
+    assertThrows(IllegalArgumentException.class, () -> UserPatch.of(mapper, patchOf(
+        "[{\"op\":\"test\",\"path\":\"/version\",\"value\":1},{\"op\":\"test\",\"path\":\"/version\",\"value\":2}]")));
+  }
+
+  private JsonPatch patchOf(final String json) throws IOException {
+    return JsonPatch.fromJson(mapper.readTree(json));
+  }
+}
@@ -2,11 +2,15 @@ package com.mercadolivre.users.app.entrypoint;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -15,15 +19,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mercadolivre.users.app.entrypoint.dto.UserRegistrationDTO;
 import com.mercadolivre.users.core.entity.BrazilianCPF;
 import com.mercadolivre.users.core.entity.Message;
+import com.mercadolivre.users.core.entity.RegistrationResult;
 import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserChanges;
+import com.mercadolivre.users.core.entity.UserField;
 import com.mercadolivre.users.core.entity.UserFilter;
 import com.mercadolivre.users.core.exception.AgeBelowException;
 import com.mercadolivre.users.core.exception.AlreadyExistsException;
 import com.mercadolivre.users.core.exception.NotFoundException;
+import com.mercadolivre.users.core.exception.VersionConflictException;
 import com.mercadolivre.users.core.usecase.AccountRegistration;
 import com.mercadolivre.users.core.usecase.AccountSearchEngine;
 import java.nio.file.Files;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -33,6 +43,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
@@ -45,11 +56,14 @@ class UserRegistrationRESTControllerTest {
   private MockMvc mockMvc;
 
   @MockBean
-  private AccountRegistration<User> userRegistration;
+  private AccountRegistration<User, UserChanges> userRegistration;
 
   @MockBean
   private AccountSearchEngine<User, UserFilter> accountSearchEngine;
 
+  @MockBean
+  private RenderedUserCache renderedUsers;
+
   @Value("classpath:samples/user-registration.json")
   private Resource userRegistrationSampleResource;
 
@@ -118,18 +132,38 @@ class UserRegistrationRESTControllerTest {
   }
 
   @Test
-  @DisplayName("[PATCH] /users/{id} -> Should update CPF and Birthdate")
+  @DisplayName("[PATCH] /users/{id} -> Should update CPF and Birthdate with a single write")
   void shouldUpdateCPFAndBirthdate() throws Exception {
+    final String userId = UUID.randomUUID().toString();
+    final String sampleUserPatch = new String(Files.readAllBytes(userRegistrationPatchSampleResource.getFile().toPath()));
+    final ArgumentCaptor<UserChanges> changesArgumentCaptor = ArgumentCaptor.forClass(UserChanges.class);
+
+    this.mockMvc
+            .perform(patch("/users/{id}", userId).contentType("application/json-patch+json").content(sampleUserPatch))
+            .andExpect(status().isNoContent());
+
+    verify(userRegistration).update(eq(userId), changesArgumentCaptor.capture());
+    verify(userRegistration, times(0)).findById(any());
+    verify(renderedUsers).invalidate(userId);
+    assertThat(changesArgumentCaptor.getValue()).isEqualTo(new UserChanges(Map.of(
+        UserField.CPF, new BrazilianCPF("892.435.194-09"),
+        UserField.BIRTH_DATE, LocalDate.of(1991, 12, 25)), null));
+  }
+
+  @Test
+  @DisplayName("[PATCH] /users/{id} -> Should read, patch and rewrite the user when the patch cannot be compiled")
+  void shouldFallBackToReadModifyWrite() throws Exception {
     final User mockedExistingUser = mapper.readValue(new String(Files.readAllBytes(userRegistrationSampleResource.getFile().toPath())), UserRegistrationDTO.class).toUserEntity();
     final String userId = UUID.randomUUID().toString();
     ReflectionTestUtils.setField(mockedExistingUser, "id", userId);
+    mockedExistingUser.setVersion(3L);
     given(userRegistration.findById(any())).willReturn(mockedExistingUser);
-    doNothing().when(userRegistration).update(any());
-    final String sampleUserPatch = new String(Files.readAllBytes(userRegistrationPatchSampleResource.getFile().toPath()));
+    doNothing().when(userRegistration).update(any(User.class));
+    final String complexPatch = "[{\"op\":\"test\",\"path\":\"/version\",\"value\":2},{\"op\":\"copy\",\"from\":\"/email\",\"path\":\"/name\"}]";
     final ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
 
     this.mockMvc
-            .perform(patch("/users/{id}", userId).contentType("application/json-patch+json").content(sampleUserPatch))
+            .perform(patch("/users/{id}", userId).contentType("application/json-patch+json").content(complexPatch))
             .andExpect(status().isNoContent());
 
     verify(userRegistration, times(1)).findById(userId);
@@ -138,32 +172,101 @@ class UserRegistrationRESTControllerTest {
     final User expectedChanges =
         new User(
             mockedExistingUser.getId(),
-            mockedExistingUser.getName(),
-            new BrazilianCPF("892.435.194-09"),
             mockedExistingUser.getEmail(),
-            LocalDate.of(1991, 12, 25),
+            mockedExistingUser.getCpf(),
+            mockedExistingUser.getEmail(),
+            mockedExistingUser.getBirthDate(),
             mockedExistingUser.getCreatedAt(),
             userArgumentCaptor.getValue().getUpdatedAt()
         );
+    expectedChanges.setVersion(2L);
 
     assertThat(userArgumentCaptor.getValue()).isEqualTo(expectedChanges);
   }
 
+  @Test
+  @DisplayName("[PATCH] /users/{id} -> Should expect the version given in If-Match")
+  void shouldExpectTheVersionGivenInIfMatch() throws Exception {
+    final String userId = UUID.randomUUID().toString();
+    final String namePatch = "[{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"Jean\"}]";
+    final ArgumentCaptor<UserChanges> changesArgumentCaptor = ArgumentCaptor.forClass(UserChanges.class);
+
+    this.mockMvc
+        .perform(patch("/users/{id}", userId).header(HttpHeaders.IF_MATCH, "\"3.9\"").contentType("application/json-patch+json").content(namePatch))
+        .andExpect(status().isNoContent());
+
+    verify(userRegistration).update(eq(userId), changesArgumentCaptor.capture());
+    assertThat(changesArgumentCaptor.getValue()).isEqualTo(new UserChanges(Map.of(UserField.NAME, "Jean"), 3L));
+  }
+
+  @Test
+  @DisplayName("[PATCH] /users/{id} -> Should reject If-Match other than * or a single strong ETag, and one contradicting the patch")
+  void shouldRejectInvalidIfMatch() throws Exception {
+    final String versionedPatch = "[{\"op\":\"test\",\"path\":\"/version\",\"value\":1},{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"Jean\"}]";
+
+    this.mockMvc
+        .perform(patch("/users/{id}", UUID.randomUUID().toString()).header(HttpHeaders.IF_MATCH, "W/\"1\"").contentType("application/json-patch+json").content(versionedPatch))
+        .andExpect(status().isBadRequest());
+    this.mockMvc
+        .perform(patch("/users/{id}", UUID.randomUUID().toString()).header(HttpHeaders.IF_MATCH, "\"2\"").contentType("application/json-patch+json").content(versionedPatch))
+        .andExpect(status().isPreconditionFailed());
+
+    verifyNoInteractions(userRegistration);
+  }
+
   @Test
   @DisplayName("[PATCH] /users/{id} -> Should return 404 NOT_FOUND when trying to update")
   void shouldReturnNotFoundWhenUpdateAMissingUser() throws Exception {
     final String sampleUserPatch = new String(Files.readAllBytes(userRegistrationPatchSampleResource.getFile().toPath()));
-    given(userRegistration.findById(anyString())).willThrow(new NotFoundException(
+    willThrow(new NotFoundException(
         Message.ERROR_TEMPLATE_USER_NOT_FOUND.getCode(),
         String.format(Message.ERROR_TEMPLATE_USER_NOT_FOUND.getMessage(), "randomId"))
-    );
+    ).given(userRegistration).update(anyString(), any(UserChanges.class));
 
     this.mockMvc
         .perform(patch("/users/{id}", UUID.randomUUID().toString()).contentType("application/json-patch+json").content(sampleUserPatch))
         .andExpect(status().isNotFound());
 
-    verify(userRegistration, times(0)).update(any());
+    verify(userRegistration, times(0)).update(any(User.class));
+  }
+
+  @Test
+  @DisplayName("[PATCH] /users/{id} -> Should return 412 PRECONDITION_FAILED when the tested version is stale")
+  void shouldReturnPreconditionFailedWhenVersionIsStale() throws Exception {
+    willThrow(new VersionConflictException(
+        Message.REGISTRATION_ERROR_VERSION_CONFLICT.getCode(),
+        Message.REGISTRATION_ERROR_VERSION_CONFLICT.getMessage())
+    ).given(userRegistration).update(anyString(), any(UserChanges.class));
+    final String versionedPatch = "[{\"op\":\"test\",\"path\":\"/version\",\"value\":1},{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"Jean\"}]";
+
+    this.mockMvc
+        .perform(patch("/users/{id}", UUID.randomUUID().toString()).contentType("application/json-patch+json").content(versionedPatch))
+        .andExpect(status().isPreconditionFailed())
+        .andExpect(jsonPath("$.code").value("VERSION_CONFLICT"));
   }
 
+  @Test
+  @DisplayName("[POST] /users/batch -> Should report a result per user, in the request order")
+  void shouldReportAResultPerUserOfABatch() throws Exception {
+    final String sampleUserRequest = new String(Files.readAllBytes(userRegistrationSampleResource.getFile().toPath()));
+    final String batchRequest = String.format("[%s, {\"cpf\": \"130.877.567-92\", \"email\": \"nameless@something.com\", \"birthDate\": \"20/01/1990\"}, %s]", sampleUserRequest, sampleUserRequest);
+    given(userRegistration.createAll(anyList())).willReturn(List.of(
+        RegistrationResult.created("65b6c19ae3ee4232dbd2f2e2"),
+        RegistrationResult.failed(Message.REGISTRATION_ERROR_USER_DUPLICATED_IN_BATCH)));
+
+    this.mockMvc
+        .perform(post("/users/batch").contentType(MediaType.APPLICATION_JSON).content(batchRequest))
+        .andExpect(status().isOk())
+        .andExpect(content().json("["
+            + "{\"index\": 0, \"created\": true, \"id\": \"65b6c19ae3ee4232dbd2f2e2\"},"
+            + "{\"index\": 1, \"created\": false, \"code\": \"INVALID_FIELDS\", \"message\": \"name must not be empty\"},"
+            + "{\"index\": 2, \"created\": false, \"code\": \"USER_DUPLICATED_IN_BATCH\"}"
+            + "]"));
+
+    final User expectedUser = mapper.readValue(sampleUserRequest, UserRegistrationDTO.class).toUserEntity();
+    final ArgumentCaptor<List<User>> usersCaptor = ArgumentCaptor.forClass(List.class);
+    verify(userRegistration).createAll(usersCaptor.capture());
+    assertThat(usersCaptor.getValue()).hasSize(2).allMatch(user -> user.getEmail().equals(expectedUser.getEmail()));
+  }
 
 }
@@ -0,0 +1,78 @@
+package com.mercadolivre.users.app.entrypoint;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.exception.AlreadyExistsException;
+import com.mercadolivre.users.core.usecase.ReactiveAccountRegistration;
+import java.nio.file.Files;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(UserRegistrationReactiveController.class)
+@ActiveProfiles("reactive")
+@DisplayName("[UserRegistrationReactiveController] Unit Test")
+class UserRegistrationReactiveControllerTest {
+
+  @Autowired
+  private WebTestClient webTestClient;
+
+  @MockBean
+  private ReactiveAccountRegistration<User> userRegistration;
+
+  @Value("classpath:samples/user-registration.json")
+  private Resource userRegistrationSampleResource;
+
+  @Test
+  @DisplayName("[POST] /users -> Should create a new user and return its location")
+  void shouldReturnCreatedWithTheLocationOfTheUser() throws Exception {
+    final String sampleUserRequest = new String(Files.readAllBytes(userRegistrationSampleResource.getFile().toPath()));
+    given(userRegistration.create(any(User.class))).willReturn(Mono.just("65b6c19ae3ee4232dbd2f2e2"));
+
+    this.webTestClient.post().uri("/users")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(sampleUserRequest)
+        .exchange()
+        .expectStatus().isCreated()
+        .expectHeader().valueEquals("Location", "/users/65b6c19ae3ee4232dbd2f2e2");
+  }
+
+  @Test
+  @DisplayName("[POST] /users -> Should return 409 Conflict when use case throws EntityAlreadyExists")
+  void shouldReturnConflictWhenTheUserAlreadyExists() throws Exception {
+    final String sampleUserRequest = new String(Files.readAllBytes(userRegistrationSampleResource.getFile().toPath()));
+    given(userRegistration.create(any(User.class))).willReturn(Mono.error(new AlreadyExistsException("USER_ALREADY_EXISTS", "User already exists.")));
+
+    this.webTestClient.post().uri("/users")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(sampleUserRequest)
+        .exchange()
+        .expectStatus().isEqualTo(409)
+        .expectBody()
+        .jsonPath("$.code").isEqualTo("USER_ALREADY_EXISTS")
+        .jsonPath("$.message.en").isEqualTo("User already exists.");
+  }
+
+  @Test
+  @DisplayName("[POST] /users -> Should return 400 Bad Request when the body is not valid")
+  void shouldReturnBadRequestWhenTheBodyIsNotValid() {
+    this.webTestClient.post().uri("/users")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{}")
+        .exchange()
+        .expectStatus().isBadRequest();
+
+    verifyNoInteractions(userRegistration);
+  }
+}
@@ -0,0 +1,77 @@
+package com.mercadolivre.users.app.entrypoint;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.mercadolivre.users.app.dataprovider.model.CpfStorage;
+import com.mercadolivre.users.app.dataprovider.model.UserModel;
+import com.mercadolivre.users.app.dataprovider.model.UserStorageFormat;
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserFilter;
+import com.mercadolivre.users.core.usecase.AccountSearchEngine;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(controllers = UserSearchingRESTController.class, properties = "users.search.raw-json=true")
+@Import(RenderedUserCache.class)
+@DisplayName("[UserSearchingRESTController] Raw JSON Unit Test")
+class UserSearchingRESTControllerRawJsonTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockBean
+  private AccountSearchEngine<User, UserFilter> userSearching;
+
+  @Value("classpath:samples/users-response.json")
+  private Resource usersResponseSampleResource;
+
+  @Test
+  @DisplayName("[GET] /users -> Should write the users rendered by the storage as the DTOs render them, along with the next cursor")
+  void shouldWriteTheRenderedPage() throws Exception {
+    final List<User> existingUsers = List.of(
+        new User("929f30e3-0745-4e00-bc88-9125e9dcad6b", "Josh", new BrazilianCPF("13087756792"), "josh@something.com",
+            LocalDate.of(1990, 1, 20), LocalDateTime.of(2024, 1, 27, 1, 46, 25), LocalDateTime.of(2024, 1, 27, 16, 51, 9)),
+        new User("7e51e285-6f53-433c-b2a3-6607b70e468e", "Hayley", new BrazilianCPF("421.634.543-39"), "hayley@something.com",
+            LocalDate.of(1987, 4, 17), LocalDateTime.of(2024, 1, 21, 4, 45, 25), null));
+    final UserStorageFormat format = UserStorageFormat.standard(CpfStorage.STRING);
+    final Codec<UserModel> codec = format.codecRegistry().get(UserModel.class);
+    final List<RawBsonDocument> rows = existingUsers.stream()
+        .map(user -> new RawBsonDocument(new UserModel(user, CpfStorage.STRING), codec))
+        .toList();
+    final String expectedUsersResponse = new String(Files.readAllBytes(usersResponseSampleResource.getFile().toPath()));
+    given(userSearching.searchJsonBy(any(), any(), any())).willReturn(format.jsonTranscoder().page(rows, Projection.ALL, "ZbZBmsPuQjLb0vLi"));
+
+    this.mockMvc
+        .perform(get("/users?name=Josh&limit=2&cursor=ZbZBmsPuQjLb0vLh"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(header().string("X-Next-Cursor", "ZbZBmsPuQjLb0vLi"))
+        .andExpect(header().string("Link", "<http://localhost/users?name=Josh&limit=2&cursor=ZbZBmsPuQjLb0vLi>; rel=\"next\""))
+        .andExpect(content().json(expectedUsersResponse, true));
+
+    verify(userSearching).searchJsonBy(UserFilter.builder().name("Josh").build(), new CursorPageRequest(2, "ZbZBmsPuQjLb0vLh"), Projection.ALL);
+    verify(userSearching, never()).searchBy(any(), any(), any());
+  }
+}
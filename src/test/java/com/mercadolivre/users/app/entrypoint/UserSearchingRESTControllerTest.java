@@ -1,31 +1,51 @@
 package com.mercadolivre.users.app.entrypoint;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.IdLookup;
+import com.mercadolivre.users.core.entity.LogicalOperator;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.SearchType;
 import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserField;
 import com.mercadolivre.users.core.entity.UserFilter;
 import com.mercadolivre.users.core.usecase.AccountSearchEngine;
 import java.nio.file.Files;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(UserSearchingRESTController.class)
+@Import(RenderedUserCache.class)
 @DisplayName("[UserSearchingRESTController] Unit Test")
 class UserSearchingRESTControllerTest {
 
@@ -51,18 +71,139 @@ class UserSearchingRESTControllerTest {
     final User expectedUserModel = getUserSample();
     final String expectedUserResponse = new String(Files.readAllBytes(userSearchingResponseSampleResource.getFile().toPath()));
 
-    given(userSearching.findById(any())).willReturn(expectedUserModel);
+    given(userSearching.findById(any(), any())).willReturn(expectedUserModel);
 
     this.mockMvc
         .perform(get("/users/{id}", userIdToSearch).contentType(MediaType.APPLICATION_JSON))
         .andExpect(status().isOk())
         .andExpect(content().json(expectedUserResponse));
 
-    verify(userSearching).findById(userIdToSearch);
+    verify(userSearching).findById(userIdToSearch, Projection.ALL);
   }
 
 
 
+  @Test
+  @DisplayName("[GET] /users/{id} -> Should tag the user with its version, per projection")
+  void shouldTagTheUserWithItsVersion() throws Exception {
+    final User user = getUserSample();
+    user.setVersion(7L);
+    given(userSearching.findById(any(), any())).willReturn(user);
+
+    this.mockMvc
+        .perform(get("/users/{id}", user.getId()))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"7\""));
+    this.mockMvc
+        .perform(get("/users/{id}", user.getId()).param("fields", "id,email"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"7.9\""));
+
+    verify(userSearching, never()).findVersion(any());
+  }
+
+  @Test
+  @DisplayName("[GET] /users/{id} -> Should return 304 NOT_MODIFIED from the version alone when If-None-Match is current")
+  void shouldReturnNotModifiedWhenETagIsCurrent() throws Exception {
+    final String userId = "929f30e3-0745-4e00-bc88-9125e9dcad6b";
+    given(userSearching.findVersion(userId)).willReturn(7L);
+
+    this.mockMvc
+        .perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, "\"6\", W/\"7\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"7\""))
+        .andExpect(content().string(""));
+
+    verify(userSearching, never()).findById(any(), any());
+  }
+
+  @Test
+  @DisplayName("[GET] /users/{id} -> Should return the user when If-None-Match is stale")
+  void shouldReturnTheUserWhenETagIsStale() throws Exception {
+    final User user = getUserSample();
+    user.setVersion(8L);
+    given(userSearching.findVersion(user.getId())).willReturn(8L);
+    given(userSearching.findById(any(), any())).willReturn(user);
+
+    this.mockMvc
+        .perform(get("/users/{id}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"8\""))
+        .andExpect(jsonPath("$.name").value("Josh"));
+  }
+
+  @Test
+  @DisplayName("[GET] /users/{id} -> Should serve the rendered user again while its version is current")
+  void shouldServeTheRenderedUserWhileItsVersionIsCurrent() throws Exception {
+    final String userId = "65b4a1e2f1c2a94d3c8e7f10";
+    final User user = getUserSample();
+    user.setId(userId);
+    user.setVersion(4L);
+    given(userSearching.findById(userId, Projection.ALL)).willReturn(user);
+    given(userSearching.findVersion(userId)).willReturn(4L);
+
+    final String rendered = this.mockMvc
+        .perform(get("/users/{id}", userId))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+        .andReturn().getResponse().getContentAsString();
+    this.mockMvc
+        .perform(get("/users/{id}", userId))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(content().string(rendered));
+    verify(userSearching, times(1)).findById(userId, Projection.ALL);
+
+    final User updatedUser = getUserSample();
+    updatedUser.setId(userId);
+    updatedUser.setVersion(5L);
+    given(userSearching.findById(userId, Projection.ALL)).willReturn(updatedUser);
+    given(userSearching.findVersion(userId)).willReturn(5L);
+    this.mockMvc
+        .perform(get("/users/{id}", userId))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"5\""))
+        .andExpect(jsonPath("$.id").value(userId));
+    verify(userSearching, times(2)).findById(userId, Projection.ALL);
+  }
+
+  @Test
+  @DisplayName("[GET] /users/{id} -> Should return only the requested fields")
+  void shouldReturnOnlyRequestedFieldsOfUser() throws Exception {
+    final String userIdToSearch = "929f30e3-0745-4e00-bc88-9125e9dcad6b";
+    final Projection expectedProjection = new Projection(EnumSet.of(UserField.ID, UserField.EMAIL));
+    given(userSearching.findById(any(), any())).willReturn(getUserSample());
+
+    this.mockMvc
+        .perform(get("/users/{id}", userIdToSearch).param("fields", "id, email").contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(content().json("{\"id\":\"929f30e3-0745-4e00-bc88-9125e9dcad6b\",\"email\":\"josh@something.com\"}", true));
+
+    verify(userSearching).findById(userIdToSearch, expectedProjection);
+  }
+
+  @Test
+  @DisplayName("[GET] /users/{id} -> Should return 400 BAD_REQUEST when a requested field does not exist")
+  void shouldReturnBadRequestWhenRequestedFieldDoesNotExist() throws Exception {
+    this.mockMvc
+        .perform(get("/users/{id}", "929f30e3-0745-4e00-bc88-9125e9dcad6b").param("fields", "id,password").contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(userSearching);
+  }
+
+  @Test
+  @DisplayName("[GET] /users -> Should return 400 BAD_REQUEST when fields name no field")
+  void shouldReturnBadRequestWhenFieldsNameNoField() throws Exception {
+    this.mockMvc
+        .perform(get("/users").param("name", "Josh").param("fields", ",,").contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message.en").value("User fields ,, must name at least one field!"));
+
+    verifyNoInteractions(userSearching);
+  }
+
   @Test
   @DisplayName("[GET] /users/{id} -> Should return user given an id without updatedAt")
   void shouldNotSerializeUpdatedAt() throws Exception {
@@ -70,7 +211,7 @@ class UserSearchingRESTControllerTest {
     final User expectedUserModel = getUserSample();
     final String expectedUserResponse = new String(Files.readAllBytes(userSearchingResponseSampleWithoutUpdatedAtResource.getFile().toPath()));
 
-    given(userSearching.findById(any())).willReturn(expectedUserModel);
+    given(userSearching.findById(any(), any())).willReturn(expectedUserModel);
 
     this.mockMvc
         .perform(get("/users/{id}", userIdToSearch).contentType(MediaType.APPLICATION_JSON))
@@ -78,6 +219,44 @@ class UserSearchingRESTControllerTest {
         .andExpect(content().json(expectedUserResponse));
   }
 
+  @Test
+  @DisplayName("[GET] /users?ids= -> Should return users in the requested order and list the missing ids")
+  void shouldReturnUsersByIds() throws Exception {
+    given(userSearching.findAllById(any(), any())).willReturn(new IdLookup<>(List.of(getUserSample()), List.of("65b6c19ae3ee4232dbd2f2e2")));
+
+    this.mockMvc
+        .perform(get("/users").param("ids", "65b6c19ae3ee4232dbd2f2e2,929f30e3-0745-4e00-bc88-9125e9dcad6b").param("fields", "id,name"))
+        .andExpect(status().isOk())
+        .andExpect(content().json("{\"users\": [{\"id\": \"929f30e3-0745-4e00-bc88-9125e9dcad6b\", \"name\": \"Josh\"}], \"missingIds\": [\"65b6c19ae3ee4232dbd2f2e2\"]}", true));
+
+    verify(userSearching).findAllById(List.of("65b6c19ae3ee4232dbd2f2e2", "929f30e3-0745-4e00-bc88-9125e9dcad6b"), Projection.of("id,name"));
+    verify(userSearching, never()).searchBy(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("[POST] /users/lookup -> Should return users of the ids in the body")
+  void shouldLookupUsersByIdsInTheBody() throws Exception {
+    given(userSearching.findAllById(any(), any())).willReturn(new IdLookup<>(List.of(getUserSample()), List.of()));
+
+    this.mockMvc
+        .perform(post("/users/lookup").contentType(MediaType.APPLICATION_JSON).content("{\"ids\": [\"929f30e3-0745-4e00-bc88-9125e9dcad6b\"]}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.users[0].id").value("929f30e3-0745-4e00-bc88-9125e9dcad6b"))
+        .andExpect(jsonPath("$.missingIds").isEmpty());
+
+    verify(userSearching).findAllById(List.of("929f30e3-0745-4e00-bc88-9125e9dcad6b"), Projection.ALL);
+  }
+
+  @Test
+  @DisplayName("[POST] /users/lookup -> Should return 400 BAD_REQUEST when no ids are given")
+  void shouldReturnBadRequestWhenLookupHasNoIds() throws Exception {
+    this.mockMvc
+        .perform(post("/users/lookup").contentType(MediaType.APPLICATION_JSON).content("{\"ids\": []}"))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(userSearching);
+  }
+
   @Test
   @DisplayName("[GET] /users -> Should return all existing users")
   void shouldReturnAllExistingUsers() throws Exception {
@@ -95,13 +274,93 @@ class UserSearchingRESTControllerTest {
 
     final String expectedUsersResponse = new String(Files.readAllBytes(usersResponseSampleResource.getFile().toPath()));
 
-    given(userSearching.searchBy(any())).willReturn(existingUsers);
+    given(userSearching.searchBy(any(), any(), any())).willReturn(new CursorPage<>(existingUsers, null));
 
     this.mockMvc
         .perform(get("/users").param("name", "").contentType(MediaType.APPLICATION_JSON))
         .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("X-Next-Cursor"))
         .andExpect(content().json(expectedUsersResponse));
 
+    verify(userSearching).searchBy(UserFilter.builder().name("").build(), CursorPageRequest.of(null, null), Projection.ALL);
+  }
+
+  @Test
+  @DisplayName("[GET] /users -> Should pass limit and cursor apart from filters and return the next cursor")
+  void shouldReturnNextCursorWhenThereAreMoreUsers() throws Exception {
+    given(userSearching.searchBy(any(), any(), any())).willReturn(new CursorPage<>(List.of(getUserSample()), "ZbZBmsPuQjLb0vLi"));
+
+    this.mockMvc
+        .perform(get("/users?name=Josh&limit=1&cursor=ZbZBmsPuQjLb0vLh").contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Next-Cursor", "ZbZBmsPuQjLb0vLi"))
+        .andExpect(header().string("Link", "<http://localhost/users?name=Josh&limit=1&cursor=ZbZBmsPuQjLb0vLi>; rel=\"next\""))
+        .andExpect(jsonPath("$.length()").value(1));
+
+    verify(userSearching).searchBy(UserFilter.builder().name("Josh").build(), new CursorPageRequest(1, "ZbZBmsPuQjLb0vLh"), Projection.ALL);
+  }
+
+  @Test
+  @DisplayName("[GET] /users -> Should not take fields as a filter and render only the requested fields")
+  void shouldRenderOnlyRequestedFieldsOfUsers() throws Exception {
+    given(userSearching.searchBy(any(), any(), any())).willReturn(new CursorPage<>(List.of(getUserSample()), null));
+
+    this.mockMvc
+        .perform(get("/users").param("name", "Josh").param("fields", "email").contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(content().json("[{\"email\":\"josh@something.com\"}]", true));
+
+    verify(userSearching).searchBy(UserFilter.builder().name("Josh").build(), CursorPageRequest.of(null, null), new Projection(EnumSet.of(UserField.EMAIL)));
+  }
+
+  @Test
+  @DisplayName("[GET] /users -> Should bind operator, type and normalize from query params")
+  void shouldBindSearchOptionsFromQueryParams() throws Exception {
+    given(userSearching.searchBy(any(), any(), any())).willReturn(new CursorPage<>(List.of(), null));
+
+    this.mockMvc
+        .perform(get("/users").param("name", "Jo").param("email", "jo").param("operator", "or").param("type", "LIKE").param("normalize", "false"))
+        .andExpect(status().isOk());
+
+    verify(userSearching).searchBy(
+        UserFilter.builder().name("Jo").email("jo").operator(LogicalOperator.OR).type(SearchType.LIKE).normalize(false).build(),
+        CursorPageRequest.of(null, null),
+        Projection.ALL);
+  }
+
+  @Test
+  @DisplayName("[GET] /users -> Should return 400 BAD_REQUEST when search type is unknown")
+  void shouldReturnBadRequestWhenSearchTypeIsUnknown() throws Exception {
+    this.mockMvc
+        .perform(get("/users").param("name", "Jo").param("type", "REGEX"))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(userSearching);
+  }
+
+  @Test
+  @DisplayName("[GET] /users -> Should return 400 BAD_REQUEST when normalize is not a boolean")
+  void shouldReturnBadRequestWhenNormalizeIsNotABoolean() throws Exception {
+    this.mockMvc
+        .perform(get("/users").param("cpf", "130.877.567-92").param("normalize", "yes"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message.en").value("UserFilter normalize does not accept yes!"));
+
+    verifyNoInteractions(userSearching);
+  }
+
+  @Test
+  @DisplayName("[GET] /users -> Should return 400 BAD_REQUEST when limit is out of bounds")
+  void shouldReturnBadRequestWhenLimitIsOutOfBounds() throws Exception {
+    this.mockMvc
+        .perform(get("/users").param("limit", "0").contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+
+    this.mockMvc
+        .perform(get("/users").param("limit", String.valueOf(CursorPageRequest.MAX_LIMIT + 1)).contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(userSearching);
   }
 
   @Test
@@ -114,6 +373,46 @@ class UserSearchingRESTControllerTest {
     verifyNoInteractions(userSearching);
   }
 
+  @Test
+  @DisplayName("[GET] /users -> Should keep answering a JSON array when any media type is accepted")
+  void shouldAnswerJsonArrayWhenAnyMediaTypeIsAccepted() throws Exception {
+    given(userSearching.searchBy(any(), any(), any())).willReturn(new CursorPage<>(List.of(getUserSample()), null));
+
+    this.mockMvc
+        .perform(get("/users").accept(MediaType.ALL))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.length()").value(1));
+
+    verify(userSearching, never()).streamBy(any(), any());
+  }
+
+  @Test
+  @DisplayName("[GET] /users -> Should stream users as NDJSON and close the cursor when done")
+  void shouldStreamUsersAsNdjson() throws Exception {
+    final AtomicBoolean cursorClosed = new AtomicBoolean();
+    final User otherUser = new User("7e51e285-6f53-433c-b2a3-6607b70e468e", "Hayley", new BrazilianCPF("421.634.543-39"), "hayley@something.com", LocalDate.of(1987, 4, 17), LocalDateTime.of(2024, 1, 21, 4, 45, 25), null);
+    given(userSearching.streamBy(any(), any())).willReturn(Stream.of(getUserSample(), otherUser).onClose(() -> cursorClosed.set(true)));
+
+    final MvcResult mvcResult = this.mockMvc
+        .perform(get("/users").param("name", "").accept(MediaType.APPLICATION_NDJSON))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    final String[] lines = this.mockMvc
+        .perform(asyncDispatch(mvcResult))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+        .andReturn().getResponse().getContentAsString()
+        .split("\n");
+
+    assertThat(lines).hasSize(2);
+    JSONAssert.assertEquals(new String(Files.readAllBytes(userSearchingResponseSampleResource.getFile().toPath())), lines[0], true);
+    assertThat(lines[1]).startsWith("{\"id\":\"7e51e285-6f53-433c-b2a3-6607b70e468e\"");
+    assertThat(cursorClosed).isTrue();
+    verify(userSearching).streamBy(UserFilter.builder().name("").build(), Projection.ALL);
+  }
+
   private User getUserSample() {
     return new User(
         "929f30e3-0745-4e00-bc88-9125e9dcad6b",
@@ -0,0 +1,110 @@
+package com.mercadolivre.users.app.entrypoint;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserFilter;
+import com.mercadolivre.users.core.exception.NotFoundException;
+import com.mercadolivre.users.core.usecase.ReactiveAccountSearchEngine;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.Resource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(UserSearchingReactiveController.class)
+@ActiveProfiles("reactive")
+@DisplayName("[UserSearchingReactiveController] Unit Test")
+class UserSearchingReactiveControllerTest {
+
+  @Autowired
+  private WebTestClient webTestClient;
+
+  @MockBean
+  private ReactiveAccountSearchEngine<User, UserFilter> userSearching;
+
+  @Value("classpath:samples/user-searching-response.json")
+  private Resource userSearchingResponseSampleResource;
+
+  @Test
+  @DisplayName("[GET] /users/{id} -> Should return user given an id")
+  void shouldReturnASingleUserGivenId() throws Exception {
+    final User expectedUser = getUserSample();
+    final String expectedUserResponse = new String(Files.readAllBytes(userSearchingResponseSampleResource.getFile().toPath()));
+    given(userSearching.findById(any(), any())).willReturn(Mono.just(expectedUser));
+
+    this.webTestClient.get().uri("/users/{id}", expectedUser.getId())
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody().json(expectedUserResponse);
+
+    verify(userSearching).findById(expectedUser.getId(), Projection.ALL);
+  }
+
+  @Test
+  @DisplayName("[GET] /users/{id} -> Should return 404 NOT_FOUND when the user does not exist")
+  void shouldReturnNotFoundWhenTheUserDoesNotExist() {
+    given(userSearching.findById(any(), any())).willReturn(Mono.error(new NotFoundException("USER_NOT_FOUND", "User not found.")));
+
+    this.webTestClient.get().uri("/users/{id}", "missing")
+        .exchange()
+        .expectStatus().isNotFound()
+        .expectBody()
+        .jsonPath("$.code").isEqualTo("USER_NOT_FOUND")
+        .jsonPath("$.message.en").isEqualTo("User not found.");
+  }
+
+  @Test
+  @DisplayName("[GET] /users -> Should pass limit and cursor apart from filters and return the next cursor")
+  void shouldReturnNextCursorWhenThereAreMoreUsers() {
+    given(userSearching.searchBy(any(), any(), any())).willReturn(Mono.just(new CursorPage<>(List.of(getUserSample()), "ZbZBmsPuQjLb0vLi")));
+
+    this.webTestClient.get().uri("/users?name=Josh&limit=1&cursor=ZbZBmsPuQjLb0vLh")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals("X-Next-Cursor", "ZbZBmsPuQjLb0vLi")
+        .expectHeader().valueEquals("Link", "</users?name=Josh&limit=1&cursor=ZbZBmsPuQjLb0vLi>; rel=\"next\"")
+        .expectBody().jsonPath("$.length()").isEqualTo(1);
+
+    verify(userSearching).searchBy(UserFilter.builder().name("Josh").build(), new CursorPageRequest(1, "ZbZBmsPuQjLb0vLh"), Projection.ALL);
+  }
+
+  @Test
+  @DisplayName("[GET] /users -> Should not announce a next page after the last one")
+  void shouldNotReturnNextCursorOnTheLastPage() {
+    given(userSearching.searchBy(any(), any(), any())).willReturn(Mono.just(new CursorPage<>(List.of(getUserSample()), null)));
+
+    this.webTestClient.get().uri("/users?name=Josh")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().doesNotExist("X-Next-Cursor")
+        .expectHeader().doesNotExist("Link");
+  }
+
+  private User getUserSample() {
+    return new User(
+        "929f30e3-0745-4e00-bc88-9125e9dcad6b",
+        "Josh",
+        new BrazilianCPF("13087756792"),
+        "josh@something.com",
+        LocalDate.of(1990, 1, 20),
+        LocalDateTime.of(2024, 1, 27, 1, 46, 25),
+        LocalDateTime.of(2024, 1, 27, 16, 51, 9)
+    );
+  }
+}
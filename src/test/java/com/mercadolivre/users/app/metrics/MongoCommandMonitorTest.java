@@ -0,0 +1,114 @@
+package com.mercadolivre.users.app.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("[MongoCommandMonitor] Unit Tests")
+class MongoCommandMonitorTest {
+
+  private static final ConnectionDescription CONNECTION = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+  private static final String COLLSCAN_EXPLANATION = "{\"queryPlanner\": {\"winningPlan\": {\"stage\": \"COLLSCAN\"}, \"rejectedPlans\": []}}";
+  private static final String IXSCAN_EXPLANATION = "{\"queryPlanner\": {\"winningPlan\": {\"stage\": \"FETCH\", \"inputStage\": {\"stage\": \"IXSCAN\", \"indexName\": \"ux_users_cpf\"}}}}";
+
+  private SimpleMeterRegistry meterRegistry;
+  private ExecutorService explainExecutor;
+  private List<BsonDocument> explainedCommands;
+  private MongoCommandMonitor monitor;
+
+  @BeforeEach
+  void setUp() {
+    this.meterRegistry = new SimpleMeterRegistry();
+    this.explainExecutor = Executors.newSingleThreadExecutor();
+    this.explainedCommands = new ArrayList<>();
+    this.monitor = new MongoCommandMonitor(meterRegistry, command -> {
+      explainedCommands.add(command);
+      final BsonDocument filter = command.getDocument("explain").getDocument("filter", new BsonDocument());
+      return BsonDocument.parse(filter.containsKey("cpf") ? IXSCAN_EXPLANATION : COLLSCAN_EXPLANATION);
+    }, explainExecutor, Duration.ofMillis(100), 10);
+  }
+
+  @Test
+  @DisplayName("Should shape commands by taking their values out")
+  void shouldShapeCommandsWithoutValues() {
+    final String shape = MongoCommandShape.of(BsonDocument.parse(
+        "{\"find\": \"users\", \"filter\": {\"$or\": [{\"name\": \"Jean\"}, {\"cpf\": {\"$in\": [\"1\", 2]}}]}, \"sort\": {\"_id\": 1},"
+            + " \"limit\": 21, \"lsid\": {\"id\": 1}, \"$db\": \"accountdb\"}"));
+
+    assertThat(shape).isEqualTo(BsonDocument.parse(
+        "{\"find\": \"users\", \"filter\": {\"$or\": [{\"name\": \"?\"}, {\"cpf\": {\"$in\": \"?\"}}]}, \"sort\": {\"_id\": 1}}").toJson());
+  }
+
+  @Test
+  @DisplayName("Should explain each new shape once and flag collection scans")
+  void shouldExplainEachNewShapeOnceAndFlagCollectionScans() throws InterruptedException {
+    run(1, "{\"find\": \"users\", \"filter\": {\"name\": \"Jean\"}, \"lsid\": {\"id\": 1}, \"$db\": \"accountdb\"}", 5);
+    run(2, "{\"find\": \"users\", \"filter\": {\"name\": \"Billy\"}, \"$db\": \"accountdb\"}", 5);
+    run(3, "{\"find\": \"users\", \"filter\": {\"cpf\": \"13087756792\"}, \"$db\": \"accountdb\"}", 5);
+    awaitExplains();
+    final double collectionScansBefore = collectionScans();
+    run(4, "{\"find\": \"users\", \"filter\": {\"name\": \"Josh\"}, \"$db\": \"accountdb\"}", 5);
+
+    assertThat(explainedCommands).hasSize(2);
+    assertThat(explainedCommands.get(0)).isEqualTo(BsonDocument.parse(
+        "{\"explain\": {\"find\": \"users\", \"filter\": {\"name\": \"Jean\"}}, \"verbosity\": \"queryPlanner\"}"));
+    assertThat(monitor.shapes()).extracting(stats -> stats.plan).containsExactlyInAnyOrder("COLLSCAN", "FETCH > IXSCAN(ux_users_cpf)");
+    assertThat(meterRegistry.get(MongoCommandMonitor.COLLSCAN_SHAPES_GAUGE).gauge().value()).isEqualTo(1);
+    assertThat(collectionScans()).isEqualTo(collectionScansBefore + 1);
+  }
+
+  @Test
+  @DisplayName("Should record documents returned, reply bytes and slow commands")
+  void shouldRecordDocumentsBytesAndSlowCommands() {
+    final BsonDocument reply = BsonDocument.parse("{\"cursor\": {\"firstBatch\": [{\"_id\": 1}, {\"_id\": 2}], \"id\": 0, \"ns\": \"accountdb.users\"}, \"ok\": 1}");
+    final RawBsonDocument rawReply = new RawBsonDocument(reply, new BsonDocumentCodec());
+
+    monitor.commandStarted(new CommandStartedEvent(null, 1, 1, CONNECTION, "accountdb", "find", BsonDocument.parse("{\"find\": \"users\", \"filter\": {}}")));
+    monitor.commandSucceeded(new CommandSucceededEvent(null, 1, 1, CONNECTION, "accountdb", "find", rawReply, TimeUnit.MILLISECONDS.toNanos(150)));
+    monitor.commandSucceeded(new CommandSucceededEvent(null, 1, 2, CONNECTION, "accountdb", "find", reply, TimeUnit.MILLISECONDS.toNanos(5)));
+
+    assertThat(meterRegistry.get(MongoCommandMonitor.DOCUMENTS_SUMMARY).tag("command", "find").summary().totalAmount()).isEqualTo(4);
+    assertThat(meterRegistry.get(MongoCommandMonitor.REPLY_BYTES_SUMMARY).tag("command", "find").summary().totalAmount())
+        .isEqualTo(2.0 * rawReply.getByteBuffer().remaining());
+    assertThat(meterRegistry.get(MongoCommandMonitor.SLOW_COMMANDS_COUNTER).tag("command", "find").counter().count()).isEqualTo(1);
+    assertThat(monitor.shapes()).singleElement().satisfies(stats -> {
+      assertThat(stats.executions()).isEqualTo(1);
+      assertThat(stats.slowExecutions()).isEqualTo(1);
+      assertThat(stats.maxMillis()).isEqualTo(150);
+    });
+  }
+
+  private void run(final int requestId, final String command, final long elapsedMillis) {
+    final BsonDocument commandDocument = BsonDocument.parse(command);
+    monitor.commandStarted(new CommandStartedEvent(null, requestId, requestId, CONNECTION, "accountdb", commandDocument.getFirstKey(), commandDocument));
+    monitor.commandSucceeded(new CommandSucceededEvent(null, requestId, requestId, CONNECTION, "accountdb", commandDocument.getFirstKey(),
+        BsonDocument.parse("{\"cursor\": {\"firstBatch\": [], \"id\": 0}, \"ok\": 1}"), TimeUnit.MILLISECONDS.toNanos(elapsedMillis)));
+  }
+
+  private double collectionScans() {
+    return meterRegistry.get(MongoCommandMonitor.COLLSCAN_COUNTER).tag("command", "find").counter().count();
+  }
+
+  private void awaitExplains() throws InterruptedException {
+    explainExecutor.shutdown();
+    assertThat(explainExecutor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+  }
+}
@@ -0,0 +1,86 @@
+package com.mercadolivre.users.app.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserFilter;
+import com.mercadolivre.users.core.exception.NotFoundException;
+import com.mercadolivre.users.core.usecase.AccountSearchEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+@DisplayName("[UserMetricsAspect] Unit Tests")
+class UserMetricsAspectTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private AccountSearchEngine<User, UserFilter> userSearching;
+  private AccountSearchEngine<User, UserFilter> timedUserSearching;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    this.meterRegistry = new SimpleMeterRegistry();
+    this.userSearching = mock(AccountSearchEngine.class);
+    final AspectJProxyFactory proxyFactory = new AspectJProxyFactory(this.userSearching);
+    proxyFactory.addAspect(new UserMetricsAspect(this.meterRegistry));
+    this.timedUserSearching = proxyFactory.getProxy();
+  }
+
+  @Test
+  @DisplayName("Should time a search tagged by its filter shape and outcome")
+  void shouldTimeSearchByShape() {
+    final UserFilter filter = new UserFilter(Map.of("name", "jean", "email", "jean@jean.com", "operator", "OR", "type", "LIKE"));
+    given(userSearching.searchBy(any(), any(), any())).willReturn(new CursorPage<>(List.of(), null));
+
+    timedUserSearching.searchBy(filter, CursorPageRequest.of(null, null), Projection.ALL);
+
+    assertThat(meterRegistry.get(UserMetricsAspect.USE_CASE_TIMER)
+        .tag("operation", "searchBy")
+        .tag("fields", "name+email")
+        .tag("operator", "OR")
+        .tag("type", "LIKE")
+        .tag("outcome", UserMetricsAspect.SUCCESS)
+        .timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should tag the outcome with the exception and count domain exceptions")
+  void shouldCountDomainExceptions() {
+    given(userSearching.findById("missing")).willThrow(new NotFoundException("USER_NOT_FOUND", "User missing not found!"));
+
+    assertThrows(NotFoundException.class, () -> timedUserSearching.findById("missing"));
+
+    assertThat(meterRegistry.get(UserMetricsAspect.USE_CASE_TIMER)
+        .tag("operation", "findById")
+        .tag("fields", UserMetricsAspect.NONE)
+        .tag("outcome", "NotFoundException")
+        .timer().count()).isEqualTo(1);
+    assertThat(meterRegistry.get(UserMetricsAspect.EXCEPTIONS_COUNTER).tag("exception", "NotFoundException").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get(UserMetricsAspect.EXCEPTIONS_COUNTER).tag("exception", "AlreadyExistsException").counter().count()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should time a stream until it is closed")
+  void shouldTimeAStreamUntilClosed() {
+    given(userSearching.streamBy(any(), any())).willReturn(Stream.empty());
+
+    final Stream<User> users = timedUserSearching.streamBy(new UserFilter(Map.of("cpf", "13087756792")), Projection.ALL);
+
+    assertThat(meterRegistry.find(UserMetricsAspect.USE_CASE_TIMER).timer()).isNull();
+    users.close();
+    assertThat(meterRegistry.get(UserMetricsAspect.USE_CASE_TIMER).tag("operation", "streamBy").tag("fields", "cpf").timer().count()).isEqualTo(1);
+  }
+}
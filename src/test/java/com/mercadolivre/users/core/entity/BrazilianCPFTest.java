@@ -0,0 +1,104 @@
+package com.mercadolivre.users.core.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("[BrazilianCPF] Unit Tests")
+class BrazilianCPFTest {
+
+  @Test
+  @DisplayName("Should validate check digits")
+  void shouldValidateCheckDigits() {
+    assertThat(new BrazilianCPF("183.271.643-09").isValid()).isTrue();
+    assertThat(new BrazilianCPF("01308775679").isValid()).isFalse();
+    assertThat(new BrazilianCPF("130.877.567-92").isValid()).isTrue();
+    assertThat(new BrazilianCPF("123.000.000-00").isValid()).isFalse();
+    assertThat(new BrazilianCPF("111.111.111-11").isValid()).isFalse();
+    assertThat(new BrazilianCPF("000.000.000-00").isValid()).isFalse();
+    assertThat(new BrazilianCPF("1832716430").isValid()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should keep leading zeros when parsing, formatting and packing")
+  void shouldKeepLeadingZeros() {
+    final BrazilianCPF cpf = new BrazilianCPF("013.087.756-79");
+
+    assertThat(cpf.getRaw()).isEqualTo("01308775679");
+    assertThat(cpf.getFormatted()).isEqualTo("013.087.756-79");
+    assertThat(cpf.toLong()).hasValue(1308775679L);
+    assertThat(BrazilianCPF.fromLong(1308775679L)).isEqualTo(cpf);
+    assertThat(BrazilianCPF.fromLong(1308775679L).number()).isEqualTo("01308775679");
+    assertThat(new BrazilianCPF("1308775679").toLong()).isEmpty();
+    assertThrows(IllegalArgumentException.class, () -> BrazilianCPF.fromLong(100_000_000_000L));
+  }
+
+  @Test
+  @DisplayName("Should append the check digits to a nine digits base")
+  void shouldAppendCheckDigits() {
+    assertThat(BrazilianCPF.withCheckDigits(183_271_643L).getRaw()).isEqualTo("18327164309");
+    assertThat(BrazilianCPF.withCheckDigits(130_877_567L).getFormatted()).isEqualTo("130.877.567-92");
+    assertThat(new Random(42).longs(10_000, 1, 999_999_999L)
+        .filter(base -> base % 111_111_111L != 0)
+        .mapToObj(BrazilianCPF::withCheckDigits))
+        .allMatch(BrazilianCPF::isValid);
+    assertThrows(IllegalArgumentException.class, () -> BrazilianCPF.withCheckDigits(222_222_222L));
+    assertThrows(IllegalArgumentException.class, () -> BrazilianCPF.withCheckDigits(1_000_000_000L));
+  }
+
+  @Test
+  @DisplayName("Should be equal regardless of formatting")
+  void shouldBeEqualRegardlessOfFormatting() {
+    final BrazilianCPF formatted = new BrazilianCPF("183.271.643-09");
+    final BrazilianCPF raw = new BrazilianCPF("18327164309");
+
+    assertThat(formatted).isEqualTo(raw).hasSameHashCodeAs(raw);
+    assertThat(formatted.number()).isEqualTo("183.271.643-09");
+    assertThat(new BrazilianCPF("1832716430")).isNotEqualTo(new BrazilianCPF("01832716430"));
+  }
+
+  @Test
+  @DisplayName("Should behave like the regex based implementation on arbitrary input")
+  void shouldMatchRegexImplementation() {
+    final Random random = new Random(42);
+    final String alphabet = "0123456789.-/ a";
+    final List<String> inputs = IntStream.range(0, 20_000)
+        .mapToObj(i -> random.ints(random.nextInt(30), 0, alphabet.length())
+            .collect(StringBuilder::new, (builder, index) -> builder.append(alphabet.charAt(index)), StringBuilder::append)
+            .toString())
+        .toList();
+
+    for (final String input : inputs) {
+      final BrazilianCPF cpf = new BrazilianCPF(input);
+      final String raw = input.replaceAll("\\D", "");
+      assertThat(cpf.getRaw()).as(input).isEqualTo(raw);
+      assertThat(cpf.getFormatted()).as(input).isEqualTo(Pattern.compile("(\\d{3})(\\d{3})(\\d{3})(\\d{2})").matcher(raw).replaceAll("$1.$2.$3-$4"));
+      assertThat(cpf.isValid()).as(input).isEqualTo(isValidByRegex(raw));
+    }
+    IntStream.range(0, 20_000)
+        .mapToObj(i -> String.format("%011d", random.nextLong(100_000_000_000L)))
+        .forEach(raw -> assertThat(new BrazilianCPF(raw).isValid()).as(raw).isEqualTo(isValidByRegex(raw)));
+  }
+
+  private static boolean isValidByRegex(final String raw) {
+    if (raw.length() != 11 || raw.matches("(\\d)\\1{10}")) {
+      return false;
+    }
+    return Character.getNumericValue(raw.charAt(9)) == checkDigit(raw, 8, 10)
+        && Character.getNumericValue(raw.charAt(10)) == checkDigit(raw, 9, 11);
+  }
+
+  private static int checkDigit(final String raw, final int endIndex, final int multiplier) {
+    final int sum = IntStream.rangeClosed(0, endIndex)
+        .map(i -> Character.getNumericValue(raw.charAt(i)) * (multiplier - i))
+        .sum();
+    final int remainder = sum % 11;
+    return (remainder < 2) ? 0 : 11 - remainder;
+  }
+}
@@ -0,0 +1,36 @@
+package com.mercadolivre.users.core.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.EnumSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("[Projection] Unit Tests")
+class ProjectionTest {
+
+  @Test
+  @DisplayName("Should project every field when none is given")
+  void shouldProjectEveryFieldByDefault() {
+    assertThat(Projection.of(null)).isEqualTo(Projection.ALL);
+    assertThat(Projection.of("")).isEqualTo(Projection.ALL);
+    assertThat(Projection.of(" ")).isEqualTo(Projection.ALL);
+  }
+
+  @Test
+  @DisplayName("Should project the listed fields, ignoring blanks between commas")
+  void shouldProjectListedFields() {
+    assertThat(Projection.of(" id,,email ").fields()).isEqualTo(EnumSet.of(UserField.ID, UserField.EMAIL));
+  }
+
+  @Test
+  @DisplayName("Should reject lists that name no field")
+  void shouldRejectListsWithoutFields() {
+    for (final String fields : new String[] {",", ",,", " , "}) {
+      final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> Projection.of(fields));
+
+      assertThat(exception).hasMessage(String.format("User fields %s must name at least one field!", fields));
+    }
+  }
+}
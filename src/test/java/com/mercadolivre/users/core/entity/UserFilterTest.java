@@ -0,0 +1,61 @@
+package com.mercadolivre.users.core.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("[UserFilter] Unit Tests")
+class UserFilterTest {
+
+  @Test
+  @DisplayName("Should bind every known request param")
+  void shouldBindKnownParams() {
+    final UserFilter filter = new UserFilter(Map.of(
+        "cpf", "183.271.643-09",
+        "name", "Jean",
+        "email", "jean@grey.com",
+        "operator", "or",
+        "type", " Like ",
+        "normalize", "false"));
+
+    assertThat(filter).isEqualTo(UserFilter.builder()
+        .cpf("183.271.643-09")
+        .name("Jean")
+        .email("jean@grey.com")
+        .operator(LogicalOperator.OR)
+        .type(SearchType.LIKE)
+        .normalize(false)
+        .build());
+  }
+
+  @Test
+  @DisplayName("Should default to an exact, normalized AND search")
+  void shouldUseDefaults() {
+    assertThat(new UserFilter(Map.of("name", "Jean"))).isEqualTo(UserFilter.builder().name("Jean").build());
+  }
+
+  @Test
+  @DisplayName("Should reject unknown params and values")
+  void shouldRejectUnknownParams() {
+    final IllegalArgumentException unknownParam = assertThrows(IllegalArgumentException.class, () -> new UserFilter(Map.of("password", "123")));
+    final IllegalArgumentException unknownType = assertThrows(IllegalArgumentException.class, () -> new UserFilter(Map.of("type", "regex")));
+
+    assertThat(unknownParam).hasMessage("UserFilter password does not exist!");
+    assertThat(unknownType).hasMessage("UserFilter type does not accept regex!");
+  }
+
+  @Test
+  @DisplayName("Should only accept true or false to normalize")
+  void shouldRejectValuesThatAreNotBooleans() {
+    assertThat(new UserFilter(Map.of("name", "Jean", "normalize", " TRUE ")).getNormalize()).isTrue();
+    assertThat(new UserFilter(Map.of("name", "Jean", "normalize", "False")).getNormalize()).isFalse();
+    for (final String value : new String[] {"yes", "0", ""}) {
+      final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> new UserFilter(Map.of("normalize", value)));
+
+      assertThat(exception).hasMessage(String.format("UserFilter normalize does not accept %s!", value));
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.mercadolivre.users.core.usecase;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.mercadolivre.users.core.dataprovider.ReactiveAccountRepository;
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserFilter;
+import com.mercadolivre.users.core.exception.AgeBelowException;
+import com.mercadolivre.users.core.exception.CPFInvalidException;
+import java.time.LocalDate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("[ReactiveUserRegistration] Unit Tests")
+class ReactiveUserRegistrationUseCaseTest {
+
+  @InjectMocks
+  private ReactiveUserRegistration userRegistration;
+
+  @Mock
+  private ReactiveAccountSearchEngine<User, UserFilter> userSearching;
+
+  @Mock
+  private ReactiveAccountRepository<User, UserFilter> accountRepository;
+
+  @Test
+  @DisplayName("Should create a valid user")
+  void shouldCreateValidUser() {
+    final User userSample = new User("Billy", new BrazilianCPF("86371844563"), "billy@jean.com", LocalDate.of(1990, 1, 21));
+    given(accountRepository.create(any())).willReturn(Mono.just("1"));
+
+    StepVerifier.create(userRegistration.create(userSample))
+        .expectNext("1")
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("Should signal AgeBelowException without touching the repository")
+  void shouldSignalAgeBelowException() {
+    final User userSample = new User("Billy", new BrazilianCPF("86371844563"), "billy@jean.com", LocalDate.now().minusYears(10));
+
+    StepVerifier.create(userRegistration.create(userSample))
+        .expectError(AgeBelowException.class)
+        .verify();
+    verifyNoInteractions(accountRepository);
+  }
+
+  @Test
+  @DisplayName("Should signal CPFInvalidException when updating to an invalid CPF")
+  void shouldSignalCPFInvalidExceptionOnUpdate() {
+    final User userToUpdate = new User("1", "Billy", new BrazilianCPF("123.000.000-00"), "billy@jean.com", LocalDate.of(1990, 1, 21));
+
+    StepVerifier.create(userRegistration.update(userToUpdate))
+        .expectError(CPFInvalidException.class)
+        .verify();
+    verifyNoInteractions(accountRepository);
+  }
+}
@@ -0,0 +1,87 @@
+package com.mercadolivre.users.core.usecase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.mercadolivre.users.core.dataprovider.ReactiveAccountRepository;
+import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.Projection;
+import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserFilter;
+import com.mercadolivre.users.core.exception.NotFoundException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("[ReactiveUserSearching] Unit Tests")
+class ReactiveUserSearchingUseCaseTest {
+
+  @InjectMocks
+  private ReactiveUserSearching userSearching;
+
+  @Mock
+  private ReactiveAccountRepository<User, UserFilter> accountRepository;
+
+  @Test
+  @DisplayName("Should find a user by id")
+  void shouldFindUserById() {
+    final User existingUser = new User("1", "Billy", new BrazilianCPF("86371844563"), "billy@jean.com", LocalDate.of(1990, 1, 21));
+    given(accountRepository.findById("1", Projection.ALL)).willReturn(Mono.just(existingUser));
+
+    StepVerifier.create(userSearching.findById("1", Projection.ALL))
+        .expectNext(existingUser)
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("Should signal NotFoundException when the user does not exist")
+  void shouldSignalNotFoundWhenUserDoesNotExist() {
+    given(accountRepository.findById(anyString(), any())).willReturn(Mono.empty());
+
+    StepVerifier.create(userSearching.findById("missing", Projection.ALL))
+        .expectError(NotFoundException.class)
+        .verify();
+  }
+
+  @Test
+  @DisplayName("Should return found users in request order along with the missing ids")
+  void shouldLookupUsersInRequestOrder() {
+    final User first = new User("1", "Billy", new BrazilianCPF("86371844563"), "billy@jean.com", LocalDate.of(1990, 1, 21));
+    final User third = new User("3", "Jean", new BrazilianCPF("43874170993"), "jean@jean.com", LocalDate.of(1991, 2, 10));
+    given(accountRepository.findAllById(any(), any())).willReturn(Flux.just(third, first));
+
+    StepVerifier.create(userSearching.findAllById(List.of("1", "2", "3", "1"), Projection.ALL))
+        .assertNext(lookup -> {
+          assertThat(lookup.items()).containsExactly(first, third);
+          assertThat(lookup.missingIds()).containsExactly("2");
+        })
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("Should signal IllegalArgumentException when looking up too many ids")
+  void shouldRejectTooManyIds() {
+    final List<String> ids = IntStream.rangeClosed(0, UserSearching.MAX_LOOKUP_IDS)
+        .mapToObj(String::valueOf)
+        .collect(Collectors.toList());
+
+    StepVerifier.create(userSearching.findAllById(ids, Projection.ALL))
+        .expectError(IllegalArgumentException.class)
+        .verify();
+    verifyNoInteractions(accountRepository);
+  }
+}
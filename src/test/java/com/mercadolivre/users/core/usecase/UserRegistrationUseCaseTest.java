@@ -3,6 +3,7 @@ package com.mercadolivre.users.core.usecase;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -10,15 +11,26 @@ import static org.mockito.Mockito.verifyNoInteractions;
 
 import com.mercadolivre.users.core.dataprovider.AccountRepository;
 import com.mercadolivre.users.core.entity.BrazilianCPF;
-import com.mercadolivre.users.core.entity.LogicalOperator;
+import com.mercadolivre.users.core.entity.Message;
+import com.mercadolivre.users.core.entity.RegistrationResult;
 import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserChanges;
+import com.mercadolivre.users.core.entity.UserField;
 import com.mercadolivre.users.core.entity.UserFilter;
 import com.mercadolivre.users.core.exception.AgeBelowException;
 import com.mercadolivre.users.core.exception.AlreadyExistsException;
 import com.mercadolivre.users.core.exception.CPFInvalidException;
+import com.mercadolivre.users.core.exception.NotFoundException;
+import com.mercadolivre.users.core.exception.VersionConflictException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,7 +47,7 @@ public class UserRegistrationUseCaseTest {
   private UserRegistration userRegistration;
 
   @Mock
-  private AccountRepository<User, UserFilter> accountRepository;
+  private AccountRepository<User, UserFilter, UserChanges> accountRepository;
 
   @Mock
   private UserSearching userSearching;
@@ -64,29 +76,28 @@ public class UserRegistrationUseCaseTest {
   }
 
   @Test
-  @DisplayName("Should ensure there is no user with same CPF when register a new one")
-  void shouldEnsureThereIsNoUserWithSameCPFOnRegisterANewOne() {
-    final User existingUserSample = new User("Billy", new BrazilianCPF("183.271.643-09"), "billy@jean.com", LocalDate.of(2000, 1, 21));
-    given(accountRepository.find(any())).willReturn(List.of(existingUserSample));
+  @DisplayName("Should create user with a single insert, without querying for an existing CPF or email first")
+  void shouldCreateUserWithoutQueryingForExistingOnes() {
+    final User userSample = new User("Billy", new BrazilianCPF("183.271.643-09"), "billy@jean.com", LocalDate.of(2000, 1, 21));
+    given(accountRepository.create(userSample)).willReturn(UUID.randomUUID().toString());
 
-    final User sameCPFUserSample = new User("Jean", new BrazilianCPF("183.271.643-09"), "jean@billy.com", LocalDate.of(2000, 1, 21));
-    assertThrows(AlreadyExistsException.class, ()-> userRegistration.create(sameCPFUserSample));
+    userRegistration.create(userSample);
 
-    verify(accountRepository).find(UserFilter.builder().operator(LogicalOperator.OR).email(sameCPFUserSample.getEmail()).cpf(sameCPFUserSample.getCpf().getRaw()).build());
-    verify(accountRepository, times(0)).create(any());
+    verify(accountRepository, times(1)).create(userSample);
+    verify(accountRepository, times(0)).find(any(), any(), any());
   }
 
   @Test
-  @DisplayName("Should ensure there is no user with same email when register a new one")
-  void shouldEnsureThereIsNoUserWithSameEmailOnRegisterANewOne() {
-    final User existingUserSample = new User("Billy", new BrazilianCPF("86371844563"), "billy@jean.com", LocalDate.of(2000, 1, 21));
-    given(accountRepository.find(any())).willReturn(List.of(existingUserSample));
+  @DisplayName("Should propagate AlreadyExistsException when data provider rejects a duplicated CPF or email")
+  void shouldPropagateAlreadyExistsExceptionFromDataProvider() {
+    final User sameCPFUserSample = new User("Jean", new BrazilianCPF("183.271.643-09"), "jean@billy.com", LocalDate.of(2000, 1, 21));
+    given(accountRepository.create(any())).willThrow(new AlreadyExistsException(
+        Message.REGISTRATION_ERROR_USER_ALREADY_EXISTS.getCode(),
+        Message.REGISTRATION_ERROR_USER_ALREADY_EXISTS.getMessage()));
 
-    final User sameEmailUserSample = new User("Jean", new BrazilianCPF("28632641093"), "billy@jean.com", LocalDate.of(2000, 1, 21));
-    assertThrows(AlreadyExistsException.class, ()-> userRegistration.create(sameEmailUserSample));
+    assertThrows(AlreadyExistsException.class, ()-> userRegistration.create(sameCPFUserSample));
 
-    verify(accountRepository).find(UserFilter.builder().operator(LogicalOperator.OR).cpf(sameEmailUserSample.getCpf().number()).email(sameEmailUserSample.getEmail()).build());
-    verify(accountRepository, times(0)).create(any());
+    verify(accountRepository, times(0)).find(any(), any(), any());
   }
 
   @Test
@@ -135,4 +146,123 @@ public class UserRegistrationUseCaseTest {
     verify(accountRepository, times(0)).update(any());
   }
 
+  @Test
+  @DisplayName("Should update only the changed fields with a single conditional write")
+  void shouldUpdateOnlyTheChangedFields() {
+    final String id = UUID.randomUUID().toString();
+    final UserChanges changes = new UserChanges(Map.of(UserField.NAME, "Joe"), 2L);
+    given(accountRepository.update(id, changes)).willReturn(true);
+
+    userRegistration.update(id, changes);
+
+    verify(accountRepository).update(id, changes);
+    verify(accountRepository, times(0)).findVersion(any());
+    verifyNoInteractions(userSearching);
+  }
+
+  @Test
+  @DisplayName("Should validate only the changed fields")
+  void shouldValidateOnlyTheChangedFields() {
+    final String id = UUID.randomUUID().toString();
+    final UserChanges invalidCPF = new UserChanges(Map.of(UserField.CPF, new BrazilianCPF("12345")), null);
+    final UserChanges underage = new UserChanges(Map.of(UserField.BIRTH_DATE, LocalDate.now().minusYears(10)), null);
+    final Map<UserField, Object> removedCPF = new HashMap<>();
+    removedCPF.put(UserField.CPF, null);
+
+    assertThrows(CPFInvalidException.class, () -> userRegistration.update(id, invalidCPF));
+    assertThrows(AgeBelowException.class, () -> userRegistration.update(id, underage));
+    assertThrows(IllegalArgumentException.class, () -> userRegistration.update(id, new UserChanges(removedCPF, null)));
+
+    verifyNoInteractions(accountRepository);
+  }
+
+  @Test
+  @DisplayName("Should tell a missing user from a stale version when the conditional write matches nothing")
+  void shouldTellAMissingUserFromAStaleVersion() {
+    final String missingId = UUID.randomUUID().toString();
+    final String staleId = UUID.randomUUID().toString();
+    final UserChanges changes = new UserChanges(Map.of(UserField.EMAIL, "joe@jean.com"), 1L);
+    given(accountRepository.update(any(), any(UserChanges.class))).willReturn(false);
+    given(accountRepository.findVersion(missingId)).willReturn(Optional.empty());
+    given(accountRepository.findVersion(staleId)).willReturn(Optional.of(2L));
+
+    assertThrows(NotFoundException.class, () -> userRegistration.update(missingId, changes));
+    assertThrows(VersionConflictException.class, () -> userRegistration.update(staleId, changes));
+  }
+
+  @Test
+  @DisplayName("Should report a result per user of a batch, rejecting invalid, duplicated and existing users")
+  void shouldReportAResultPerUserOfABatch() {
+    final User billy = new User("Billy", new BrazilianCPF("86371844563"), "billy@jean.com", LocalDate.of(1990, 1, 21));
+    final User underage = new User("Jean", new BrazilianCPF("183.271.643-09"), "jean@billy.com", LocalDate.now().minusYears(10));
+    final User invalidCPF = new User("Jean", new BrazilianCPF("11111111111"), "jean@billy.com", LocalDate.of(1990, 1, 21));
+    final User sameEmailAsBilly = new User("Billy", new BrazilianCPF("183.271.643-09"), "BILLY@jean.com", LocalDate.of(1990, 1, 21));
+    final User existing = new User("Josh", new BrazilianCPF("130.877.567-92"), "josh@something.com", LocalDate.of(1990, 1, 20));
+    given(accountRepository.findConflicting(anyList())).willReturn(List.of(new User(null, null, new BrazilianCPF("13087756792"), "someone@else.com", null)));
+    given(accountRepository.createAll(List.of(billy))).willReturn(List.of(RegistrationResult.created("65b6c19ae3ee4232dbd2f2e2")));
+
+    final List<RegistrationResult> actualResults = userRegistration.createAll(List.of(billy, underage, invalidCPF, sameEmailAsBilly, existing));
+
+    assertThat(actualResults).containsExactly(
+        RegistrationResult.created("65b6c19ae3ee4232dbd2f2e2"),
+        RegistrationResult.failed(Message.REGISTRATION_ERROR_AGE_BELOW_X),
+        RegistrationResult.failed(Message.REGISTRATION_ERROR_CPF_INVALID),
+        RegistrationResult.failed(Message.REGISTRATION_ERROR_USER_DUPLICATED_IN_BATCH),
+        RegistrationResult.failed(Message.REGISTRATION_ERROR_USER_ALREADY_EXISTS));
+    verify(accountRepository).findConflicting(List.of(billy, existing));
+    verify(accountRepository, times(0)).create(any());
+  }
+
+  @Test
+  @DisplayName("Should look for conflicts and insert a large batch chunk by chunk")
+  void shouldProcessALargeBatchChunkByChunk() {
+    final List<User> users = IntStream.range(0, UserRegistration.BATCH_CHUNK_SIZE + 1)
+        .mapToObj(i -> new User("User " + i, new BrazilianCPF(validCPF(i)), i + "@users.com", LocalDate.of(1990, 1, 21)))
+        .collect(Collectors.toList());
+    given(accountRepository.createAll(anyList())).willAnswer(invocation -> ((List<User>) invocation.getArgument(0)).stream()
+        .map(user -> RegistrationResult.created(UUID.randomUUID().toString()))
+        .collect(Collectors.toList()));
+
+    final List<RegistrationResult> actualResults = userRegistration.createAll(users);
+
+    assertThat(actualResults).hasSize(users.size()).allMatch(RegistrationResult::isCreated);
+    verify(accountRepository, times(2)).findConflicting(anyList());
+    verify(accountRepository, times(2)).createAll(anyList());
+  }
+
+  @Test
+  @DisplayName("Should reject a batch larger than allowed")
+  void shouldRejectABatchLargerThanAllowed() {
+    final User userSample = new User("Billy", new BrazilianCPF("86371844563"), "billy@jean.com", LocalDate.of(1990, 1, 21));
+    final List<User> users = new ArrayList<>();
+    for (int i = 0; i <= UserRegistration.MAX_BATCH_SIZE; i++) {
+      users.add(userSample);
+    }
+
+    assertThrows(IllegalArgumentException.class, () -> userRegistration.createAll(users));
+
+    verifyNoInteractions(accountRepository);
+  }
+
+  private static String validCPF(final int seed) {
+    final int[] digits = new int[11];
+    final String base = String.format("%09d", 100_000_000 + seed);
+    for (int i = 0; i < 9; i++) {
+      digits[i] = base.charAt(i) - '0';
+    }
+    for (int position = 9; position < 11; position++) {
+      int sum = 0;
+      for (int i = 0; i < position; i++) {
+        sum += digits[i] * (position + 1 - i);
+      }
+      final int remainder = sum % 11;
+      digits[position] = remainder < 2 ? 0 : 11 - remainder;
+    }
+    final StringBuilder cpf = new StringBuilder();
+    for (final int digit : digits) {
+      cpf.append(digit);
+    }
+    return cpf.toString();
+  }
+
 }
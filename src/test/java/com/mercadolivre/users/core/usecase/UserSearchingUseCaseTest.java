@@ -6,12 +6,18 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import com.mercadolivre.users.core.dataprovider.AccountRepository;
 import com.mercadolivre.users.core.entity.BrazilianCPF;
+import com.mercadolivre.users.core.entity.CursorPage;
+import com.mercadolivre.users.core.entity.CursorPageRequest;
+import com.mercadolivre.users.core.entity.IdLookup;
 import com.mercadolivre.users.core.entity.LogicalOperator;
+import com.mercadolivre.users.core.entity.Projection;
 import com.mercadolivre.users.core.entity.SearchType;
 import com.mercadolivre.users.core.entity.User;
+import com.mercadolivre.users.core.entity.UserChanges;
 import com.mercadolivre.users.core.entity.UserFilter;
 import com.mercadolivre.users.core.exception.NotFoundException;
 import java.time.LocalDate;
@@ -19,7 +25,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,30 +44,26 @@ class UserSearchingUseCaseTest {
   private UserSearching userSearching;
 
   @Mock
-  private AccountRepository<User, UserFilter> accountRepository;
+  private AccountRepository<User, UserFilter, UserChanges> accountRepository;
 
   @Test
-  @DisplayName("Should find all existing users")
-  void shouldFindAllUsers() {
-    final List<User> existingUsersSample = List.of(
-        new User(UUID.randomUUID().toString(), "Billy", new BrazilianCPF("86371844563"), "billy@jean.com", LocalDate.of(1990, 1, 21)),
-        new User(UUID.randomUUID().toString(), "Jean", new BrazilianCPF("43874170993"), "jean@jean.com", LocalDate.of(1991, 2, 10))
-    );
-    given(accountRepository.find(any())).willReturn(existingUsersSample);
+  @DisplayName("Should find the version of a user and throw NotFoundException when it does not exist")
+  void shouldFindTheVersionOfAUser() {
+    given(accountRepository.findVersion("existing")).willReturn(Optional.of(3L));
+    given(accountRepository.findVersion("missing")).willReturn(Optional.empty());
 
-    final List<User> actualUsers = userSearching.searchBy(UserFilter.builder().build());
-
-    assertThat(actualUsers).containsExactlyInAnyOrderElementsOf(existingUsersSample);
+    assertThat(userSearching.findVersion("existing")).isEqualTo(3L);
+    assertThrows(NotFoundException.class, () -> userSearching.findVersion("missing"));
   }
 
   @Test
   @DisplayName("Should return an empty list when there is no users")
   void shouldReturnEmptyListWhereThereIsNoUsers() {
-    given(accountRepository.find(any())).willReturn(Collections.emptyList());
+    given(accountRepository.find(any(), any(CursorPageRequest.class), any(Projection.class))).willReturn(new CursorPage<>(Collections.emptyList(), null));
 
-    final List<User> actualUsers = userSearching.searchBy(UserFilter.builder().name("").build());
+    final CursorPage<User> actualPage = userSearching.searchBy(UserFilter.builder().name("").build(), CursorPageRequest.of(null, null), Projection.ALL);
 
-    assertThat(actualUsers).isEmpty();
+    assertThat(actualPage.items()).isEmpty();
   }
 
   @Test
@@ -70,15 +75,32 @@ class UserSearchingUseCaseTest {
         new User(UUID.randomUUID().toString(), "Jean Grey", new BrazilianCPF("09983892936"), "jean@jean.com", LocalDate.of(1991, 2, 10))
     );
     final List<User> mockedUsersFromRepository = List.of(existingUsersSample.get(1), existingUsersSample.get(2));
-    given(accountRepository.find(UserFilter.builder().name("jean grey").build())).willReturn(mockedUsersFromRepository);
+    final CursorPageRequest pageRequest = CursorPageRequest.of(null, null);
+    given(accountRepository.find(UserFilter.builder().name("jean grey").build(), pageRequest, Projection.ALL))
+        .willReturn(new CursorPage<>(mockedUsersFromRepository, null));
 
-    final List<User> actualUsers = userSearching.searchBy(UserFilter.builder().name("jean grey").build());
+    final List<User> actualUsers = userSearching.searchBy(UserFilter.builder().name("jean grey").build(), pageRequest, Projection.ALL).items();
 
     final UserFilter expectedUserFilterWithDefaultConfig = UserFilter.builder().name("jean grey").operator(LogicalOperator.AND).type(SearchType.EQUALS).normalize(true).build();
-    verify(accountRepository).find(expectedUserFilterWithDefaultConfig);
+    verify(accountRepository).find(expectedUserFilterWithDefaultConfig, pageRequest, Projection.ALL);
     assertThat(actualUsers).containsExactlyInAnyOrderElementsOf(mockedUsersFromRepository);
   }
 
+  @Test
+  @DisplayName("Should find a page of users")
+  void shouldFindAPageOfUsers() {
+    final CursorPage<User> existingPage = new CursorPage<>(List.of(
+        new User(UUID.randomUUID().toString(), "Billy", new BrazilianCPF("86371844563"), "billy@jean.com", LocalDate.of(1990, 1, 21))
+    ), "ZbZBmsPuQjLb0vLi");
+    final CursorPageRequest pageRequest = CursorPageRequest.first(1);
+    given(accountRepository.find(any(), any(CursorPageRequest.class), any(Projection.class))).willReturn(existingPage);
+
+    final CursorPage<User> actualPage = userSearching.searchBy(UserFilter.builder().name("Billy").build(), pageRequest, Projection.ALL);
+
+    verify(accountRepository).find(UserFilter.builder().name("Billy").build(), pageRequest, Projection.ALL);
+    assertThat(actualPage).isEqualTo(existingPage);
+  }
+
   @Test
   @DisplayName("Should find existing user by id")
   void shouldFindUserById() {
@@ -92,6 +114,28 @@ class UserSearchingUseCaseTest {
     assertThat(actualUser).isEqualTo(existingUserSample);
   }
 
+  @Test
+  @DisplayName("Should find existing user by id with the given projection")
+  void shouldFindUserByIdWithProjection() {
+    final String sampleId = UUID.randomUUID().toString();
+    final Projection projection = Projection.of("id,email");
+    final User existingUserSample = new User(sampleId, null, null, "billy@jean.com", null);
+    given(accountRepository.findById(anyString(), any(Projection.class))).willReturn(Optional.of(existingUserSample));
+
+    final User actualUser = userSearching.findById(sampleId, projection);
+
+    verify(accountRepository).findById(sampleId, projection);
+    assertThat(actualUser).isEqualTo(existingUserSample);
+  }
+
+  @Test
+  @DisplayName("Should throw a NotFoundException when projected user is not found")
+  void shouldThrowNotFoundExceptionWhenProjectedUserIsNotFound() {
+    given(accountRepository.findById(anyString(), any(Projection.class))).willReturn(Optional.empty());
+
+    assertThrows(NotFoundException.class, () -> userSearching.findById(UUID.randomUUID().toString(), Projection.of("email")));
+  }
+
   @Test
   @DisplayName("Should throw a NotFoundException when user is not found")
   void shouldThrowNotFoundExceptionWhenUserIsNotFound() {
@@ -100,5 +144,45 @@ class UserSearchingUseCaseTest {
     assertThrows(NotFoundException.class, () -> userSearching.findById(UUID.randomUUID().toString()));
   }
 
+  @Test
+  @DisplayName("Should find users by ids in the requested order and report the missing ones")
+  void shouldFindUsersByIdsInRequestedOrder() {
+    final User billy = new User("65b6c19ae3ee4232dbd2f2e2", "Billy", new BrazilianCPF("86371844563"), "billy@jean.com", LocalDate.of(1990, 1, 21));
+    final User jean = new User("65b6c19ae3ee4232dbd2f2e3", "Jean", new BrazilianCPF("18327164309"), "jean@billy.com", LocalDate.of(1990, 1, 21));
+    given(accountRepository.findAllById(any(), any(Projection.class))).willReturn(List.of(billy, jean));
+
+    final IdLookup<User> actualLookup = userSearching.findAllById(List.of(jean.getId(), "65b6c19ae3ee4232dbd2f2e4", billy.getId(), jean.getId()), Projection.ALL);
+
+    verify(accountRepository).findAllById(Set.of(jean.getId(), "65b6c19ae3ee4232dbd2f2e4", billy.getId()), Projection.ALL);
+    assertThat(actualLookup.items()).containsExactly(jean, billy);
+    assertThat(actualLookup.missingIds()).containsExactly("65b6c19ae3ee4232dbd2f2e4");
+  }
+
+  @Test
+  @DisplayName("Should find users by ObjectIds in upper case hex, once each and in the requested order")
+  void shouldFindUsersByIdsWhateverTheirCase() {
+    final User billy = new User("65b6c19ae3ee4232dbd2f2e2", "Billy", new BrazilianCPF("86371844563"), "billy@jean.com", LocalDate.of(1990, 1, 21));
+    final User jean = new User("65b6c19ae3ee4232dbd2f2e3", "Jean", new BrazilianCPF("18327164309"), "jean@billy.com", LocalDate.of(1990, 1, 21));
+    given(accountRepository.findAllById(any(), any(Projection.class))).willReturn(List.of(billy, jean));
+
+    final IdLookup<User> actualLookup = userSearching.findAllById(
+        List.of("65B6C19AE3EE4232DBD2F2E3", "65B6C19AE3EE4232DBD2F2E4", billy.getId(), jean.getId()), Projection.ALL);
+
+    verify(accountRepository).findAllById(Set.of("65B6C19AE3EE4232DBD2F2E3", "65B6C19AE3EE4232DBD2F2E4", billy.getId()), Projection.ALL);
+    assertThat(actualLookup.items()).containsExactly(jean, billy);
+    assertThat(actualLookup.missingIds()).containsExactly("65B6C19AE3EE4232DBD2F2E4");
+  }
+
+  @Test
+  @DisplayName("Should reject a lookup with more ids than allowed")
+  void shouldRejectALookupWithTooManyIds() {
+    final List<String> ids = IntStream.rangeClosed(0, UserSearching.MAX_LOOKUP_IDS)
+        .mapToObj(String::valueOf)
+        .collect(Collectors.toList());
+
+    assertThrows(IllegalArgumentException.class, () -> userSearching.findAllById(ids, Projection.ALL));
+
+    verifyNoInteractions(accountRepository);
+  }
 
 }